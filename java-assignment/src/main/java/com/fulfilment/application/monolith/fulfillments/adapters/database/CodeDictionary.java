@@ -0,0 +1,47 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns codes to dense ids ({@code 0, 1, 2, ...}) so the constraint graph can key its counters
+ * by primitives and keep each code string once. Not thread safe.
+ */
+final class CodeDictionary {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    private final List<String> codes = new ArrayList<>();
+
+    int intern(String code) {
+        Integer id = ids.get(code);
+        if (id != null) {
+            return id;
+        }
+        int next = codes.size();
+        ids.put(code, next);
+        codes.add(code);
+        return next;
+    }
+
+    /** Id of an already interned code, or -1. */
+    int lookup(String code) {
+        Integer id = ids.get(code);
+        return id == null ? -1 : id;
+    }
+
+    String code(int id) {
+        return codes.get(id);
+    }
+
+    int size() {
+        return codes.size();
+    }
+
+    void clear() {
+        ids.clear();
+        codes.clear();
+    }
+}
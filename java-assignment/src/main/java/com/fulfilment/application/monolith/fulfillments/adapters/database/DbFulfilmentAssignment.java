@@ -2,6 +2,7 @@ package com.fulfilment.application.monolith.fulfillments.adapters.database;
 
 import io.quarkus.hibernate.orm.panache.PanacheEntity;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
@@ -11,7 +12,15 @@ import java.time.LocalDateTime;
 @Table(
     uniqueConstraints = @UniqueConstraint(
         columnNames = {"productCode", "storeCode", "warehouseCode"}
-    )
+    ),
+    // serve the limit counts and the reverse lookups: warehouses per store and products per
+    // warehouse; warehouses per product and store come from the unique constraint index.
+    // createdAt serves the replay of the rows created after a graph snapshot
+    indexes = {
+        @Index(name = "fulfilment_store_warehouse_idx", columnList = "storeCode, warehouseCode"),
+        @Index(name = "fulfilment_warehouse_product_idx", columnList = "warehouseCode, productCode"),
+        @Index(name = "fulfilment_created_at_idx", columnList = "createdAt")
+    }
 )
 public class DbFulfilmentAssignment extends PanacheEntity {
 
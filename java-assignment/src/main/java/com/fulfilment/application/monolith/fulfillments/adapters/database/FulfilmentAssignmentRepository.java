@@ -1,9 +1,221 @@
 package com.fulfilment.application.monolith.fulfillments.adapters.database;
 
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentCounts;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @ApplicationScoped
 public class FulfilmentAssignmentRepository
         implements PanacheRepository<DbFulfilmentAssignment> {
+
+    @Inject
+    FulfilmentConstraintGraph constraintGraph;
+
+    @Inject
+    FulfilmentLimitLock limitLock;
+
+    @Inject
+    FulfilmentLookupCache lookupCache;
+
+    @Inject
+    TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    @ConfigProperty(name = "fulfilment.constraint-graph.enabled", defaultValue = "true")
+    boolean constraintGraphEnabled;
+
+    /**
+     * All three fulfilment limits. Answered from the in-memory {@link FulfilmentConstraintGraph}
+     * once it is loaded, otherwise by {@link #queryLimits}. Only stable while the store and the
+     * warehouse are locked through {@link FulfilmentLimitLock}.
+     */
+    public FulfilmentCounts countLimits(String productCode, String storeCode, String warehouseCode) {
+        if (usesConstraintGraph() && constraintGraph.isLoaded()) {
+            return constraintGraph.counts(productCode, storeCode, warehouseCode);
+        }
+        return queryLimits(productCode, storeCode, warehouseCode);
+    }
+
+    /**
+     * All three fulfilment limits in one round trip. Only rows of the store or of the warehouse
+     * are read, through the (storeCode, warehouseCode) and (warehouseCode, productCode) indexes.
+     */
+    public FulfilmentCounts queryLimits(String productCode, String storeCode, String warehouseCode) {
+        Object[] counts = getEntityManager()
+                .createQuery("select "
+                        + "count(distinct case when a.productCode = :product and a.storeCode = :store "
+                        + "then a.warehouseCode end), "
+                        + "count(distinct case when a.storeCode = :store then a.warehouseCode end), "
+                        + "count(distinct case when a.warehouseCode = :warehouse then a.productCode end) "
+                        + "from DbFulfilmentAssignment a "
+                        + "where a.storeCode = :store or a.warehouseCode = :warehouse", Object[].class)
+                .setParameter("product", productCode)
+                .setParameter("store", storeCode)
+                .setParameter("warehouse", warehouseCode)
+                .getSingleResult();
+
+        return new FulfilmentCounts(
+                ((Number) counts[0]).longValue(),
+                ((Number) counts[1]).longValue(),
+                ((Number) counts[2]).longValue());
+    }
+
+    // The reverse lookups below read a single index each, without touching the table rows:
+    // (storeCode, warehouseCode), the unique (productCode, storeCode, warehouseCode) and
+    // (warehouseCode, productCode).
+
+    public List<String> findWarehouseCodesByStore(String storeCode) {
+        return lookupCache.warehousesOfStore(storeCode, () -> getEntityManager()
+                .createQuery("select distinct a.warehouseCode from DbFulfilmentAssignment a "
+                        + "where a.storeCode = :store order by a.warehouseCode", String.class)
+                .setParameter("store", storeCode)
+                .getResultList());
+    }
+
+    public List<String> findWarehouseCodesByProductAndStore(String productCode, String storeCode) {
+        return lookupCache.warehousesOfProductInStore(productCode, storeCode, () -> getEntityManager()
+                .createQuery("select a.warehouseCode from DbFulfilmentAssignment a "
+                        + "where a.productCode = :product and a.storeCode = :store "
+                        + "order by a.warehouseCode", String.class)
+                .setParameter("product", productCode)
+                .setParameter("store", storeCode)
+                .getResultList());
+    }
+
+    public List<String> findProductCodesByWarehouse(String warehouseCode) {
+        return lookupCache.productsOfWarehouse(warehouseCode, () -> getEntityManager()
+                .createQuery("select distinct a.productCode from DbFulfilmentAssignment a "
+                        + "where a.warehouseCode = :warehouse order by a.productCode", String.class)
+                .setParameter("warehouse", warehouseCode)
+                .getResultList());
+    }
+
+    /** Every assignment of the given stores or of the given warehouses. */
+    public List<DbFulfilmentAssignment> findByStoresOrWarehouses(Collection<String> storeCodes,
+                                                                 Collection<String> warehouseCodes) {
+        return list("storeCode in ?1 or warehouseCode in ?2", storeCodes, warehouseCodes);
+    }
+
+    /** Inserts grouped into JDBC batches of quarkus.hibernate-orm.jdbc.statement-batch-size. */
+    public void persistAll(List<DbFulfilmentAssignment> assignments) {
+        // one by one through persist below, so that every assignment is reserved in the graph
+        assignments.forEach(this::persist);
+        flush();
+    }
+
+    /**
+     * Deletes up to {@code limit} assignments of {@code warehouseCode} created no later than
+     * {@code createdUpTo}, so that assignments of a warehouse re-created later under the same code
+     * are kept. Returns the number of deleted assignments.
+     */
+    public int deleteChunkOfWarehouse(String warehouseCode, LocalDateTime createdUpTo, int limit) {
+        List<DbFulfilmentAssignment> chunk = find(
+                        "warehouseCode = ?1 and (createdAt is null or createdAt <= ?2)",
+                        Sort.by("id"), warehouseCode, createdUpTo)
+                .range(0, limit - 1)
+                .list();
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        delete("id in ?1", chunk.stream().map(assignment -> assignment.id).toList());
+
+        // released only on commit; until then the graph over-counts, which is the safe side
+        boolean releaseFromGraph = usesConstraintGraph();
+        afterCommit(() -> chunk.forEach(assignment -> {
+            if (releaseFromGraph) {
+                constraintGraph.remove(assignment.productCode, assignment.storeCode, assignment.warehouseCode);
+            }
+            lookupCache.invalidate(assignment.productCode, assignment.storeCode, assignment.warehouseCode);
+        }));
+        return chunk.size();
+    }
+
+    /**
+     * Warehouses that were archived without a replacement but still have assignments from before
+     * their archiving, with the time of that archiving.
+     */
+    public Map<String, LocalDateTime> findArchivedWarehousesWithAssignments() {
+        Map<String, LocalDateTime> archived = new HashMap<>();
+        getEntityManager()
+                .createQuery("select a.warehouseCode, max(w.archivedAt) "
+                        + "from DbFulfilmentAssignment a, DbWarehouse w "
+                        + "where w.businessUnitCode = a.warehouseCode and w.archivedAt is not null "
+                        + "and (a.createdAt is null or a.createdAt <= w.archivedAt) "
+                        + "and not exists (select x.id from DbWarehouse x "
+                        + "where x.businessUnitCode = a.warehouseCode and x.archivedAt is null) "
+                        + "group by a.warehouseCode", Object[].class)
+                .getResultList()
+                .forEach(row -> archived.put((String) row[0], (LocalDateTime) row[1]));
+        return archived;
+    }
+
+    @Override
+    public void persist(DbFulfilmentAssignment assignment) {
+        PanacheRepository.super.persist(assignment);
+        String product = assignment.productCode;
+        String store = assignment.storeCode;
+        String warehouse = assignment.warehouseCode;
+        if (usesConstraintGraph()) {
+            // reserved right away rather than on commit: the next holder of the store or warehouse
+            // lock must see it even if it gets the lock before this commit hook has run; a
+            // rolled back reservation only makes the graph over-count for a moment
+            constraintGraph.add(product, store, warehouse);
+            afterRollback(() -> constraintGraph.remove(product, store, warehouse));
+        }
+        afterCommit(() -> lookupCache.invalidate(product, store, warehouse));
+    }
+
+    /**
+     * Loads {@link FulfilmentConstraintGraph} from the whole table, for when
+     * {@link FulfilmentGraphSnapshotter} has no snapshot it can restore.
+     */
+    void loadConstraintGraph() {
+        // streamed straight into the graph, so only the interned codes stay in memory
+        try (Stream<String[]> assignments = getEntityManager()
+                .createQuery("select a.productCode, a.storeCode, a.warehouseCode from DbFulfilmentAssignment a",
+                        Object[].class)
+                .getResultStream()
+                .map(row -> new String[] {(String) row[0], (String) row[1], (String) row[2]})) {
+            constraintGraph.load(assignments::iterator);
+        }
+    }
+
+    boolean usesConstraintGraph() {
+        return constraintGraphEnabled && !limitLock.isDistributed();
+    }
+
+    private void afterCommit(Runnable action) {
+        afterCompletion(true, action);
+    }
+
+    private void afterRollback(Runnable action) {
+        afterCompletion(false, action);
+    }
+
+    private void afterCompletion(boolean onCommit, Runnable action) {
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if ((status == Status.STATUS_COMMITTED) == onCommit) {
+                    action.run();
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,129 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentCounts;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of the fulfilment assignments holding exactly the counters behind the three
+ * fulfilment limits, so a limit check is a handful of primitive hash lookups instead of a query.
+ *
+ * <p>Product, store and warehouse codes are interned to dense ints and every counter is keyed by
+ * an int or a packed pair of ints. Distinct counts are maintained through reference counts of the
+ * underlying pairs: a store gains a distinct warehouse when its first assignment to that
+ * warehouse appears and loses it with the last one.
+ *
+ * <p>Loaded at startup by {@link FulfilmentGraphSnapshotter} and kept up to date by the write
+ * methods of {@link FulfilmentAssignmentRepository}: an assignment is added when persisted and
+ * removed again if its transaction rolls back. It relies on each assignment being added once,
+ * which the unique constraint on (productCode, storeCode, warehouseCode) guarantees.
+ */
+@ApplicationScoped
+public class FulfilmentConstraintGraph {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final CodeDictionary products = new CodeDictionary();
+    private final CodeDictionary stores = new CodeDictionary();
+    private final CodeDictionary warehouses = new CodeDictionary();
+
+    // (product, store) -> warehouses fulfilling the product for the store
+    private final LongIntCounterMap warehousesPerProductStore = new LongIntCounterMap();
+
+    // (store, warehouse) -> assignments; store -> pairs with a non-zero count
+    private final LongIntCounterMap assignmentsPerStoreWarehouse = new LongIntCounterMap();
+    private final LongIntCounterMap distinctWarehousesPerStore = new LongIntCounterMap();
+
+    // (warehouse, product) -> assignments; warehouse -> pairs with a non-zero count
+    private final LongIntCounterMap assignmentsPerWarehouseProduct = new LongIntCounterMap();
+    private final LongIntCounterMap distinctProductsPerWarehouse = new LongIntCounterMap();
+
+    private volatile boolean loaded;
+
+    /** Whether the graph reflects the database; until then limits must be counted by query. */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public FulfilmentCounts counts(String productCode, String storeCode, String warehouseCode) {
+        lock.readLock().lock();
+        try {
+            int product = products.lookup(productCode);
+            int store = stores.lookup(storeCode);
+            int warehouse = warehouses.lookup(warehouseCode);
+
+            return new FulfilmentCounts(
+                    product < 0 || store < 0 ? 0 : warehousesPerProductStore.get(LongIntCounterMap.pair(product, store)),
+                    store < 0 ? 0 : distinctWarehousesPerStore.get(store),
+                    warehouse < 0 ? 0 : distinctProductsPerWarehouse.get(warehouse));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(String productCode, String storeCode, String warehouseCode) {
+        lock.writeLock().lock();
+        try {
+            addUnlocked(productCode, storeCode, warehouseCode);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productCode, String storeCode, String warehouseCode) {
+        lock.writeLock().lock();
+        try {
+            int product = products.lookup(productCode);
+            int store = stores.lookup(storeCode);
+            int warehouse = warehouses.lookup(warehouseCode);
+            if (product < 0 || store < 0 || warehouse < 0
+                    || warehousesPerProductStore.decrement(LongIntCounterMap.pair(product, store)) < 0) {
+                return;
+            }
+            if (assignmentsPerStoreWarehouse.decrement(LongIntCounterMap.pair(store, warehouse)) == 0) {
+                distinctWarehousesPerStore.decrement(store);
+            }
+            if (assignmentsPerWarehouseProduct.decrement(LongIntCounterMap.pair(warehouse, product)) == 0) {
+                distinctProductsPerWarehouse.decrement(warehouse);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Replaces the whole graph with the given (product, store, warehouse) assignments. */
+    void load(Iterable<String[]> assignments) {
+        lock.writeLock().lock();
+        try {
+            products.clear();
+            stores.clear();
+            warehouses.clear();
+            warehousesPerProductStore.clear();
+            assignmentsPerStoreWarehouse.clear();
+            distinctWarehousesPerStore.clear();
+            assignmentsPerWarehouseProduct.clear();
+            distinctProductsPerWarehouse.clear();
+            for (String[] assignment : assignments) {
+                addUnlocked(assignment[0], assignment[1], assignment[2]);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addUnlocked(String productCode, String storeCode, String warehouseCode) {
+        int product = products.intern(productCode);
+        int store = stores.intern(storeCode);
+        int warehouse = warehouses.intern(warehouseCode);
+
+        warehousesPerProductStore.increment(LongIntCounterMap.pair(product, store));
+        if (assignmentsPerStoreWarehouse.increment(LongIntCounterMap.pair(store, warehouse)) == 1) {
+            distinctWarehousesPerStore.increment(store);
+        }
+        if (assignmentsPerWarehouseProduct.increment(LongIntCounterMap.pair(warehouse, product)) == 1) {
+            distinctProductsPerWarehouse.increment(warehouse);
+        }
+    }
+}
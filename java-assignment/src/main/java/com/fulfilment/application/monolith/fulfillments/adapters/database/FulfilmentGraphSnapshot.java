@@ -0,0 +1,300 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the fulfilment assignments, from which {@link FulfilmentConstraintGraph} is
+ * restored at startup without scanning the whole table.
+ *
+ * <p>Layout, big endian, varints are unsigned LEB128:
+ * <pre>
+ * int magic, int version, long watermark epoch second, int watermark nano, varint rows
+ * varint max id                                  the highest id of the rows
+ * 3 x dictionary (products, stores, warehouses): varint size, size x (varint length, UTF-8 bytes)
+ * varint recent, recent x varint id delta        ids of the rows created after the watermark
+ * rows x (varint product, varint store, varint warehouse)   dictionary ids
+ * int crc32c of everything before
+ * </pre>
+ * A row takes three bytes while there are fewer than 128 codes of each kind, at most six below
+ * 16384. Rows created after the watermark are replayed from the database; the recent ids tell
+ * which of those the snapshot already holds, since a row can commit well after its creation time.
+ * Rows above the highest id are replayed as well, whenever they were created.
+ */
+final class FulfilmentGraphSnapshot {
+
+    private static final int MAGIC = 0x46475331; // "FGS1"
+
+    private static final int VERSION = 3;
+
+    private final ByteBuffer buffer;
+
+    private final LocalDateTime watermark;
+
+    private final int rowCount;
+
+    private final long maxId;
+
+    private final String[] products;
+    private final String[] stores;
+    private final String[] warehouses;
+
+    private final long[] recentIds;
+
+    private final int rowsOffset;
+
+    private FulfilmentGraphSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a fulfilment graph snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported fulfilment graph snapshot version " + version);
+        }
+        this.watermark = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+        this.rowCount = readVarInt(buffer);
+        this.maxId = readVarLong(buffer);
+        this.products = readDictionary(buffer);
+        this.stores = readDictionary(buffer);
+        this.warehouses = readDictionary(buffer);
+
+        this.recentIds = new long[readVarInt(buffer)];
+        long id = 0;
+        for (int i = 0; i < recentIds.length; i++) {
+            id += readVarLong(buffer);
+            recentIds[i] = id;
+        }
+        this.rowsOffset = buffer.position();
+    }
+
+    /** Maps {@code path} and checks it; the rows are decoded from the mapping as they are read. */
+    static FulfilmentGraphSnapshot read(Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < 3 * Integer.BYTES + Long.BYTES + Integer.BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Fulfilment graph snapshot " + path + " has an invalid size");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        int checksumAt = mapped.limit() - Integer.BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(mapped.slice(0, checksumAt));
+        if ((int) crc.getValue() != mapped.getInt(checksumAt)) {
+            throw new IOException("Fulfilment graph snapshot " + path + " is corrupt");
+        }
+        try {
+            return new FulfilmentGraphSnapshot(mapped.slice(0, checksumAt));
+        } catch (RuntimeException ex) {
+            throw new IOException("Fulfilment graph snapshot " + path + " is malformed", ex);
+        }
+    }
+
+    /** Rows created after this time are not all in the snapshot and are replayed from the database. */
+    LocalDateTime watermark() {
+        return watermark;
+    }
+
+    int rowCount() {
+        return rowCount;
+    }
+
+    /** The highest id of the rows, 0 without rows. */
+    long maxId() {
+        return maxId;
+    }
+
+    /** Whether a row created after the watermark is already part of the snapshot. */
+    boolean contains(long recentId) {
+        return Arrays.binarySearch(recentIds, recentId) >= 0;
+    }
+
+    /** The number of rows of each of {@code warehouseCodes} the snapshot holds, decoding every row. */
+    Map<String, Long> rowsPerWarehouse(Set<String> warehouseCodes) {
+        Map<String, Long> counts = new HashMap<>();
+        Iterator<String[]> rows = rows();
+        while (rows.hasNext()) {
+            String warehouseCode = rows.next()[2];
+            if (warehouseCodes.contains(warehouseCode)) {
+                counts.merge(warehouseCode, 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    /** The (product, store, warehouse) rows; every array is fresh, the codes are shared. */
+    Iterator<String[]> rows() {
+        ByteBuffer rows = buffer.duplicate().position(rowsOffset);
+        return new Iterator<>() {
+            private int remaining = rowCount;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public String[] next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                return new String[] {
+                    products[readVarInt(rows)], stores[readVarInt(rows)], warehouses[readVarInt(rows)]};
+            }
+        };
+    }
+
+    /**
+     * Collects rows and writes them as a snapshot. Codes are interned as they come, so the
+     * dictionaries are only complete at the end: the encoded rows are buffered in memory until
+     * then, a few bytes each.
+     */
+    static final class Writer {
+
+        private final LocalDateTime watermark;
+
+        private final CodeDictionary products = new CodeDictionary();
+        private final CodeDictionary stores = new CodeDictionary();
+        private final CodeDictionary warehouses = new CodeDictionary();
+
+        private final ByteArrayOutputStream rows = new ByteArrayOutputStream();
+
+        private long[] recentIds = new long[16];
+
+        private int recentCount;
+
+        private int rowCount;
+
+        private long maxId;
+
+        Writer(LocalDateTime watermark) {
+            this.watermark = watermark;
+        }
+
+        void add(long id, String productCode, String storeCode, String warehouseCode, LocalDateTime createdAt) {
+            writeVarLong(rows, products.intern(productCode));
+            writeVarLong(rows, stores.intern(storeCode));
+            writeVarLong(rows, warehouses.intern(warehouseCode));
+            rowCount++;
+            maxId = Math.max(maxId, id);
+            if (createdAt != null && createdAt.isAfter(watermark)) {
+                if (recentCount == recentIds.length) {
+                    recentIds = Arrays.copyOf(recentIds, recentCount * 2);
+                }
+                recentIds[recentCount++] = id;
+            }
+        }
+
+        /** Replaces {@code path} atomically, so a reader never sees a partly written snapshot. */
+        void writeTo(Path path) throws IOException {
+            Path parent = path.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+            try {
+                // everything up to the rows is small and written once the dictionaries are complete
+                ByteArrayOutputStream header = new ByteArrayOutputStream();
+                writeVarLong(header, rowCount);
+                writeVarLong(header, maxId);
+                writeDictionary(header, products);
+                writeDictionary(header, stores);
+                writeDictionary(header, warehouses);
+                long[] recent = Arrays.copyOf(recentIds, recentCount);
+                Arrays.sort(recent);
+                writeVarLong(header, recent.length);
+                long previous = 0;
+                for (long id : recent) {
+                    writeVarLong(header, id - previous);
+                    previous = id;
+                }
+
+                CRC32C crc = new CRC32C();
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                    CheckedOutputStream checked = new CheckedOutputStream(out, crc);
+                    DataOutputStream data = new DataOutputStream(checked);
+                    data.writeInt(MAGIC);
+                    data.writeInt(VERSION);
+                    data.writeLong(watermark.toEpochSecond(ZoneOffset.UTC));
+                    data.writeInt(watermark.getNano());
+                    header.writeTo(checked);
+                    rows.writeTo(checked);
+                    // the checksum itself is not part of what it covers
+                    out.writeInt((int) crc.getValue());
+                }
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        int rowCount() {
+            return rowCount;
+        }
+
+        private static void writeDictionary(ByteArrayOutputStream out, CodeDictionary dictionary) {
+            writeVarLong(out, dictionary.size());
+            for (int i = 0; i < dictionary.size(); i++) {
+                byte[] code = dictionary.code(i).getBytes(StandardCharsets.UTF_8);
+                writeVarLong(out, code.length);
+                out.writeBytes(code);
+            }
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer buffer) {
+        String[] codes = new String[readVarInt(buffer)];
+        for (int i = 0; i < codes.length; i++) {
+            byte[] code = new byte[readVarInt(buffer)];
+            buffer.get(code);
+            codes[i] = new String(code, StandardCharsets.UTF_8);
+        }
+        return codes;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Varint longer than 10 bytes");
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        return Math.toIntExact(readVarLong(buffer));
+    }
+}
@@ -0,0 +1,215 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Loads {@link FulfilmentConstraintGraph} at startup, from the {@link FulfilmentGraphSnapshot} at
+ * {@code fulfilment.constraint-graph.snapshot.path} when it still matches the table and from the
+ * whole table through {@link FulfilmentAssignmentRepository} otherwise, and writes that snapshot
+ * every {@code fulfilment.constraint-graph.snapshot.interval}.
+ */
+@ApplicationScoped
+public class FulfilmentGraphSnapshotter {
+
+    private static final Logger LOGGER = Logger.getLogger(FulfilmentGraphSnapshotter.class.getName());
+
+    private static final int SNAPSHOT_FETCH_SIZE = 1000;
+
+    @Inject
+    FulfilmentAssignmentRepository repository;
+
+    @Inject
+    FulfilmentConstraintGraph constraintGraph;
+
+    @ConfigProperty(name = "fulfilment.constraint-graph.snapshot.path")
+    Optional<String> snapshotPath;
+
+    @ConfigProperty(name = "fulfilment.constraint-graph.snapshot.replay-overlap", defaultValue = "5m")
+    Duration snapshotReplayOverlap;
+
+    @Transactional
+    void loadConstraintGraph(@Observes StartupEvent event) {
+        if (!repository.usesConstraintGraph()) {
+            return;
+        }
+        long started = System.nanoTime();
+        if (restore(constraintGraph)) {
+            LOGGER.infof("Restored the fulfilment constraint graph from %s in %d ms",
+                    snapshotPath.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return;
+        }
+        repository.loadConstraintGraph();
+    }
+
+    /**
+     * Loads the snapshot plus the assignments created after its watermark or above its highest
+     * id into {@code graph}, reading neither of them through more than an index range. Returns
+     * {@code false}, leaving the graph alone, when there is no readable snapshot or when the table
+     * no longer matches it: its highest id differs, or a warehouse that was ever archived (whose
+     * assignments the cleanup deletes) has a different number of assignments. Deleting
+     * assignments of other warehouses behind the application's back, or committing one with an
+     * id below the snapshot's later than the replay overlap allows for, goes unnoticed.
+     */
+    boolean restore(FulfilmentConstraintGraph graph) {
+        FulfilmentGraphSnapshot snapshot = readSnapshot();
+        if (snapshot == null) {
+            return false;
+        }
+        List<String[]> replayed = new ArrayList<>();
+        long expectedMaxId = snapshot.maxId();
+        try (Stream<Object[]> rows = repository.getEntityManager()
+                .createQuery("select a.id, a.productCode, a.storeCode, a.warehouseCode "
+                        + "from DbFulfilmentAssignment a where a.createdAt > ?1 or a.id > ?2", Object[].class)
+                .setParameter(1, snapshot.watermark())
+                .setParameter(2, snapshot.maxId())
+                .getResultStream()) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                long id = (Long) row[0];
+                if (!snapshot.contains(id)) {
+                    replayed.add(new String[] {(String) row[1], (String) row[2], (String) row[3]});
+                    expectedMaxId = Math.max(expectedMaxId, id);
+                }
+            }
+        }
+
+        // the primary key index answers this with its last entry
+        long maxId = repository.getEntityManager()
+                .createQuery("select coalesce(max(a.id), 0L) from DbFulfilmentAssignment a", Long.class)
+                .getSingleResult();
+        if (maxId != expectedMaxId) {
+            LOGGER.infof("Fulfilment graph snapshot plus %d replayed assignments reach up to id %d but the table "
+                    + "up to id %d, loading the whole table", replayed.size(), expectedMaxId, maxId);
+            return false;
+        }
+
+        String changedWarehouse = changedArchivedWarehouse(snapshot, replayed);
+        if (changedWarehouse != null) {
+            LOGGER.infof("Assignments of archived warehouse %s changed since the fulfilment graph snapshot, "
+                    + "loading the whole table", changedWarehouse);
+            return false;
+        }
+        Stream<String[]> assignments = Stream.concat(
+                StreamSupport.stream(Spliterators.spliteratorUnknownSize(snapshot.rows(), Spliterator.ORDERED), false),
+                replayed.stream());
+        graph.load(assignments::iterator);
+        return true;
+    }
+
+    /**
+     * The first warehouse ever archived whose assignments in the table are not the ones of the
+     * snapshot plus the replayed ones, counted through the (warehouseCode, productCode) index.
+     */
+    private String changedArchivedWarehouse(FulfilmentGraphSnapshot snapshot, List<String[]> replayed) {
+        Set<String> archived = new HashSet<>(repository.getEntityManager()
+                .createQuery("select distinct w.businessUnitCode from DbWarehouse w where w.archivedAt is not null",
+                        String.class)
+                .getResultList());
+        if (archived.isEmpty()) {
+            return null;
+        }
+        Map<String, Long> expected = snapshot.rowsPerWarehouse(archived);
+        for (String[] row : replayed) {
+            if (archived.contains(row[2])) {
+                expected.merge(row[2], 1L, Long::sum);
+            }
+        }
+        Map<String, Long> actual = new HashMap<>();
+        repository.getEntityManager()
+                .createQuery("select a.warehouseCode, count(a.id) from DbFulfilmentAssignment a "
+                        + "where a.warehouseCode in ?1 group by a.warehouseCode", Object[].class)
+                .setParameter(1, archived)
+                .getResultList()
+                .forEach(row -> actual.put((String) row[0], ((Number) row[1]).longValue()));
+        for (String warehouseCode : archived) {
+            if (!expected.getOrDefault(warehouseCode, 0L).equals(actual.getOrDefault(warehouseCode, 0L))) {
+                return warehouseCode;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes every assignment to {@code fulfilment.constraint-graph.snapshot.path}. The watermark
+     * trails the start of the scan by the replay overlap, so assignments created meanwhile but
+     * committed too late for the scan are still replayed at the next startup.
+     */
+    @Scheduled(
+            every = "${fulfilment.constraint-graph.snapshot.interval:10m}",
+            delayed = "${fulfilment.constraint-graph.snapshot.interval:10m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void writeSnapshot() {
+        if (snapshotPath.isEmpty() || !repository.usesConstraintGraph()) {
+            return;
+        }
+        long started = System.nanoTime();
+        FulfilmentGraphSnapshot.Writer writer =
+                new FulfilmentGraphSnapshot.Writer(LocalDateTime.now().minus(snapshotReplayOverlap));
+        QuarkusTransaction.requiringNew().run(() -> {
+            try (ScrollableResults<Object[]> rows = repository.getEntityManager().unwrap(Session.class)
+                    .createQuery("select a.id, a.productCode, a.storeCode, a.warehouseCode, a.createdAt "
+                            + "from DbFulfilmentAssignment a", Object[].class)
+                    .setReadOnly(true)
+                    .setFetchSize(SNAPSHOT_FETCH_SIZE)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    writer.add((Long) row[0], (String) row[1], (String) row[2], (String) row[3], (LocalDateTime) row[4]);
+                }
+            }
+        });
+        try {
+            writer.writeTo(Path.of(snapshotPath.get()));
+        } catch (IOException ex) {
+            LOGGER.errorf(ex, "Writing the fulfilment graph snapshot %s failed", snapshotPath.get());
+            return;
+        }
+        LOGGER.infof("Wrote %d fulfilment assignments to %s in %d ms", writer.rowCount(), snapshotPath.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private FulfilmentGraphSnapshot readSnapshot() {
+        if (snapshotPath.isEmpty()) {
+            return null;
+        }
+        try {
+            return FulfilmentGraphSnapshot.read(Path.of(snapshotPath.get()));
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException ex) {
+            LOGGER.warnf(ex, "Ignoring the fulfilment graph snapshot %s", snapshotPath.get());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import com.fulfilment.application.monolith.fulfillments.exceptions.FulfilmentConcurrentModificationException;
+import com.fulfilment.application.monolith.warehouses.adapters.database.StripedLocks;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Serializes fulfilment assignments that share a store or a warehouse until the surrounding
+ * transaction completes, which is what makes the count-then-insert of the limit checks safe.
+ *
+ * <p>The store lock covers the product-per-store and the warehouses-per-store limits, the
+ * warehouse lock covers the products-per-warehouse limit; assignments of unrelated stores and
+ * warehouses never wait on each other. Locks are always taken in one global order, stores before
+ * warehouses and by ascending key within each, so two requests cannot deadlock.
+ *
+ * <p>{@code fulfilment.locking.mode=local} uses in-process {@link StripedLocks}, enough for a
+ * single node. {@code advisory} takes Postgres transaction-level advisory locks so that every node
+ * serializes on the same keys; the in-memory {@link FulfilmentConstraintGraph} only sees the
+ * assignments of its own node, so limits are then counted in the database.
+ */
+@ApplicationScoped
+public class FulfilmentLimitLock {
+
+    // first key of the two-key advisory locks, apart from the warehouse locks and each other
+    private static final int STORE_NAMESPACE = 0x46530001;
+    private static final int WAREHOUSE_NAMESPACE = 0x46570001;
+
+    private static final long MAX_BACKOFF_MILLIS = 50;
+
+    private final boolean advisory;
+
+    private final Duration timeout;
+
+    private final StripedLocks storeStripes;
+
+    private final StripedLocks warehouseStripes;
+
+    private final EntityManager entityManager;
+
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    public FulfilmentLimitLock(
+            @ConfigProperty(name = "fulfilment.locking.mode", defaultValue = "local") String mode,
+            @ConfigProperty(name = "fulfilment.locking.stripes", defaultValue = "256") int stripes,
+            @ConfigProperty(name = "fulfilment.locking.timeout", defaultValue = "2s") Duration timeout,
+            EntityManager entityManager,
+            TransactionSynchronizationRegistry transactionSynchronizationRegistry) {
+        if (!"local".equals(mode) && !"advisory".equals(mode)) {
+            throw new IllegalArgumentException("fulfilment.locking.mode must be local or advisory, was " + mode);
+        }
+        this.advisory = "advisory".equals(mode);
+        this.timeout = timeout;
+        this.storeStripes = new StripedLocks(stripes);
+        this.warehouseStripes = new StripedLocks(stripes);
+        this.entityManager = entityManager;
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+    }
+
+    /** Whether other nodes may assign concurrently, so in-memory counts cannot be trusted. */
+    public boolean isDistributed() {
+        return advisory;
+    }
+
+    public void lock(String storeCode, String warehouseCode) {
+        lockAll(List.of(storeCode), List.of(warehouseCode));
+    }
+
+    /**
+     * Locks every given store and warehouse until the current transaction completes. Waits at most
+     * the configured timeout, then fails with a {@link FulfilmentConcurrentModificationException}.
+     */
+    public void lockAll(Collection<String> storeCodes, Collection<String> warehouseCodes) {
+        if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+            throw new IllegalStateException("Fulfilment locks must be taken inside a transaction");
+        }
+        if (advisory) {
+            lockAdvisory(STORE_NAMESPACE, storeCodes);
+            lockAdvisory(WAREHOUSE_NAMESPACE, warehouseCodes);
+        } else {
+            lockStripes(storeStripes, storeCodes);
+            lockStripes(warehouseStripes, warehouseCodes);
+        }
+    }
+
+    private void lockStripes(StripedLocks locks, Collection<String> codes) {
+        TreeSet<Integer> wanted = new TreeSet<>();
+        codes.forEach(code -> wanted.add(locks.stripeOf(code)));
+        Set<Integer> held = heldStripes(locks);
+
+        for (int stripe : wanted) {
+            if (held.contains(stripe)) {
+                continue;
+            }
+            boolean acquired;
+            try {
+                acquired = locks.tryAcquire(stripe, timeout);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                throw busy(codes);
+            }
+            held.add(stripe);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Integer> heldStripes(StripedLocks locks) {
+        // each StripedLocks instance keys the set of its stripes held by the transaction
+        Set<Integer> held = (Set<Integer>) transactionSynchronizationRegistry.getResource(locks);
+        if (held != null) {
+            return held;
+        }
+        Set<Integer> created = new HashSet<>();
+        transactionSynchronizationRegistry.putResource(locks, created);
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                // committed or rolled back, the stripes are released either way
+                created.forEach(locks::release);
+            }
+        });
+        return created;
+    }
+
+    private void lockAdvisory(int namespace, Collection<String> codes) {
+        // String.hashCode is the same on every node, so all nodes agree on keys and order;
+        // re-locking a key already held by the transaction succeeds immediately
+        TreeSet<Integer> keys = new TreeSet<>();
+        codes.forEach(code -> keys.add(code.hashCode()));
+
+        for (int key : keys) {
+            // pg_try_advisory_xact_lock never blocks the connection; back off and retry until
+            // the timeout so that a conflicting request waits a little but is rejected quickly
+            long deadline = System.nanoTime() + timeout.toNanos();
+            long backoff = 1;
+            while (!tryAdvisoryLock(namespace, key)) {
+                if (System.nanoTime() + backoff * 1_000_000 > deadline) {
+                    throw busy(codes);
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw busy(codes);
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    private boolean tryAdvisoryLock(int namespace, int key) {
+        return (Boolean) entityManager
+                .createNativeQuery("select pg_try_advisory_xact_lock(?1, ?2)")
+                .setParameter(1, namespace)
+                .setParameter(2, key)
+                .getSingleResult();
+    }
+
+    private static FulfilmentConcurrentModificationException busy(Collection<String> codes) {
+        return new FulfilmentConcurrentModificationException(
+                "Fulfilment of " + codes + " is being changed by another request");
+    }
+}
@@ -0,0 +1,62 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Bounded near cache of the fulfilment reverse lookups: warehouses per store, warehouses per
+ * product and store, and products per warehouse.
+ *
+ * <p>Backed by Caffeine and published to Micrometer as the {@code fulfilment-lookups} cache.
+ * {@link FulfilmentAssignmentRepository} invalidates the affected lookups when an assignment
+ * change commits; changes made by other nodes are picked up after {@code expire-after-write}.
+ */
+@ApplicationScoped
+public class FulfilmentLookupCache {
+
+    private static final String WAREHOUSES_OF_STORE = "S";
+    private static final String WAREHOUSES_OF_PRODUCT_IN_STORE = "PS";
+    private static final String PRODUCTS_OF_WAREHOUSE = "W";
+
+    private final Cache<List<String>, List<String>> cache;
+
+    public FulfilmentLookupCache(
+            @ConfigProperty(name = "fulfilment.lookup-cache.maximum-size", defaultValue = "10000") long maximumSize,
+            @ConfigProperty(name = "fulfilment.lookup-cache.expire-after-write", defaultValue = "30s") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "fulfilment-lookups");
+    }
+
+    List<String> warehousesOfStore(String storeCode, Supplier<List<String>> loader) {
+        return cache.get(List.of(WAREHOUSES_OF_STORE, storeCode), key -> List.copyOf(loader.get()));
+    }
+
+    List<String> warehousesOfProductInStore(String productCode, String storeCode, Supplier<List<String>> loader) {
+        return cache.get(List.of(WAREHOUSES_OF_PRODUCT_IN_STORE, productCode, storeCode),
+                key -> List.copyOf(loader.get()));
+    }
+
+    List<String> productsOfWarehouse(String warehouseCode, Supplier<List<String>> loader) {
+        return cache.get(List.of(PRODUCTS_OF_WAREHOUSE, warehouseCode), key -> List.copyOf(loader.get()));
+    }
+
+    /** Drops every lookup an assignment of the product to the store from the warehouse is part of. */
+    void invalidate(String productCode, String storeCode, String warehouseCode) {
+        cache.invalidate(List.of(WAREHOUSES_OF_STORE, storeCode));
+        cache.invalidate(List.of(WAREHOUSES_OF_PRODUCT_IN_STORE, productCode, storeCode));
+        cache.invalidate(List.of(PRODUCTS_OF_WAREHOUSE, warehouseCode));
+    }
+}
@@ -0,0 +1,140 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map of non-negative {@code long} keys to {@code int} counters, without boxing.
+ *
+ * <p>Linear probing with backward-shift deletion, so a counter that drops to zero is removed
+ * without leaving tombstones behind. Not thread safe.
+ */
+final class LongIntCounterMap {
+
+    private static final long EMPTY = -1L;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+
+    private int[] values;
+
+    private int size;
+
+    private int resizeAt;
+
+    LongIntCounterMap() {
+        this(16);
+    }
+
+    LongIntCounterMap(int expectedSize) {
+        allocate(Math.max(16, Integer.highestOneBit((int) (expectedSize / LOAD_FACTOR)) << 1));
+    }
+
+    static long pair(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    int get(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : values[slot];
+    }
+
+    /** Adds one to the counter of {@code key} and returns the new value. */
+    int increment(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return ++values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = 1;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return 1;
+    }
+
+    /** Subtracts one from the counter of {@code key}, removing it at zero; returns the new value or -1 if absent. */
+    int decrement(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return -1;
+        }
+        int value = --values[slot];
+        if (value == 0) {
+            removeAt(slot);
+        }
+        return value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeAt(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        // shift back every following entry of the cluster that may not sit behind the gap
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,320 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.products.ProductCreated;
+import com.fulfilment.application.monolith.products.ProductDeleted;
+import com.fulfilment.application.monolith.products.ProductUpdated;
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.StoreCreated;
+import com.fulfilment.application.monolith.stores.StoreDeleted;
+import com.fulfilment.application.monolith.stores.StoreUpdated;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseArchived;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreated;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Existence checks of the product, store and warehouse codes used by fulfilment assignments.
+ *
+ * <p>Each kind of code has a {@link BloomFilter} of every existing code, loaded at startup and fed
+ * by the created, updated and deleted events of products, stores and warehouses once their
+ * transaction committed. A code the filter has never seen is rejected without a query. A possible
+ * hit is confirmed by an exact query once and the confirmation is kept in a bounded cache;
+ * {@code fulfilment.code-filter.lookups} counts the rejected, confirmed and false positive lookups.
+ *
+ * <p>Bloom filters cannot forget, so a deleted, renamed or archived code only loses its
+ * confirmation and stays a possible hit that the exact query turns down. Once removals exceed
+ * {@code rebuild-ratio} of the filter, or it holds more codes than it was sized for, the filter is
+ * rebuilt from the database in the background.
+ *
+ * <p>Only writes of this instance raise those events. Codes written by another instance are
+ * picked up by the rebuild every {@code refresh-interval}, and a confirmation expires after
+ * {@code confirmed-ttl}, so a code deleted elsewhere is not let through for longer than that.
+ */
+@ApplicationScoped
+public class ReferenceCodeFilters {
+
+    public enum Kind {
+        PRODUCT("select p.name from Product p",
+                "select p.id from Product p where p.name = ?1"),
+        STORE("select s.name from Store s",
+                "select s.id from Store s where s.name = ?1"),
+        WAREHOUSE("select w.businessUnitCode from DbWarehouse w where w.archivedAt is null",
+                "select w.id from DbWarehouse w where w.businessUnitCode = ?1 and w.archivedAt is null");
+
+        private final String allCodes;
+        private final String idOfCode;
+
+        Kind(String allCodes, String idOfCode) {
+            this.allCodes = allCodes;
+            this.idOfCode = idOfCode;
+        }
+    }
+
+    private static final Logger LOGGER = Logger.getLogger(ReferenceCodeFilters.class.getName());
+
+    private final EntityManager entityManager;
+
+    private final long expectedCodes;
+
+    private final double falsePositiveRate;
+
+    private final double rebuildRatio;
+
+    private final Map<Kind, Codes> codes = new EnumMap<>(Kind.class);
+
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reference-code-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter rejected;
+
+    private final Counter confirmed;
+
+    private final Counter falsePositives;
+
+    private volatile boolean loaded;
+
+    public ReferenceCodeFilters(
+            EntityManager entityManager,
+            @ConfigProperty(name = "fulfilment.code-filter.expected-codes", defaultValue = "100000") long expectedCodes,
+            @ConfigProperty(name = "fulfilment.code-filter.false-positive-rate", defaultValue = "0.01") double falsePositiveRate,
+            @ConfigProperty(name = "fulfilment.code-filter.rebuild-ratio", defaultValue = "0.1") double rebuildRatio,
+            @ConfigProperty(name = "fulfilment.code-filter.confirmed-cache-size", defaultValue = "100000") long confirmedCacheSize,
+            @ConfigProperty(name = "fulfilment.code-filter.confirmed-ttl", defaultValue = "5m") Duration confirmedTtl,
+            MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.expectedCodes = expectedCodes;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildRatio = rebuildRatio;
+        for (Kind kind : Kind.values()) {
+            codes.put(kind, new Codes(new BloomFilter(expectedCodes, falsePositiveRate), expectedCodes,
+                    Caffeine.newBuilder().maximumSize(confirmedCacheSize).expireAfterWrite(confirmedTtl).build(),
+                    Caffeine.newBuilder().maximumSize(confirmedCacheSize).expireAfterWrite(confirmedTtl).build()));
+        }
+        this.rejected = meterRegistry.counter("fulfilment.code-filter.lookups", "result", "rejected");
+        this.confirmed = meterRegistry.counter("fulfilment.code-filter.lookups", "result", "confirmed");
+        this.falsePositives = meterRegistry.counter("fulfilment.code-filter.lookups", "result", "false-positive");
+    }
+
+    /** Whether an entity with this code exists; only possible hits of the filter are queried. */
+    public boolean exists(Kind kind, String code) {
+        if (code == null) {
+            return false;
+        }
+        Codes known = codes.get(kind);
+        if (loaded && !known.filter.mightContain(code)) {
+            rejected.increment();
+            return false;
+        }
+        if (known.idByCode.getIfPresent(code) != null) {
+            return true;
+        }
+        Long id = entityManager.createQuery(kind.idOfCode, Long.class)
+                .setParameter(1, code)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+        if (id == null) {
+            falsePositives.increment();
+            return false;
+        }
+        known.idByCode.put(code, id);
+        known.codeById.put(id, code);
+        confirmed.increment();
+        return true;
+    }
+
+    void added(Kind kind, String code) {
+        if (code == null) {
+            return;
+        }
+        Codes known = codes.get(kind);
+        synchronized (known) {
+            known.filter.put(code);
+            if (known.addedDuringRebuild != null) {
+                known.addedDuringRebuild.add(code);
+            }
+        }
+        if (known.filter.insertions() > known.sizedFor) {
+            scheduleRebuild(kind);
+        }
+    }
+
+    /** An entity was updated and may have been renamed from the code it was confirmed under. */
+    void updated(Kind kind, Long id, String code) {
+        Codes known = codes.get(kind);
+        String previous = id == null ? null : known.codeById.getIfPresent(id);
+        if (previous != null && !previous.equals(code)) {
+            removed(kind, previous);
+        }
+        added(kind, code);
+    }
+
+    void removed(Kind kind, String code) {
+        if (code == null) {
+            return;
+        }
+        Codes known = codes.get(kind);
+        Long id = known.idByCode.getIfPresent(code);
+        known.idByCode.invalidate(code);
+        if (id != null) {
+            known.codeById.invalidate(id);
+        }
+        if (known.removals.incrementAndGet() > rebuildRatio * Math.max(1, known.filter.insertions())) {
+            scheduleRebuild(kind);
+        }
+    }
+
+    void onProductCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) @ProductCreated Product product) {
+        added(Kind.PRODUCT, product.name);
+    }
+
+    void onProductUpdated(@Observes(during = TransactionPhase.AFTER_SUCCESS) @ProductUpdated Product product) {
+        updated(Kind.PRODUCT, product.id, product.name);
+    }
+
+    void onProductDeleted(@Observes(during = TransactionPhase.AFTER_SUCCESS) @ProductDeleted Product product) {
+        removed(Kind.PRODUCT, product.name);
+    }
+
+    void onStoreCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) @StoreCreated Store store) {
+        added(Kind.STORE, store.name);
+    }
+
+    void onStoreUpdated(@Observes(during = TransactionPhase.AFTER_SUCCESS) @StoreUpdated Store store) {
+        updated(Kind.STORE, store.id, store.name);
+    }
+
+    void onStoreDeleted(@Observes(during = TransactionPhase.AFTER_SUCCESS) @StoreDeleted Store store) {
+        removed(Kind.STORE, store.name);
+    }
+
+    void onWarehouseCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseCreated event) {
+        added(Kind.WAREHOUSE, event.businessUnitCode);
+    }
+
+    void onWarehouseArchived(@Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseArchived event) {
+        removed(Kind.WAREHOUSE, event.businessUnitCode);
+    }
+
+    void load(@Observes StartupEvent event) {
+        for (Kind kind : Kind.values()) {
+            rebuild(kind);
+        }
+        loaded = true;
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        rebuilder.shutdownNow();
+    }
+
+    /** Rebuilds every filter, which lets in the codes other instances have written since. */
+    @Scheduled(
+            every = "${fulfilment.code-filter.refresh-interval:5m}",
+            delayed = "${fulfilment.code-filter.refresh-interval:5m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void refresh() {
+        for (Kind kind : Kind.values()) {
+            // a rebuild already in progress for this kind stands in for this round
+            if (codes.get(kind).rebuildScheduled.compareAndSet(false, true)) {
+                rebuildOnce(kind);
+            }
+        }
+    }
+
+    private void scheduleRebuild(Kind kind) {
+        Codes known = codes.get(kind);
+        if (loaded && known.rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.execute(() -> rebuildOnce(kind));
+        }
+    }
+
+    // called by whoever set rebuildScheduled
+    private void rebuildOnce(Kind kind) {
+        try {
+            rebuild(kind);
+        } catch (RuntimeException ex) {
+            LOGGER.errorf(ex, "Rebuilding the %s code filter failed", kind);
+        } finally {
+            codes.get(kind).rebuildScheduled.set(false);
+        }
+    }
+
+    private void rebuild(Kind kind) {
+        Codes known = codes.get(kind);
+        synchronized (known) {
+            // codes persisted while the table is read go into the new filter as well
+            known.addedDuringRebuild = new ArrayList<>();
+        }
+        List<String> all = new ArrayList<>();
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                try (Stream<String> stream = entityManager.createQuery(kind.allCodes, String.class).getResultStream()) {
+                    stream.forEach(all::add);
+                }
+            });
+        } catch (RuntimeException ex) {
+            synchronized (known) {
+                known.addedDuringRebuild = null;
+            }
+            throw ex;
+        }
+
+        long sizedFor = Math.max(expectedCodes, 2L * all.size());
+        BloomFilter fresh = new BloomFilter(sizedFor, falsePositiveRate);
+        all.forEach(fresh::put);
+        synchronized (known) {
+            known.addedDuringRebuild.forEach(fresh::put);
+            known.addedDuringRebuild = null;
+            known.filter = fresh;
+            known.sizedFor = sizedFor;
+            known.removals.set(0);
+        }
+        LOGGER.debugf("Loaded %d %s codes into a %d bit filter", (Object) all.size(), kind, fresh.bitSize());
+    }
+
+    private static final class Codes {
+        final Cache<String, Long> idByCode;
+        final Cache<Long, String> codeById;
+        final AtomicLong removals = new AtomicLong();
+        final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+        volatile BloomFilter filter;
+        volatile long sizedFor;
+
+        // guarded by this
+        List<String> addedDuringRebuild;
+
+        Codes(BloomFilter filter, long sizedFor, Cache<String, Long> idByCode, Cache<Long, String> codeById) {
+            this.filter = filter;
+            this.sizedFor = sizedFor;
+            this.idByCode = idByCode;
+            this.codeById = codeById;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.rest;
+
+public class FulfilmentBatchResult {
+    public String productCode;
+    public String storeCode;
+    public String warehouseCode;
+    public boolean accepted;
+
+    // rule that rejected the assignment, e.g. STORE_FULFILMENT_LIMIT_EXCEEDED; null when accepted
+    public String code;
+    public String message;
+}
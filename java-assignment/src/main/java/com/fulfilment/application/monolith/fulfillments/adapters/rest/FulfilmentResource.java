@@ -1,16 +1,27 @@
 package com.fulfilment.application.monolith.fulfillments.adapters.rest;
 
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentAssignmentResult;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentPlan;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentPlanRequest;
 import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentRequest;
+import com.fulfilment.application.monolith.fulfillments.domains.usecases.FulfilmentPlanner;
 import com.fulfilment.application.monolith.fulfillments.domains.usecases.FulfilmentService;
+import com.fulfilment.application.monolith.warehouses.exceptions.mapper.GlobalExceptionMapper;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ValidationException;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+
+import java.util.List;
 
 @Path("/fulfilment")
 @Consumes(MediaType.APPLICATION_JSON)
@@ -18,9 +29,14 @@ import jakarta.ws.rs.core.Response;
 @RequestScoped
 public class FulfilmentResource {
 
+    private static final Logger LOGGER = Logger.getLogger(FulfilmentResource.class.getName());
+
     @Inject
     FulfilmentService service;
 
+    @Inject
+    FulfilmentPlanner planner;
+
     @POST
     @Transactional
     public Response assign(FulfilmentRequest request) {
@@ -33,4 +49,80 @@ public class FulfilmentResource {
 
         return Response.status(Response.Status.CREATED).build();
     }
+
+    @GET
+    @Path("/stores/{storeCode}/warehouses")
+    public List<String> warehousesForStore(@PathParam("storeCode") String storeCode) {
+        return service.findWarehousesForStore(storeCode);
+    }
+
+    @GET
+    @Path("/stores/{storeCode}/products/{productCode}/warehouses")
+    public List<String> warehousesForProductInStore(@PathParam("storeCode") String storeCode,
+                                                    @PathParam("productCode") String productCode) {
+        return service.findWarehousesForProductInStore(productCode, storeCode);
+    }
+
+    @GET
+    @Path("/warehouses/{warehouseCode}/products")
+    public List<String> productsForWarehouse(@PathParam("warehouseCode") String warehouseCode) {
+        return service.findProductsForWarehouse(warehouseCode);
+    }
+
+    /**
+     * One result per request, in request order. Later requests are checked against the ones
+     * accepted before them; rejected requests do not prevent the others from being assigned.
+     */
+    @POST
+    @Path("/batch")
+    public List<FulfilmentBatchResult> assignAll(List<FulfilmentRequest> requests) {
+        if (requests == null) {
+            throw new ValidationException("A list of fulfilment requests is required");
+        }
+        LOGGER.infof("Assigning %d fulfilments in batch", requests.size());
+
+        List<FulfilmentBatchResult> results = service.assignAll(requests)
+                .stream()
+                .map(FulfilmentResource::toBatchResult)
+                .toList();
+
+        LOGGER.infof("Batch processed: %d of %d fulfilments assigned",
+                results.stream().filter(result -> result.accepted).count(), results.size());
+        return results;
+    }
+
+    /**
+     * Proposes assignments for the demand within the fulfilment limits, searching for at most
+     * {@code timeBudgetMillis}. Nothing is persisted; the plan can be applied with /batch.
+     */
+    @POST
+    @Path("/plan")
+    public FulfilmentPlan plan(FulfilmentPlanRequest request) {
+        if (request == null) {
+            throw new ValidationException("A fulfilment plan request is required");
+        }
+        FulfilmentPlan plan = planner.plan(request.demand, request.timeBudgetMillis);
+        LOGGER.infof("Planned %d assignments in %d attempts, score %.3f",
+                plan.assignments.size(), plan.attempts, plan.score);
+        return plan;
+    }
+
+    private static FulfilmentBatchResult toBatchResult(FulfilmentAssignmentResult result) {
+        FulfilmentBatchResult response = new FulfilmentBatchResult();
+        if (result.request != null) {
+            response.productCode = result.request.productCode;
+            response.storeCode = result.request.storeCode;
+            response.warehouseCode = result.request.warehouseCode;
+        }
+        response.accepted = result.isAccepted();
+        if (!result.isAccepted()) {
+            String code = GlobalExceptionMapper.errorCode(result.rejection);
+            if (code == null) {
+                LOGGER.error("Unexpected error while assigning fulfilment", result.rejection);
+            }
+            response.code = code == null ? "INTERNAL_SERVER_ERROR" : code;
+            response.message = code == null ? "An unexpected error occurred" : result.rejection.getMessage();
+        }
+        return response;
+    }
 }
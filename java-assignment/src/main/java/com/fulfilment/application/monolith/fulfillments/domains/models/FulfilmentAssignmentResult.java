@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.fulfillments.domains.models;
+
+public class FulfilmentAssignmentResult {
+
+    public final FulfilmentRequest request;
+
+    // null when the assignment was accepted
+    public final RuntimeException rejection;
+
+    private FulfilmentAssignmentResult(FulfilmentRequest request, RuntimeException rejection) {
+        this.request = request;
+        this.rejection = rejection;
+    }
+
+    public static FulfilmentAssignmentResult accepted(FulfilmentRequest request) {
+        return new FulfilmentAssignmentResult(request, null);
+    }
+
+    public static FulfilmentAssignmentResult rejected(FulfilmentRequest request, RuntimeException rejection) {
+        return new FulfilmentAssignmentResult(request, rejection);
+    }
+
+    public boolean isAccepted() {
+        return rejection == null;
+    }
+}
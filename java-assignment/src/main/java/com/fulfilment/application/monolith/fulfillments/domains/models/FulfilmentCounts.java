@@ -0,0 +1,24 @@
+package com.fulfilment.application.monolith.fulfillments.domains.models;
+
+/**
+ * Current usage of the three fulfilment limits around one product / store / warehouse triple.
+ */
+public class FulfilmentCounts {
+
+    // distinct warehouses fulfilling the product for the store
+    public final long warehousesForProductInStore;
+
+    // distinct warehouses fulfilling the store
+    public final long warehousesForStore;
+
+    // distinct products stored in the warehouse
+    public final long productsForWarehouse;
+
+    public FulfilmentCounts(long warehousesForProductInStore,
+                            long warehousesForStore,
+                            long productsForWarehouse) {
+        this.warehousesForProductInStore = warehousesForProductInStore;
+        this.warehousesForStore = warehousesForStore;
+        this.productsForWarehouse = productsForWarehouse;
+    }
+}
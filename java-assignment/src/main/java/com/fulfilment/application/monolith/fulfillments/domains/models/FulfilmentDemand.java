@@ -0,0 +1,8 @@
+package com.fulfilment.application.monolith.fulfillments.domains.models;
+
+import java.util.List;
+
+public class FulfilmentDemand {
+    public String storeCode;
+    public List<String> productCodes;
+}
@@ -0,0 +1,24 @@
+package com.fulfilment.application.monolith.fulfillments.domains.models;
+
+import java.util.List;
+
+/**
+ * Proposed assignments for a demand, not persisted. Demand naming an unknown product or store is
+ * turned down and unknown warehouses are not proposed, so applying {@link #assignments} through
+ * POST /fulfilment/batch against the same data and codes accepts all of them.
+ */
+public class FulfilmentPlan {
+
+    // new assignments to make
+    public List<FulfilmentRequest> assignments;
+
+    // store / product demand no warehouse can take within the limits; warehouseCode is null
+    public List<FulfilmentRequest> unfulfilled;
+
+    // share of the demand fulfilled by existing or planned assignments, from 0 to 1
+    public double score;
+
+    public int attempts;
+
+    public long elapsedMillis;
+}
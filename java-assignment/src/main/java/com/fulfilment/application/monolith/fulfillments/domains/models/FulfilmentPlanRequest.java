@@ -0,0 +1,10 @@
+package com.fulfilment.application.monolith.fulfillments.domains.models;
+
+import java.util.List;
+
+public class FulfilmentPlanRequest {
+    public List<FulfilmentDemand> demand;
+
+    // optional, capped by fulfilment.planner.max-time-budget
+    public Long timeBudgetMillis;
+}
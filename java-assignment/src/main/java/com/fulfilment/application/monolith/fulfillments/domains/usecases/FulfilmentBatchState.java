@@ -0,0 +1,98 @@
+package com.fulfilment.application.monolith.fulfillments.domains.usecases;
+
+import com.fulfilment.application.monolith.fulfillments.adapters.database.DbFulfilmentAssignment;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentCounts;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Assignments of the stores and warehouses touched by a batch, including the ones accepted
+ * earlier in the same batch. Seeded with every existing assignment of those stores or warehouses,
+ * which is all the three limits ever look at.
+ *
+ * <p>An {@link #overlay()} sees the assignments of the state below it but only holds the ones
+ * added to it, so one seeded state can be shared read-only by many overlays.
+ */
+final class FulfilmentBatchState {
+
+    // the state this one is an overlay of, never written through it; null for a seeded state
+    private final FulfilmentBatchState base;
+
+    private final Set<List<String>> assignments = new HashSet<>();
+
+    private final Map<List<String>, Set<String>> warehousesByProductAndStore = new HashMap<>();
+
+    private final Map<String, Set<String>> warehousesByStore = new HashMap<>();
+
+    private final Map<String, Set<String>> productsByWarehouse = new HashMap<>();
+
+    FulfilmentBatchState(List<DbFulfilmentAssignment> existing) {
+        this.base = null;
+        existing.forEach(a -> add(a.productCode, a.storeCode, a.warehouseCode));
+    }
+
+    private FulfilmentBatchState(FulfilmentBatchState base) {
+        this.base = base;
+    }
+
+    /** An empty state on top of this one; this one must not change while the overlay is in use. */
+    FulfilmentBatchState overlay() {
+        return new FulfilmentBatchState(this);
+    }
+
+    boolean contains(String productCode, String storeCode, String warehouseCode) {
+        return assignments.contains(List.of(productCode, storeCode, warehouseCode))
+                || (base != null && base.contains(productCode, storeCode, warehouseCode));
+    }
+
+    boolean isFulfilled(String productCode, String storeCode) {
+        return size(state -> state.warehousesByProductAndStore, List.of(productCode, storeCode)) > 0;
+    }
+
+    boolean storeHasWarehouse(String storeCode, String warehouseCode) {
+        return has(state -> state.warehousesByStore, storeCode, warehouseCode);
+    }
+
+    boolean warehouseHasProduct(String warehouseCode, String productCode) {
+        return has(state -> state.productsByWarehouse, warehouseCode, productCode);
+    }
+
+    FulfilmentCounts counts(String productCode, String storeCode, String warehouseCode) {
+        return new FulfilmentCounts(
+                size(state -> state.warehousesByProductAndStore, List.of(productCode, storeCode)),
+                size(state -> state.warehousesByStore, storeCode),
+                size(state -> state.productsByWarehouse, warehouseCode));
+    }
+
+    void add(String productCode, String storeCode, String warehouseCode) {
+        if (contains(productCode, storeCode, warehouseCode)) {
+            return;
+        }
+        assignments.add(List.of(productCode, storeCode, warehouseCode));
+        put(state -> state.warehousesByProductAndStore, List.of(productCode, storeCode), warehouseCode);
+        put(state -> state.warehousesByStore, storeCode, warehouseCode);
+        put(state -> state.productsByWarehouse, warehouseCode, productCode);
+    }
+
+    // an overlay only holds values its base does not have, so sizes of the layers add up
+
+    private <K> boolean has(Function<FulfilmentBatchState, Map<K, Set<String>>> index, K key, String value) {
+        return index.apply(this).getOrDefault(key, Set.of()).contains(value)
+                || (base != null && base.has(index, key, value));
+    }
+
+    private <K> int size(Function<FulfilmentBatchState, Map<K, Set<String>>> index, K key) {
+        return index.apply(this).getOrDefault(key, Set.of()).size() + (base == null ? 0 : base.size(index, key));
+    }
+
+    private <K> void put(Function<FulfilmentBatchState, Map<K, Set<String>>> index, K key, String value) {
+        if (!has(index, key, value)) {
+            index.apply(this).computeIfAbsent(key, k -> new HashSet<>()).add(value);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.fulfilment.application.monolith.fulfillments.domains.usecases;
+
+import com.fulfilment.application.monolith.fulfillments.adapters.database.FulfilmentAssignmentRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseArchived;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.interceptor.Interceptor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deletes the fulfilment assignments of archived warehouses, which would otherwise keep counting
+ * toward the store and product limits.
+ *
+ * <p>Runs in the background once the archiving has committed, one warehouse at a time. Rows are
+ * deleted in chunks of {@code fulfilment.cleanup.chunk-size}, each in its own short transaction,
+ * so a large warehouse never holds locks or a connection for long. Assignments of a warehouse
+ * that is still pending when the service stops are picked up again at the next startup.
+ *
+ * <p>Progress is logged per warehouse and exposed as {@code fulfilment.cleanup.assignments.deleted},
+ * {@code fulfilment.cleanup.chunk} and the {@code fulfilment.cleanup.warehouses.pending} gauge.
+ */
+@ApplicationScoped
+public class FulfilmentCleanupService {
+
+    private static final Logger LOGGER = Logger.getLogger(FulfilmentCleanupService.class.getName());
+
+    private final FulfilmentAssignmentRepository repository;
+
+    private final int chunkSize;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fulfilment-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicInteger pendingWarehouses = new AtomicInteger();
+
+    private final Counter deletedAssignments;
+
+    private final Timer chunkTimer;
+
+    public FulfilmentCleanupService(
+            FulfilmentAssignmentRepository repository,
+            @ConfigProperty(name = "fulfilment.cleanup.chunk-size", defaultValue = "500") int chunkSize,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.chunkSize = chunkSize;
+        this.deletedAssignments = Counter.builder("fulfilment.cleanup.assignments.deleted")
+                .description("Fulfilment assignments deleted because their warehouse was archived")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("fulfilment.cleanup.chunk")
+                .description("Duration of one cleanup chunk transaction")
+                .register(meterRegistry);
+        meterRegistry.gauge("fulfilment.cleanup.warehouses.pending", pendingWarehouses);
+    }
+
+    void onWarehouseArchived(@Observes(during = TransactionPhase.AFTER_SUCCESS) WarehouseArchived event) {
+        schedule(event.businessUnitCode, event.archivedAt);
+    }
+
+    // after the constraint graph is loaded (default priority), so that deletions are applied to it
+    void onStart(@Observes @Priority(Interceptor.Priority.APPLICATION + 1000) StartupEvent event) {
+        Map<String, LocalDateTime> leftOver = QuarkusTransaction.requiringNew()
+                .call(repository::findArchivedWarehousesWithAssignments);
+        if (!leftOver.isEmpty()) {
+            LOGGER.infof("Resuming fulfilment cleanup of %d archived warehouses", leftOver.size());
+            leftOver.forEach(this::schedule);
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        // an interrupted cleanup is resumed at the next startup
+        worker.shutdownNow();
+    }
+
+    void schedule(String warehouseCode, LocalDateTime archivedAt) {
+        pendingWarehouses.incrementAndGet();
+        worker.execute(() -> {
+            try {
+                cleanUp(warehouseCode, archivedAt);
+            } finally {
+                pendingWarehouses.decrementAndGet();
+            }
+        });
+    }
+
+    void cleanUp(String warehouseCode, LocalDateTime archivedAt) {
+        long started = System.nanoTime();
+        long deleted = 0;
+        int deletedInChunk;
+        try {
+            do {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                Timer.Sample sample = Timer.start();
+                deletedInChunk = QuarkusTransaction.requiringNew()
+                        .call(() -> repository.deleteChunkOfWarehouse(warehouseCode, archivedAt, chunkSize));
+                sample.stop(chunkTimer);
+
+                deletedAssignments.increment(deletedInChunk);
+                deleted += deletedInChunk;
+                LOGGER.debugf("Fulfilment cleanup of warehouse %s: %d assignments deleted so far",
+                        warehouseCode, deleted);
+            } while (deletedInChunk == chunkSize);
+        } catch (RuntimeException ex) {
+            LOGGER.errorf(ex, "Fulfilment cleanup of warehouse %s stopped after %d assignments, "
+                    + "it is resumed at the next startup", warehouseCode, deleted);
+            return;
+        }
+
+        if (deleted > 0) {
+            long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            LOGGER.infof("Fulfilment cleanup of warehouse %s: %d assignments deleted in %d ms (%.0f/s)",
+                    warehouseCode, deleted, millis, deleted * 1000.0 / millis);
+        }
+    }
+}
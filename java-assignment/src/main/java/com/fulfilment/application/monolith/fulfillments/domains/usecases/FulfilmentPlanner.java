@@ -0,0 +1,283 @@
+package com.fulfilment.application.monolith.fulfillments.domains.usecases;
+
+import com.fulfilment.application.monolith.fulfillments.adapters.database.DbFulfilmentAssignment;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.FulfilmentAssignmentRepository;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.ReferenceCodeFilters;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.ReferenceCodeFilters.Kind;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentDemand;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentPlan;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentRequest;
+import com.fulfilment.application.monolith.fulfillments.exceptions.FulfilmentReferenceNotFoundException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.validation.ValidationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Proposes assignments that fulfil a store / product demand within the three fulfilment limits,
+ * without persisting anything.
+ *
+ * <p>Each attempt walks the demand in a random order and gives every unfulfilled item the best
+ * warehouse the limits still allow: one already serving the store, then one already holding the
+ * product, then the one with the most free capacity. Warehouses whose stock has reached their
+ * capacity are not used. The first attempt is purely greedy, later ones add noise to the
+ * preference so that other orders and choices get explored.
+ *
+ * <p>Demand naming a product or store the {@link ReferenceCodeFilters} do not know is turned down,
+ * and warehouses they do not know are not used, just as POST /fulfilment/batch would.
+ *
+ * <p>The existing assignments are loaded once per plan and shared read-only by every attempt,
+ * each of which only keeps the assignments it adds on top of them.
+ *
+ * <p>Attempts run on a dedicated fork-join pool of {@code fulfilment.planner.parallelism} workers
+ * until the time budget is spent; the plan fulfilling the most demand wins, ties going to the
+ * plan that leaves the most free capacity.
+ */
+@ApplicationScoped
+public class FulfilmentPlanner {
+
+    private static final double NOISE = 0.75;
+
+    private final FulfilmentAssignmentRepository repository;
+
+    private final WarehouseStore warehouseStore;
+
+    private final ReferenceCodeFilters referenceCodes;
+
+    private final Duration defaultTimeBudget;
+
+    private final Duration maxTimeBudget;
+
+    private final ForkJoinPool pool;
+
+    public FulfilmentPlanner(
+            FulfilmentAssignmentRepository repository,
+            WarehouseStore warehouseStore,
+            ReferenceCodeFilters referenceCodes,
+            @ConfigProperty(name = "fulfilment.planner.parallelism", defaultValue = "0") int parallelism,
+            @ConfigProperty(name = "fulfilment.planner.time-budget", defaultValue = "2s") Duration defaultTimeBudget,
+            @ConfigProperty(name = "fulfilment.planner.max-time-budget", defaultValue = "10s") Duration maxTimeBudget) {
+        this.repository = repository;
+        this.warehouseStore = warehouseStore;
+        this.referenceCodes = referenceCodes;
+        this.defaultTimeBudget = defaultTimeBudget;
+        this.maxTimeBudget = maxTimeBudget;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void close() {
+        pool.shutdownNow();
+    }
+
+    public FulfilmentPlan plan(List<FulfilmentDemand> demand, Long timeBudgetMillis) {
+        if (demand == null) {
+            throw new ValidationException("demand is required");
+        }
+        Duration budget = timeBudgetMillis == null ? defaultTimeBudget : Duration.ofMillis(timeBudgetMillis);
+        if (budget.isNegative() || budget.compareTo(maxTimeBudget) > 0) {
+            throw new ValidationException("timeBudgetMillis must be between 0 and " + maxTimeBudget.toMillis());
+        }
+
+        // 1️⃣ Demand as distinct store / product items, all of them known
+        List<FulfilmentRequest> items = demandItems(demand);
+        checkReferences(items);
+
+        // 2️⃣ Candidate warehouses and the existing assignments the limits depend on
+        List<Warehouse> warehouses = warehouseStore.getAll()
+                .stream()
+                .filter(warehouse -> referenceCodes.exists(Kind.WAREHOUSE, warehouse.getBusinessUnitCode()))
+                .toList();
+        Set<String> storeCodes = new TreeSet<>();
+        items.forEach(item -> storeCodes.add(item.storeCode));
+        List<DbFulfilmentAssignment> existing = items.isEmpty()
+                ? List.of()
+                : repository.findByStoresOrWarehouses(storeCodes,
+                        warehouses.stream().map(Warehouse::getBusinessUnitCode).toList());
+
+        // 3️⃣ Parallel search within the budget
+        return search(items, warehouses, existing, budget);
+    }
+
+    FulfilmentPlan search(List<FulfilmentRequest> items,
+                          List<Warehouse> warehouses,
+                          List<DbFulfilmentAssignment> existing,
+                          Duration budget) {
+        long started = System.nanoTime();
+        List<Warehouse> withRoom = warehouses.stream()
+                .filter(warehouse -> freeCapacity(warehouse) > 0)
+                .toList();
+        Search search = new Search(items, withRoom, new FulfilmentBatchState(existing), started + budget.toNanos());
+        Candidate best = pool.invoke(new SearchTask(search, 0, pool.getParallelism(), new SplittableRandom()));
+
+        FulfilmentPlan plan = new FulfilmentPlan();
+        plan.assignments = best.assignments;
+        plan.unfulfilled = best.unfulfilled;
+        plan.score = items.isEmpty() ? 1.0 : (double) best.fulfilled / items.size();
+        plan.attempts = best.attempts;
+        plan.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        return plan;
+    }
+
+    private static List<FulfilmentRequest> demandItems(List<FulfilmentDemand> demand) {
+        Set<List<String>> seen = new LinkedHashSet<>();
+        for (FulfilmentDemand storeDemand : demand) {
+            if (storeDemand == null || storeDemand.storeCode == null || storeDemand.productCodes == null) {
+                throw new ValidationException("every demand needs a storeCode and productCodes");
+            }
+            for (String productCode : storeDemand.productCodes) {
+                if (productCode != null) {
+                    seen.add(List.of(storeDemand.storeCode, productCode));
+                }
+            }
+        }
+        List<FulfilmentRequest> items = new ArrayList<>(seen.size());
+        for (List<String> item : seen) {
+            FulfilmentRequest request = new FulfilmentRequest();
+            request.storeCode = item.get(0);
+            request.productCode = item.get(1);
+            items.add(request);
+        }
+        return items;
+    }
+
+    private void checkReferences(List<FulfilmentRequest> items) {
+        Set<String> products = new HashSet<>();
+        Set<String> stores = new HashSet<>();
+        for (FulfilmentRequest item : items) {
+            if (products.add(item.productCode) && !referenceCodes.exists(Kind.PRODUCT, item.productCode)) {
+                throw new FulfilmentReferenceNotFoundException("Product " + item.productCode + " does not exist");
+            }
+            if (stores.add(item.storeCode) && !referenceCodes.exists(Kind.STORE, item.storeCode)) {
+                throw new FulfilmentReferenceNotFoundException("Store " + item.storeCode + " does not exist");
+            }
+        }
+    }
+
+    private static int freeCapacity(Warehouse warehouse) {
+        int capacity = warehouse.getCapacity() == null ? 0 : warehouse.getCapacity();
+        int stock = warehouse.getStock() == null ? 0 : warehouse.getStock();
+        return capacity - stock;
+    }
+
+    /** Inputs shared read-only by every attempt. */
+    private record Search(List<FulfilmentRequest> items,
+                          List<Warehouse> warehouses,
+                          FulfilmentBatchState existing,
+                          long deadline) {
+
+        Candidate attempt(SplittableRandom random, boolean greedy) {
+            FulfilmentBatchState state = existing.overlay();
+            List<FulfilmentRequest> order = new ArrayList<>(items);
+            if (!greedy) {
+                for (int i = order.size() - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    order.set(i, order.set(j, order.get(i)));
+                }
+            }
+
+            Candidate candidate = new Candidate();
+            for (FulfilmentRequest item : order) {
+                if (state.isFulfilled(item.productCode, item.storeCode)) {
+                    // already fulfilled by an existing or earlier planned assignment
+                    candidate.fulfilled++;
+                    continue;
+                }
+                Warehouse chosen = null;
+                double chosenPreference = Double.NEGATIVE_INFINITY;
+                for (Warehouse warehouse : warehouses) {
+                    String code = warehouse.getBusinessUnitCode();
+                    if (!FulfilmentService.isWithinLimits(state.counts(item.productCode, item.storeCode, code))) {
+                        continue;
+                    }
+                    double preference = (state.storeHasWarehouse(item.storeCode, code) ? 2 : 0)
+                            + (state.warehouseHasProduct(code, item.productCode) ? 1 : 0)
+                            + (double) freeCapacity(warehouse) / warehouse.getCapacity()
+                            + (greedy ? 0 : random.nextDouble() * NOISE);
+                    if (preference > chosenPreference) {
+                        chosen = warehouse;
+                        chosenPreference = preference;
+                    }
+                }
+
+                if (chosen == null) {
+                    candidate.unfulfilled.add(item);
+                    continue;
+                }
+                state.add(item.productCode, item.storeCode, chosen.getBusinessUnitCode());
+                FulfilmentRequest assignment = new FulfilmentRequest();
+                assignment.productCode = item.productCode;
+                assignment.storeCode = item.storeCode;
+                assignment.warehouseCode = chosen.getBusinessUnitCode();
+                candidate.assignments.add(assignment);
+                candidate.fulfilled++;
+                candidate.freeCapacity += (double) freeCapacity(chosen) / chosen.getCapacity();
+            }
+            return candidate;
+        }
+    }
+
+    private static final class Candidate {
+        final List<FulfilmentRequest> assignments = new ArrayList<>();
+        final List<FulfilmentRequest> unfulfilled = new ArrayList<>();
+        int fulfilled;
+        double freeCapacity;
+        int attempts = 1;
+
+        Candidate better(Candidate other) {
+            Candidate winner = fulfilled != other.fulfilled
+                    ? (fulfilled > other.fulfilled ? this : other)
+                    : (freeCapacity >= other.freeCapacity ? this : other);
+            winner.attempts = attempts + other.attempts;
+            return winner;
+        }
+    }
+
+    /** Splits the workers in halves down to one per leaf; each leaf runs attempts until the deadline. */
+    private static final class SearchTask extends RecursiveTask<Candidate> {
+
+        private final Search search;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        SearchTask(Search search, int from, int to, SplittableRandom random) {
+            this.search = search;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Candidate compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                SearchTask left = new SearchTask(search, from, middle, random.split());
+                SearchTask right = new SearchTask(search, middle, to, random.split());
+                left.fork();
+                return right.compute().better(left.join());
+            }
+
+            // every leaf makes at least one attempt; the first leaf starts with the plain greedy one
+            Candidate best = search.attempt(random, from == 0);
+            while (System.nanoTime() < search.deadline()) {
+                best = best.better(search.attempt(random, false));
+            }
+            return best;
+        }
+    }
+}
@@ -2,39 +2,170 @@ package com.fulfilment.application.monolith.fulfillments.domains.usecases;
 
 import com.fulfilment.application.monolith.fulfillments.adapters.database.DbFulfilmentAssignment;
 import com.fulfilment.application.monolith.fulfillments.adapters.database.FulfilmentAssignmentRepository;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.FulfilmentLimitLock;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.ReferenceCodeFilters;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.ReferenceCodeFilters.Kind;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentAssignmentResult;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentCounts;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentRequest;
+import com.fulfilment.application.monolith.fulfillments.exceptions.FulfilmentAlreadyExistsException;
+import com.fulfilment.application.monolith.fulfillments.exceptions.FulfilmentReferenceNotFoundException;
 import com.fulfilment.application.monolith.fulfillments.exceptions.ProductFulfilmentLimitExceededException;
 import com.fulfilment.application.monolith.fulfillments.exceptions.StoreFulfilmentLimitExceededException;
 import com.fulfilment.application.monolith.fulfillments.exceptions.WarehouseProductLimitExceededException;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ValidationException;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @ApplicationScoped
 public class FulfilmentService {
 
+    static final int MAX_WAREHOUSES_PER_PRODUCT_AND_STORE = 2;
+
+    static final int MAX_WAREHOUSES_PER_STORE = 3;
+
+    static final int MAX_PRODUCTS_PER_WAREHOUSE = 5;
+
     @Inject
     FulfilmentAssignmentRepository repository;
 
+    @Inject
+    FulfilmentLimitLock limitLock;
+
+    @Inject
+    ReferenceCodeFilters referenceCodes;
+
     @Transactional
     public void assignWarehouseToProductAndStore(
             String productCode,
             String storeCode,
             String warehouseCode) {
 
+        // Unknown codes are turned down before taking any lock, mostly without a query
+        checkReferences(productCode, storeCode, warehouseCode);
+
+        // Concurrent assignments of the same store or warehouse wait here, so the
+        // counts below cannot change before this transaction completes
+        limitLock.lock(storeCode, warehouseCode);
+
+        // All three limits in a single round trip
+        FulfilmentCounts counts =
+                repository.countLimits(productCode, storeCode, warehouseCode);
+
+        checkLimits(productCode, storeCode, warehouseCode, counts);
+
+        // --------------------------------------------------
+        // Create assignment
+        // --------------------------------------------------
+
+        repository.persist(newAssignment(productCode, storeCode, warehouseCode, LocalDateTime.now()));
+    }
+
+    /**
+     * Applies the requests in order, each one seeing the assignments accepted before it, and
+     * inserts the accepted ones together. Rejections are reported per request.
+     */
+    @Transactional
+    public List<FulfilmentAssignmentResult> assignAll(List<FulfilmentRequest> requests) {
+
+        // 1️⃣ Lock every store and warehouse of the batch, in the global lock order
+        Set<String> storeCodes = new TreeSet<>();
+        Set<String> warehouseCodes = new TreeSet<>();
+        for (FulfilmentRequest request : requests) {
+            if (isComplete(request)) {
+                storeCodes.add(request.storeCode);
+                warehouseCodes.add(request.warehouseCode);
+            }
+        }
+        limitLock.lockAll(storeCodes, warehouseCodes);
+
+        // 2️⃣ Current assignments of those stores and warehouses in a single query
+        FulfilmentBatchState state = new FulfilmentBatchState(storeCodes.isEmpty()
+                ? List.of()
+                : repository.findByStoresOrWarehouses(storeCodes, warehouseCodes));
+
+        List<FulfilmentAssignmentResult> results = new ArrayList<>(requests.size());
+        List<DbFulfilmentAssignment> accepted = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (FulfilmentRequest request : requests) {
+            try {
+                if (!isComplete(request)) {
+                    throw new ValidationException("productCode, storeCode and warehouseCode are required");
+                }
+                checkReferences(request.productCode, request.storeCode, request.warehouseCode);
+
+                // 3️⃣ Same rules as a single assignment, against the in-batch state
+                if (state.contains(request.productCode, request.storeCode, request.warehouseCode)) {
+                    throw new FulfilmentAlreadyExistsException(
+                            "Product " + request.productCode + " is already fulfilled by warehouse "
+                            + request.warehouseCode + " for store " + request.storeCode);
+                }
+                checkLimits(request.productCode, request.storeCode, request.warehouseCode,
+                        state.counts(request.productCode, request.storeCode, request.warehouseCode));
+
+                state.add(request.productCode, request.storeCode, request.warehouseCode);
+                accepted.add(newAssignment(request.productCode, request.storeCode, request.warehouseCode, now));
+                results.add(FulfilmentAssignmentResult.accepted(request));
+
+            } catch (RuntimeException ex) {
+                results.add(FulfilmentAssignmentResult.rejected(request, ex));
+            }
+        }
+
+        // 4️⃣ Insert all accepted assignments in JDBC batches
+        if (!accepted.isEmpty()) {
+            repository.persistAll(accepted);
+        }
+        return results;
+    }
+
+    // --------------------------------------------------
+    // Reverse lookups, answered from the near cache when possible
+    // --------------------------------------------------
+
+    public List<String> findWarehousesForStore(String storeCode) {
+        return repository.findWarehouseCodesByStore(storeCode);
+    }
+
+    public List<String> findWarehousesForProductInStore(String productCode, String storeCode) {
+        return repository.findWarehouseCodesByProductAndStore(productCode, storeCode);
+    }
+
+    public List<String> findProductsForWarehouse(String warehouseCode) {
+        return repository.findProductCodesByWarehouse(warehouseCode);
+    }
+
+    private void checkReferences(String productCode, String storeCode, String warehouseCode) {
+        if (!referenceCodes.exists(Kind.PRODUCT, productCode)) {
+            throw new FulfilmentReferenceNotFoundException("Product " + productCode + " does not exist");
+        }
+        if (!referenceCodes.exists(Kind.STORE, storeCode)) {
+            throw new FulfilmentReferenceNotFoundException("Store " + storeCode + " does not exist");
+        }
+        if (!referenceCodes.exists(Kind.WAREHOUSE, warehouseCode)) {
+            throw new FulfilmentReferenceNotFoundException("Warehouse " + warehouseCode + " does not exist");
+        }
+    }
+
+    private static void checkLimits(String productCode,
+                                    String storeCode,
+                                    String warehouseCode,
+                                    FulfilmentCounts counts) {
+
         // --------------------------------------------------
         // 1️⃣ Constraint:
         // Product can be fulfilled by max 2 warehouses per store
         // --------------------------------------------------
 
-        long productWarehouseCount =
-                repository.count(
-                        "productCode = ?1 and storeCode = ?2",
-                        productCode,
-                        storeCode);
-
-        if (productWarehouseCount >= 2) {
+        if (counts.warehousesForProductInStore >= MAX_WAREHOUSES_PER_PRODUCT_AND_STORE) {
             throw new ProductFulfilmentLimitExceededException(
                     "Product " + productCode +
                     " already fulfilled by 2 warehouses for store " + storeCode);
@@ -45,15 +176,7 @@ public class FulfilmentService {
         // Store can be fulfilled by max 3 warehouses
         // --------------------------------------------------
 
-        long distinctWarehousesForStore =
-                repository.find("storeCode", storeCode)
-                        .project(String.class)
-                        .list()
-                        .stream()
-                        .distinct()
-                        .count();
-
-        if (distinctWarehousesForStore >= 3) {
+        if (counts.warehousesForStore >= MAX_WAREHOUSES_PER_STORE) {
             throw new StoreFulfilmentLimitExceededException(
                     "Store " + storeCode +
                     " already fulfilled by 3 warehouses");
@@ -64,30 +187,36 @@ public class FulfilmentService {
         // Warehouse can store max 5 product types
         // --------------------------------------------------
 
-        long distinctProductsForWarehouse =
-                repository.find("warehouseCode", warehouseCode)
-                        .project(String.class)
-                        .list()
-                        .stream()
-                        .distinct()
-                        .count();
-
-        if (distinctProductsForWarehouse >= 5) {
+        if (counts.productsForWarehouse >= MAX_PRODUCTS_PER_WAREHOUSE) {
             throw new WarehouseProductLimitExceededException(
                     "Warehouse " + warehouseCode +
                     " already stores 5 different product types");
         }
+    }
 
-        // --------------------------------------------------
-        // Create assignment
-        // --------------------------------------------------
+    /** Same rules as {@link #checkLimits}, without building an exception. */
+    static boolean isWithinLimits(FulfilmentCounts counts) {
+        return counts.warehousesForProductInStore < MAX_WAREHOUSES_PER_PRODUCT_AND_STORE
+                && counts.warehousesForStore < MAX_WAREHOUSES_PER_STORE
+                && counts.productsForWarehouse < MAX_PRODUCTS_PER_WAREHOUSE;
+    }
 
+    private static boolean isComplete(FulfilmentRequest request) {
+        return request != null
+                && request.productCode != null
+                && request.storeCode != null
+                && request.warehouseCode != null;
+    }
+
+    private static DbFulfilmentAssignment newAssignment(String productCode,
+                                                        String storeCode,
+                                                        String warehouseCode,
+                                                        LocalDateTime createdAt) {
         DbFulfilmentAssignment assignment = new DbFulfilmentAssignment();
         assignment.productCode = productCode;
         assignment.storeCode = storeCode;
         assignment.warehouseCode = warehouseCode;
-        assignment.createdAt = LocalDateTime.now();
-
-        repository.persist(assignment);
+        assignment.createdAt = createdAt;
+        return assignment;
     }
 }
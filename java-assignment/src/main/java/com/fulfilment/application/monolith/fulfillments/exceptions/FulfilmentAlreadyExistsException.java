@@ -0,0 +1,7 @@
+package com.fulfilment.application.monolith.fulfillments.exceptions;
+
+public class FulfilmentAlreadyExistsException extends RuntimeException {
+    public FulfilmentAlreadyExistsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.fulfilment.application.monolith.fulfillments.exceptions;
+
+public class FulfilmentConcurrentModificationException extends RuntimeException {
+    public FulfilmentConcurrentModificationException(String message) {
+        super(message);
+    }
+}
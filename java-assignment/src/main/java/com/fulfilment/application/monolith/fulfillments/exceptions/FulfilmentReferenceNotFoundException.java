@@ -0,0 +1,7 @@
+package com.fulfilment.application.monolith.fulfillments.exceptions;
+
+public class FulfilmentReferenceNotFoundException extends RuntimeException {
+    public FulfilmentReferenceNotFoundException(String message) {
+        super(message);
+    }
+}
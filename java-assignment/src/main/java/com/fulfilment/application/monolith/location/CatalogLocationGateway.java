@@ -0,0 +1,140 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Alternative;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Optional;
+
+/**
+ * {@link LocationResolver} backed by an immutable {@link LocationCatalog} snapshot.
+ *
+ * <p>When {@code location.catalog.path} is set the snapshot is loaded from that file and
+ * reloaded whenever the file changes; otherwise the built-in locations of
+ * {@link LocationGateway} are indexed. Reloads build a new snapshot and swap it in with a
+ * single volatile write, so lookups never lock.
+ */
+@Alternative
+@Priority(1)
+@ApplicationScoped
+public class CatalogLocationGateway implements LocationResolver {
+
+  private static final Logger LOGGER = Logger.getLogger(CatalogLocationGateway.class.getName());
+
+  private final Optional<Path> catalogPath;
+
+  private volatile LocationCatalog catalog;
+
+  private WatchService watchService;
+
+  public CatalogLocationGateway(
+          @ConfigProperty(name = "location.catalog.path") Optional<String> catalogPath) {
+    this.catalogPath = catalogPath.map(Path::of);
+    this.catalog = loadCatalog();
+  }
+
+  @Override
+  public Location resolveByIdentifier(String identifier) {
+    return catalog.get(identifier);
+  }
+
+  /**
+   * Loads a fresh snapshot and swaps it in. A catalog that cannot be read, fails to parse, is
+   * empty or lists a location twice is rejected and the current snapshot stays in place.
+   */
+  public void reload() {
+    try {
+      LocationCatalog reloaded = loadCatalog();
+      catalog = reloaded;
+      LOGGER.infof("Location catalog reloaded with %d locations", reloaded.size());
+    } catch (RuntimeException ex) {
+      LOGGER.error("Location catalog reload failed, keeping the current snapshot", ex);
+    }
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    LOGGER.infof("Location catalog initialised with %d locations", catalog.size());
+    catalogPath.ifPresent(this::watch);
+  }
+
+  void onStop(@Observes ShutdownEvent event) {
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException ex) {
+        LOGGER.warn("Failed to close location catalog watcher", ex);
+      }
+    }
+  }
+
+  private LocationCatalog loadCatalog() {
+    if (catalogPath.isEmpty()) {
+      return LocationCatalog.of(LocationGateway.defaultLocations());
+    }
+    try {
+      return LocationCatalog.load(catalogPath.get());
+    } catch (IOException ex) {
+      throw new IllegalStateException("Unable to read location catalog " + catalogPath.get(), ex);
+    }
+  }
+
+  private void watch(Path file) {
+    Path directory = file.toAbsolutePath().getParent();
+    Path fileName = file.getFileName();
+    try {
+      watchService = FileSystems.getDefault().newWatchService();
+      directory.register(watchService,
+              StandardWatchEventKinds.ENTRY_CREATE,
+              StandardWatchEventKinds.ENTRY_MODIFY);
+    } catch (IOException ex) {
+      LOGGER.error("Unable to watch location catalog " + file + ", hot reload disabled", ex);
+      return;
+    }
+
+    Thread watcher = new Thread(() -> {
+      try {
+        while (true) {
+          WatchKey key = watchService.take();
+          boolean changed = false;
+          for (WatchEvent<?> event : key.pollEvents()) {
+            if (fileName.equals(event.context())) {
+              changed = true;
+            }
+          }
+          if (changed) {
+            try {
+              reload();
+            } catch (RuntimeException | Error ex) {
+              // keeps the watcher alive, whatever a half written file makes the reload throw
+              LOGGER.error("Location catalog reload failed, keeping the current snapshot", ex);
+            }
+          }
+          if (!key.reset()) {
+            return;
+          }
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      } catch (ClosedWatchServiceException ex) {
+        // shutting down
+      }
+    }, "location-catalog-watcher");
+    watcher.setDaemon(true);
+    watcher.start();
+  }
+}
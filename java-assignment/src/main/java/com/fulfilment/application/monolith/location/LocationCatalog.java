@@ -0,0 +1,107 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable, hash-indexed snapshot of the known locations.
+ *
+ * <p>The catalog file is a plain CSV with one location per line:
+ * {@code identification,maxNumberOfWarehouses,maxCapacity}. Blank lines and lines
+ * starting with {@code #} are ignored. The file is read in one go and parsed in a single pass.
+ *
+ * <p>A catalog without locations or with an identification listed twice is rejected, which also
+ * turns down most files caught halfway through being written. Replace the file with an atomic
+ * move to rule that out completely.
+ */
+public final class LocationCatalog {
+
+  private final Map<String, Location> byIdentifier;
+
+  private LocationCatalog(Map<String, Location> byIdentifier) {
+    this.byIdentifier = byIdentifier;
+  }
+
+  public static LocationCatalog of(Collection<Location> locations) {
+    Map<String, Location> index = new HashMap<>(capacityFor(locations.size()));
+    for (Location location : locations) {
+      if (index.putIfAbsent(location.identification, location) != null) {
+        throw new IllegalArgumentException("Duplicate location " + location.identification);
+      }
+    }
+    return nonEmpty(index);
+  }
+
+  public static LocationCatalog load(Path file) throws IOException {
+    return parse(Files.readString(file, StandardCharsets.UTF_8));
+  }
+
+  static LocationCatalog parse(CharSequence content) {
+    Map<String, Location> index = new HashMap<>();
+    int lineNumber = 0;
+    int start = 0;
+    int length = content.length();
+
+    while (start < length) {
+      int end = start;
+      while (end < length && content.charAt(end) != '\n') {
+        end++;
+      }
+      lineNumber++;
+
+      String line = content.subSequence(start, end).toString().trim();
+      if (!line.isEmpty() && !line.startsWith("#")) {
+        Location location = parseLine(line, lineNumber);
+        if (index.putIfAbsent(location.identification, location) != null) {
+          throw new IllegalArgumentException(
+                  "Invalid location catalog line " + lineNumber + ": duplicate location " + location.identification);
+        }
+      }
+      start = end + 1;
+    }
+
+    return nonEmpty(index);
+  }
+
+  private static LocationCatalog nonEmpty(Map<String, Location> index) {
+    if (index.isEmpty()) {
+      throw new IllegalArgumentException("Location catalog holds no locations");
+    }
+    return new LocationCatalog(index);
+  }
+
+  private static Location parseLine(String line, int lineNumber) {
+    String[] columns = line.split(",");
+    if (columns.length != 3) {
+      throw new IllegalArgumentException(
+              "Invalid location catalog line " + lineNumber + ": expected 3 columns but got " + columns.length);
+    }
+    try {
+      return new Location(
+              columns[0].trim(),
+              Integer.parseInt(columns[1].trim()),
+              Integer.parseInt(columns[2].trim()));
+    } catch (NumberFormatException ex) {
+      throw new IllegalArgumentException("Invalid location catalog line " + lineNumber + ": " + line, ex);
+    }
+  }
+
+  private static int capacityFor(int size) {
+    return (int) (size / 0.75f) + 1;
+  }
+
+  public Location get(String identifier) {
+    return identifier == null ? null : byIdentifier.get(identifier);
+  }
+
+  public int size() {
+    return byIdentifier.size();
+  }
+}
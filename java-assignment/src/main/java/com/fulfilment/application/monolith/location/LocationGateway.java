@@ -5,6 +5,7 @@ import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResol
 import jakarta.enterprise.context.ApplicationScoped;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @ApplicationScoped
@@ -23,6 +24,10 @@ public class LocationGateway implements LocationResolver {
     locations.add(new Location("VETSBY-001", 1, 90));
   }
 
+  static List<Location> defaultLocations() {
+    return Collections.unmodifiableList(locations);
+  }
+
   @Override
   public Location resolveByIdentifier(String identifier) {
     return locations
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.Consumes;
@@ -28,6 +29,18 @@ public class ProductResource {
 
   @Inject ProductRepository productRepository;
 
+  @Inject
+  @ProductCreated
+  Event<Product> productCreatedEvent;
+
+  @Inject
+  @ProductUpdated
+  Event<Product> productUpdatedEvent;
+
+  @Inject
+  @ProductDeleted
+  Event<Product> productDeletedEvent;
+
   private static final Logger LOGGER = Logger.getLogger(ProductResource.class.getName());
 
   @GET
@@ -53,6 +66,9 @@ public class ProductResource {
     }
 
     productRepository.persist(product);
+
+    productCreatedEvent.fire(product);
+
     return Response.ok(product).status(201).build();
   }
 
@@ -77,6 +93,8 @@ public class ProductResource {
 
     productRepository.persist(entity);
 
+    productUpdatedEvent.fire(entity);
+
     return entity;
   }
 
@@ -88,6 +106,7 @@ public class ProductResource {
     if (entity == null) {
       throw new WebApplicationException("Product with id of " + id + " does not exist.", 404);
     }
+    productDeletedEvent.fire(entity);
     productRepository.delete(entity);
     return Response.status(204).build();
   }
@@ -0,0 +1,220 @@
+package com.fulfilment.application.monolith.stores;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of legacy store records in preallocated, memory-mapped segment files.
+ *
+ * <p>Records are {@code [int length][int crc32c][payload]}; a zero length marks the end of the
+ * written part of a segment, the rest of the preallocated file is zeros. A single writer thread
+ * drains whatever is queued, copies it into the mapped segment and forces it to disk once for
+ * the whole group, so concurrent appenders share one flush. A segment that is full is closed and
+ * the next one ({@code legacy-store-000001.journal}, ...) is preallocated.
+ *
+ * <p>On reopening, the last segment is read up to the first record whose checksum does not match,
+ * which is where a crash tore the last write; that record is wiped and appending resumes there.
+ */
+final class LegacyStoreJournal implements Closeable {
+
+  private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+  private static final int MAX_GROUP = 1024;
+
+  private final Path directory;
+
+  private final int segmentSize;
+
+  private final LinkedBlockingQueue<PendingRecord> queue = new LinkedBlockingQueue<>();
+
+  private final Thread writer;
+
+  // appenders hold the read lock while they queue, stopping takes the write lock, so once the
+  // journal is stopped nothing more gets into the queue behind the writer's back
+  private final ReadWriteLock runningLock = new ReentrantReadWriteLock();
+
+  private volatile boolean running = true;
+
+  private int segmentIndex;
+
+  private MappedByteBuffer segment;
+
+  private LegacyStoreJournal(Path directory, int segmentSize) throws IOException {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    Files.createDirectories(directory);
+    this.segmentIndex = lastSegmentIndex(directory);
+    this.segment = map(segmentIndex);
+    skipWrittenRecords(segment);
+
+    this.writer = new Thread(this::writeLoop, "legacy-store-journal");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  static LegacyStoreJournal open(Path directory, int segmentSize) throws IOException {
+    return new LegacyStoreJournal(directory, segmentSize);
+  }
+
+  /** Completes once the record and everything queued before it is on disk. */
+  CompletableFuture<Void> append(byte[] payload) {
+    if (payload.length + HEADER_BYTES + Integer.BYTES > segmentSize) {
+      throw new IllegalArgumentException("Record of " + payload.length + " bytes does not fit a journal segment");
+    }
+    PendingRecord record = new PendingRecord(payload);
+    runningLock.readLock().lock();
+    try {
+      if (!running) {
+        throw new IllegalStateException("Legacy store journal is closed");
+      }
+      queue.add(record);
+    } finally {
+      runningLock.readLock().unlock();
+    }
+    return record.done;
+  }
+
+  private void writeLoop() {
+    List<PendingRecord> group = new ArrayList<>(MAX_GROUP);
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        group.add(first);
+        queue.drainTo(group, MAX_GROUP - 1);
+
+        for (PendingRecord record : group) {
+          write(record.payload);
+        }
+        segment.force();
+        group.forEach(record -> record.done.complete(null));
+
+      } catch (InterruptedException ex) {
+        // only the poll is interruptible, so no group is in flight; fail whatever is still
+        // queued instead of spinning on a poll that keeps throwing
+        stop();
+        queue.drainTo(group);
+        IllegalStateException interrupted = new IllegalStateException("Legacy store journal writer was interrupted", ex);
+        group.forEach(record -> record.done.completeExceptionally(interrupted));
+        Thread.currentThread().interrupt();
+        return;
+      } catch (IOException | RuntimeException ex) {
+        group.forEach(record -> record.done.completeExceptionally(ex));
+      }
+      group.clear();
+    }
+  }
+
+  private void write(byte[] payload) throws IOException {
+    // keep room for the zero length that terminates the segment
+    if (segment.remaining() < HEADER_BYTES + payload.length + Integer.BYTES) {
+      rotate();
+    }
+    CRC32C crc = new CRC32C();
+    crc.update(payload);
+    segment.putInt(payload.length);
+    segment.putInt((int) crc.getValue());
+    segment.put(payload);
+  }
+
+  private void rotate() throws IOException {
+    segment.force();
+    segmentIndex++;
+    segment = map(segmentIndex);
+  }
+
+  private MappedByteBuffer map(int index) throws IOException {
+    try (FileChannel channel = FileChannel.open(segmentPath(directory, index),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      // mapping beyond the end of the file grows it, which preallocates the whole segment
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+  }
+
+  private static void skipWrittenRecords(MappedByteBuffer segment) {
+    CRC32C crc = new CRC32C();
+    while (segment.remaining() >= HEADER_BYTES) {
+      int position = segment.position();
+      int length = segment.getInt(position);
+      if (length == 0) {
+        return;
+      }
+      if (length > 0 && length <= segment.remaining() - HEADER_BYTES) {
+        crc.reset();
+        crc.update(segment.slice(position + HEADER_BYTES, length));
+        if ((int) crc.getValue() == segment.getInt(position + Integer.BYTES)) {
+          segment.position(position + HEADER_BYTES + length);
+          continue;
+        }
+      }
+      // torn record: wipe it, so that what is appended next is not followed by its leftovers
+      int end = length > 0 ? (int) Math.min(segment.limit(), (long) position + HEADER_BYTES + length) : segment.limit();
+      for (int i = position; i < end; i++) {
+        segment.put(i, (byte) 0);
+      }
+      return;
+    }
+  }
+
+  private static int lastSegmentIndex(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(path -> path.getFileName().toString())
+          .filter(name -> name.matches("legacy-store-\\d{6}\\.journal"))
+          .mapToInt(name -> Integer.parseInt(name.substring(13, 19)))
+          .max()
+          .orElse(0);
+    }
+  }
+
+  static Path segmentPath(Path directory, int index) {
+    return directory.resolve(String.format("legacy-store-%06d.journal", index));
+  }
+
+  private void stop() {
+    runningLock.writeLock().lock();
+    try {
+      running = false;
+    } finally {
+      runningLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    stop();
+    try {
+      writer.join();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    segment.force();
+  }
+
+  private static final class PendingRecord {
+
+    final byte[] payload;
+
+    final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    PendingRecord(byte[] payload) {
+      this.payload = payload;
+    }
+  }
+}
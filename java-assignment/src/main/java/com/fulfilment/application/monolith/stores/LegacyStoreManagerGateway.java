@@ -1,30 +1,121 @@
 package com.fulfilment.application.monolith.stores;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
 
 @ApplicationScoped
 public class LegacyStoreManagerGateway {
 
+  private static final Logger LOGGER = Logger.getLogger(LegacyStoreManagerGateway.class.getName());
+
+  private static final byte CREATED = 'C';
+
+  private static final byte UPDATED = 'U';
+
+  // temp-file (one temp file per call) or journal (group-committed append-only journal)
+  @ConfigProperty(name = "legacy.store.gateway.mode", defaultValue = "temp-file")
+  String mode;
+
+  @ConfigProperty(name = "legacy.store.journal.dir")
+  Optional<String> journalDirectory;
+
+  @ConfigProperty(name = "legacy.store.journal.segment-size", defaultValue = "67108864")
+  int journalSegmentSize;
+
+  @ConfigProperty(name = "legacy.store.journal.append-timeout", defaultValue = "5s")
+  Duration journalAppendTimeout;
+
+  private LegacyStoreJournal journal;
+
+  public LegacyStoreManagerGateway() {}
+
+  LegacyStoreManagerGateway(LegacyStoreJournal journal, Duration journalAppendTimeout) {
+    this.journal = journal;
+    this.journalAppendTimeout = journalAppendTimeout;
+  }
+
+  @PostConstruct
+  void init() throws IOException {
+    if ("journal".equals(mode)) {
+      Path directory = Path.of(journalDirectory.orElse(
+          Path.of(System.getProperty("java.io.tmpdir"), "legacy-store-journal").toString()));
+      journal = LegacyStoreJournal.open(directory, journalSegmentSize);
+    }
+  }
+
+  @PreDestroy
+  void close() {
+    if (journal != null) {
+      journal.close();
+    }
+  }
+
   public void createStoreOnLegacySystem(Store store) {
+    if (journal != null) {
+      appendToJournal(CREATED, store);
+      return;
+    }
     // just to emulate as this would send this to a legacy system, let's write a temp file with the
     writeToFile(store);
   }
 
   public void updateStoreOnLegacySystem(Store store) {
+    if (journal != null) {
+      appendToJournal(UPDATED, store);
+      return;
+    }
     // just to emulate as this would send this to a legacy system, let's write a temp file with the
     writeToFile(store);
   }
 
+  private void appendToJournal(byte type, Store store) {
+    byte[] name = store.name == null ? new byte[0] : store.name.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer record = ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES + name.length);
+    record.put(type);
+    record.putLong(store.id == null ? -1 : store.id);
+    record.putInt(store.quantityProductsInStock);
+    record.put(name);
+
+    // failures reach the caller, so the outbox keeps the event and retries it; the wait is
+    // bounded, and interruptible so that a propagation timeout can abandon it
+    try {
+      journal.append(record.array()).get(journalAppendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the legacy store journal", ex);
+    } catch (TimeoutException ex) {
+      throw new IllegalStateException("Legacy store journal did not confirm the record within " + journalAppendTimeout, ex);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof IOException io) {
+        throw new UncheckedIOException(io);
+      }
+      if (ex.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  // failures reach the caller, as with the journal, so the outbox retries the event
   private void writeToFile(Store store) {
     try {
       // Step 1: Create a temporary file
-      Path tempFile;
-
-      tempFile = Files.createTempFile(store.name, ".txt");
-
-      System.out.println("Temporary file created at: " + tempFile.toString());
+      Path tempFile = Files.createTempFile(store.name, ".txt");
+      LOGGER.debugf("Temporary file created at: %s", tempFile);
 
       // Step 2: Write data to the temporary file
       String content =
@@ -33,19 +124,16 @@ public class LegacyStoreManagerGateway {
               + " ] [ items on stock ="
               + store.quantityProductsInStock
               + "]";
-      Files.write(tempFile, content.getBytes());
-      System.out.println("Data written to temporary file.");
+      Files.writeString(tempFile, content, StandardCharsets.UTF_8);
 
       // Step 3: Optionally, read the data back to verify
-      String readContent = new String(Files.readAllBytes(tempFile));
-      System.out.println("Data read from temporary file: " + readContent);
+      String readContent = Files.readString(tempFile, StandardCharsets.UTF_8);
+      LOGGER.debugf("Data read from temporary file: %s", readContent);
 
       // Step 4: Delete the temporary file when done
       Files.delete(tempFile);
-      System.out.println("Temporary file deleted.");
-
-    } catch (Exception e) {
-      e.printStackTrace();
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Writing store " + store.name + " to the legacy system failed", ex);
     }
   }
 }
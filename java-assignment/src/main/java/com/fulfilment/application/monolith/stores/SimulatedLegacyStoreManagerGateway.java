@@ -0,0 +1,53 @@
+package com.fulfilment.application.monolith.stores;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Alternative;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Slow and/or failing stand-in for the legacy store manager, to exercise the fault tolerance
+ * around store propagation locally. Enabled at build time with
+ * {@code legacy.store.gateway.stand-in=true}.
+ */
+@Alternative
+@Priority(1)
+@ApplicationScoped
+@IfBuildProperty(name = "legacy.store.gateway.stand-in", stringValue = "true")
+public class SimulatedLegacyStoreManagerGateway extends LegacyStoreManagerGateway {
+
+  @ConfigProperty(name = "legacy.store.gateway.stand-in.latency", defaultValue = "0ms")
+  Duration latency;
+
+  @ConfigProperty(name = "legacy.store.gateway.stand-in.failure-rate", defaultValue = "0")
+  double failureRate;
+
+  @Override
+  public void createStoreOnLegacySystem(Store store) {
+    simulate(store);
+    super.createStoreOnLegacySystem(store);
+  }
+
+  @Override
+  public void updateStoreOnLegacySystem(Store store) {
+    simulate(store);
+    super.updateStoreOnLegacySystem(store);
+  }
+
+  private void simulate(Store store) {
+    if (!latency.isZero()) {
+      try {
+        Thread.sleep(latency.toMillis());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while calling the legacy store manager", ex);
+      }
+    }
+    if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+      throw new IllegalStateException("Simulated legacy store manager failure for store " + store.id);
+    }
+  }
+}
@@ -28,14 +28,18 @@ import org.jboss.logging.Logger;
 @Consumes("application/json")
 public class StoreResource {
 
-  @Inject LegacyStoreManagerGateway legacyStoreManagerGateway;
-
   @Inject
+  @StoreCreated
   Event<Store> storeCreatedEvent;
 
   @Inject
+  @StoreUpdated
   Event<Store> storeUpdatedEvent;
 
+  @Inject
+  @StoreDeleted
+  Event<Store> storeDeletedEvent;
+
   private static final Logger LOGGER = Logger.getLogger(StoreResource.class.getName());
 
   @GET
@@ -84,7 +88,7 @@ public class StoreResource {
     entity.name = updatedStore.name;
     entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
 
-    storeUpdatedEvent.fire(updatedStore);
+    storeUpdatedEvent.fire(entity);
 
     return entity;
   }
@@ -111,7 +115,7 @@ public class StoreResource {
       entity.quantityProductsInStock = updatedStore.quantityProductsInStock;
     }
 
-    storeUpdatedEvent.fire(updatedStore);
+    storeUpdatedEvent.fire(entity);
 
     return entity;
   }
@@ -124,6 +128,7 @@ public class StoreResource {
     if (entity == null) {
       throw new WebApplicationException("Store with id of " + id + " does not exist.", 404);
     }
+    storeDeletedEvent.fire(entity);
     entity.delete();
     return Response.status(204).build();
   }
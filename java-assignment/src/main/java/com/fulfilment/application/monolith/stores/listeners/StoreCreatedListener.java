@@ -1,20 +1,18 @@
 package com.fulfilment.application.monolith.stores.listeners;
 
-import com.fulfilment.application.monolith.stores.LegacyStoreManagerGateway;
 import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.StoreCreated;
+import com.fulfilment.application.monolith.stores.outbox.StoreOutboxEvent;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.enterprise.event.TransactionPhase;
-import jakarta.inject.Inject;
 
 @ApplicationScoped
 public class StoreCreatedListener {
 
-    @Inject
-    LegacyStoreManagerGateway legacyStoreManagerGateway;
-
-    public void onStoreCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) Store store) {
-        legacyStoreManagerGateway.createStoreOnLegacySystem(store);
+    // runs in the request transaction: the outbox row commits or rolls back with the store
+    public void onStoreCreated(@Observes(during = TransactionPhase.IN_PROGRESS) @StoreCreated Store store) {
+        StoreOutboxEvent.of(StoreOutboxEvent.Type.CREATED, store).persist();
     }
 
 }
@@ -1,18 +1,17 @@
 package com.fulfilment.application.monolith.stores.listeners;
 
-import com.fulfilment.application.monolith.stores.LegacyStoreManagerGateway;
 import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.StoreUpdated;
+import com.fulfilment.application.monolith.stores.outbox.StoreOutboxEvent;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.event.Observes;
 import jakarta.enterprise.event.TransactionPhase;
-import jakarta.inject.Inject;
 
 @ApplicationScoped
 public class StoreUpdatedListener {
-    @Inject
-    LegacyStoreManagerGateway legacyStoreManagerGateway;
 
-    public void onStoreUpdated(@Observes(during = TransactionPhase.AFTER_SUCCESS) Store store) {
-        legacyStoreManagerGateway.updateStoreOnLegacySystem(store);
+    // runs in the request transaction: the outbox row commits or rolls back with the store
+    public void onStoreUpdated(@Observes(during = TransactionPhase.IN_PROGRESS) @StoreUpdated Store store) {
+        StoreOutboxEvent.of(StoreOutboxEvent.Type.UPDATED, store).persist();
     }
 }
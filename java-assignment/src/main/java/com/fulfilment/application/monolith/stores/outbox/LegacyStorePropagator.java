@@ -0,0 +1,63 @@
+package com.fulfilment.application.monolith.stores.outbox;
+
+import com.fulfilment.application.monolith.stores.LegacyStoreManagerGateway;
+import com.fulfilment.application.monolith.stores.Store;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.StartupEvent;
+import io.smallrye.faulttolerance.api.CircuitBreakerMaintenance;
+import io.smallrye.faulttolerance.api.CircuitBreakerName;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.jboss.logging.Logger;
+
+/**
+ * Fault tolerant entry point to {@link LegacyStoreManagerGateway}.
+ *
+ * <p>At most a few calls reach the legacy system at once (bulkhead), each one is abandoned after
+ * a timeout, and once too many of them fail the circuit opens and calls are rejected straight
+ * away until the legacy system had time to recover. Rejected calls surface as
+ * {@link org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceException}s and stay in
+ * the outbox for a later attempt. Limits can be tuned with the MicroProfile Fault Tolerance keys,
+ * e.g. {@code com.fulfilment.application.monolith.stores.outbox.LegacyStorePropagator/propagate/Timeout/value}.
+ *
+ * <p>Circuit state transitions are counted in {@code store.legacy.circuit.transitions}, tagged
+ * with the new state.
+ */
+@ApplicationScoped
+public class LegacyStorePropagator {
+
+  static final String CIRCUIT = "legacy-store";
+
+  private static final Logger LOGGER = Logger.getLogger(LegacyStorePropagator.class.getName());
+
+  @Inject
+  LegacyStoreManagerGateway legacyStoreManagerGateway;
+
+  @Inject
+  CircuitBreakerMaintenance circuitBreakerMaintenance;
+
+  @Inject
+  MeterRegistry meterRegistry;
+
+  void onStart(@Observes StartupEvent event) {
+    circuitBreakerMaintenance.onStateChange(CIRCUIT, state -> {
+      LOGGER.infof("Legacy store circuit is now %s", state);
+      meterRegistry.counter("store.legacy.circuit.transitions", "state", state.name()).increment();
+    });
+  }
+
+  @Bulkhead(4)
+  @Timeout(2000)
+  @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 10000, successThreshold = 2)
+  @CircuitBreakerName(CIRCUIT)
+  public void propagate(StoreOutboxEvent.Type type, Store store) {
+    switch (type) {
+      case CREATED -> legacyStoreManagerGateway.createStoreOnLegacySystem(store);
+      case UPDATED -> legacyStoreManagerGateway.updateStoreOnLegacySystem(store);
+    }
+  }
+}
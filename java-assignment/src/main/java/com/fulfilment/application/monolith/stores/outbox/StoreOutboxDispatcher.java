@@ -0,0 +1,251 @@
+package com.fulfilment.application.monolith.stores.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockModeType;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.hibernate.LockOptions;
+import org.hibernate.jpa.SpecHints;
+import org.jboss.logging.Logger;
+
+/**
+ * Drains the store outbox to the legacy store manager, through {@link LegacyStorePropagator}, in
+ * the background.
+ *
+ * <p>Events are sent in id order per store: an event is only picked up when no earlier event of
+ * the same store is waiting for a retry, and a failure holds back the rest of that store's
+ * events in the batch. Failed events are retried with exponential backoff. The legacy call runs
+ * outside of any transaction, so a slow legacy system does not hold database connections.
+ *
+ * <p>Claiming a store collapses its pending updates into the latest one, which is the only state
+ * the legacy system needs: every update followed by a later one is deleted in the claiming
+ * transaction, whether or not it made it into the batch. The collapsed ones are counted in
+ * {@code store.outbox.events.collapsed}. Events become due {@code store.outbox.coalesce-window}
+ * after they were written; the default of zero sends them on the next poll, a longer window
+ * delays every event by that much so that more updates of a busy store pile up and collapse.
+ *
+ * <p>While the propagator sheds load (open circuit or full bulkhead) the dispatcher stops; the
+ * remaining events stay due without spending a retry attempt.
+ *
+ * <p>Several instances can drain the outbox at once. A batch is claimed with {@code FOR UPDATE
+ * SKIP LOCKED} and leased by pushing its {@code nextAttemptAt} {@code store.outbox.lease} ahead,
+ * so no other instance picks the events up while they are sent outside of the claiming
+ * transaction. If an instance dies mid-batch its events become due again once the lease runs out.
+ * An event is only claimed together with the earliest pending event of its store, so a store's
+ * events are never split between two instances.
+ */
+@ApplicationScoped
+public class StoreOutboxDispatcher {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreOutboxDispatcher.class.getName());
+
+  private final LegacyStorePropagator legacyStorePropagator;
+
+  private final int batchSize;
+
+  private final Duration initialBackoff;
+
+  private final Duration maxBackoff;
+
+  private final Duration coalesceWindow;
+
+  private final Duration lease;
+
+  private final Counter collapsedEvents;
+
+  public StoreOutboxDispatcher(
+      LegacyStorePropagator legacyStorePropagator,
+      @ConfigProperty(name = "store.outbox.batch-size", defaultValue = "100") int batchSize,
+      @ConfigProperty(name = "store.outbox.initial-backoff", defaultValue = "1s") Duration initialBackoff,
+      @ConfigProperty(name = "store.outbox.max-backoff", defaultValue = "5m") Duration maxBackoff,
+      @ConfigProperty(name = "store.outbox.coalesce-window", defaultValue = "0s") Duration coalesceWindow,
+      @ConfigProperty(name = "store.outbox.lease", defaultValue = "5m") Duration lease,
+      MeterRegistry meterRegistry) {
+    this.legacyStorePropagator = legacyStorePropagator;
+    this.batchSize = batchSize;
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+    this.coalesceWindow = coalesceWindow;
+    this.lease = lease;
+    this.collapsedEvents = Counter.builder("store.outbox.events.collapsed")
+        .description("Store update events superseded by a later update before propagation")
+        .register(meterRegistry);
+  }
+
+  @Scheduled(
+      every = "${store.outbox.poll-interval:1s}",
+      concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void dispatch() {
+    List<StoreOutboxEvent> batch;
+    boolean shedding;
+    do {
+      batch = QuarkusTransaction.requiringNew().call(this::nextBatch);
+      shedding = !send(batch);
+      // collapsing may leave a batch short although more events are due, so go on until none is
+    } while (!batch.isEmpty() && !shedding);
+  }
+
+  /**
+   * Claims and leases the next due events, deleting the updates they supersede; must run in its
+   * own transaction.
+   */
+  List<StoreOutboxEvent> nextBatch() {
+    LocalDateTime now = LocalDateTime.now();
+    List<StoreOutboxEvent> candidates = StoreOutboxEvent.<StoreOutboxEvent>find(
+            "from StoreOutboxEvent e where e.nextAttemptAt <= ?1 and e.createdAt <= ?2 and not exists ("
+                + "select p.id from StoreOutboxEvent p where p.storeId = e.storeId and p.id < e.id "
+                + "and p.nextAttemptAt > ?1) order by e.id",
+            now, now.minus(coalesceWindow))
+        .withLock(LockModeType.PESSIMISTIC_WRITE)
+        .withHint(SpecHints.HINT_SPEC_LOCK_TIMEOUT, LockOptions.SKIP_LOCKED)
+        .range(0, batchSize - 1)
+        .list();
+    if (candidates.isEmpty()) {
+      return candidates;
+    }
+
+    // every pending event of the candidates' stores, oldest first (store_outbox_store_idx)
+    List<StoreOutboxEvent> pending = StoreOutboxEvent.<StoreOutboxEvent>list(
+        "storeId in ?1 order by id",
+        candidates.stream().map(event -> event.storeId).collect(Collectors.toSet()));
+    Map<Long, Long> earliestByStore = new HashMap<>();
+    for (StoreOutboxEvent event : pending) {
+      earliestByStore.putIfAbsent(event.storeId, event.id);
+    }
+
+    // a store whose earliest event was skipped because another instance holds it is left alone
+    List<StoreOutboxEvent> claimed = new ArrayList<>(candidates.size());
+    Set<Long> claimedStores = new HashSet<>();
+    for (StoreOutboxEvent event : candidates) {
+      if (claimedStores.contains(event.storeId) || event.id.equals(earliestByStore.get(event.storeId))) {
+        claimedStores.add(event.storeId);
+        claimed.add(event);
+      }
+    }
+    if (claimed.isEmpty()) {
+      return claimed;
+    }
+
+    // the claimed stores are this instance's until the lease runs out, so their later events can go
+    List<StoreOutboxEvent> claimedStoresEvents = new ArrayList<>();
+    for (StoreOutboxEvent event : pending) {
+      if (claimedStores.contains(event.storeId)) {
+        claimedStoresEvents.add(event);
+      }
+    }
+    Set<Long> superseded = superseded(claimedStoresEvents);
+    if (!superseded.isEmpty()) {
+      StoreOutboxEvent.delete("id in ?1", superseded);
+      collapsedEvents.increment(superseded.size());
+    }
+
+    List<StoreOutboxEvent> batch = new ArrayList<>(claimed.size());
+    LocalDateTime leasedUntil = now.plus(lease);
+    for (StoreOutboxEvent event : claimed) {
+      if (!superseded.contains(event.id)) {
+        event.nextAttemptAt = leasedUntil;
+        batch.add(event);
+      }
+    }
+    return batch;
+  }
+
+  /** Returns {@code false} when the propagator started shedding load. */
+  private boolean send(List<StoreOutboxEvent> batch) {
+    if (batch.isEmpty()) {
+      return true;
+    }
+    LocalDateTime claimedAt = LocalDateTime.now();
+    List<Long> delivered = new ArrayList<>();
+    Map<Long, String> failed = new HashMap<>();
+    Set<Long> heldBackStores = new HashSet<>();
+    boolean shed = false;
+
+    for (StoreOutboxEvent event : batch) {
+      if (heldBackStores.contains(event.storeId)) {
+        continue;
+      }
+      try {
+        legacyStorePropagator.propagate(event.type, event.toStore());
+        delivered.add(event.id);
+      } catch (CircuitBreakerOpenException | BulkheadException ex) {
+        LOGGER.infof("Legacy store propagation is shedding load (%s), pausing the outbox", ex.getClass().getSimpleName());
+        shed = true;
+        break;
+      } catch (RuntimeException ex) {
+        LOGGER.warnf(ex, "Legacy propagation of store %d failed (attempt %d)", event.storeId, event.attempts + 1);
+        failed.put(event.id, String.valueOf(ex.getMessage()));
+        heldBackStores.add(event.storeId);
+      }
+    }
+
+    // what was neither delivered nor failed is due again straight away, without an attempt spent
+    List<Long> released = new ArrayList<>();
+    for (StoreOutboxEvent event : batch) {
+      if (!delivered.contains(event.id) && !failed.containsKey(event.id)) {
+        released.add(event.id);
+      }
+    }
+
+    QuarkusTransaction.requiringNew().run(() -> {
+      if (!delivered.isEmpty()) {
+        StoreOutboxEvent.delete("id in ?1", delivered);
+      }
+      failed.forEach(this::scheduleRetry);
+      if (!released.isEmpty()) {
+        StoreOutboxEvent.update("nextAttemptAt = ?1 where id in ?2", claimedAt, released);
+      }
+    });
+    return !shed;
+  }
+
+  /**
+   * The ids of the updates in {@code events}, given oldest first, that are followed by another
+   * update of the same store. Creations are never superseded, nor is an update by a later creation.
+   */
+  static Set<Long> superseded(List<StoreOutboxEvent> events) {
+    Map<Long, StoreOutboxEvent> pendingUpdate = new HashMap<>();
+    Set<Long> superseded = new HashSet<>();
+    for (StoreOutboxEvent event : events) {
+      if (event.type == StoreOutboxEvent.Type.UPDATED) {
+        StoreOutboxEvent previous = pendingUpdate.put(event.storeId, event);
+        if (previous != null) {
+          superseded.add(previous.id);
+        }
+      } else {
+        pendingUpdate.remove(event.storeId);
+      }
+    }
+    return superseded;
+  }
+
+  private void scheduleRetry(Long id, String error) {
+    StoreOutboxEvent event = StoreOutboxEvent.findById(id);
+    if (event == null) {
+      return;
+    }
+    event.attempts++;
+    event.nextAttemptAt = LocalDateTime.now().plus(backoff(event.attempts));
+    event.lastError = error.length() > 500 ? error.substring(0, 500) : error;
+  }
+
+  Duration backoff(int attempts) {
+    // initial * 2^(attempts - 1), capped; the shift is bounded so it cannot overflow
+    Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+    return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+  }
+}
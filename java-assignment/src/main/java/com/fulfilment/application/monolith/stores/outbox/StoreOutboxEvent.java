@@ -0,0 +1,69 @@
+package com.fulfilment.application.monolith.stores.outbox;
+
+import com.fulfilment.application.monolith.stores.Store;
+import io.quarkus.hibernate.orm.panache.PanacheEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Store change waiting to be propagated to the legacy store manager. Written in the same
+ * transaction as the change itself and deleted once {@link StoreOutboxDispatcher} delivered it.
+ */
+@Entity
+@Table(indexes = {
+    @Index(name = "store_outbox_due_idx", columnList = "nextAttemptAt, id"),
+    @Index(name = "store_outbox_store_idx", columnList = "storeId, id")
+})
+public class StoreOutboxEvent extends PanacheEntity {
+
+  public enum Type {
+    CREATED,
+    UPDATED
+  }
+
+  public Long storeId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  public Type type;
+
+  // snapshot of the store as committed, the row may have changed again by the time it is sent
+  @Column(length = 40)
+  public String name;
+
+  public int quantityProductsInStock;
+
+  public LocalDateTime createdAt;
+
+  public LocalDateTime nextAttemptAt;
+
+  public int attempts;
+
+  @Column(length = 500)
+  public String lastError;
+
+  public StoreOutboxEvent() {}
+
+  public static StoreOutboxEvent of(Type type, Store store) {
+    StoreOutboxEvent event = new StoreOutboxEvent();
+    event.storeId = store.id;
+    event.type = type;
+    event.name = store.name;
+    event.quantityProductsInStock = store.quantityProductsInStock;
+    event.createdAt = LocalDateTime.now();
+    event.nextAttemptAt = event.createdAt;
+    return event;
+  }
+
+  public Store toStore() {
+    Store store = new Store(name);
+    store.id = storeId;
+    store.quantityProductsInStock = quantityProductsInStock;
+    return store;
+  }
+}
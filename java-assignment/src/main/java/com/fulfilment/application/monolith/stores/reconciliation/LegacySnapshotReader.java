@@ -0,0 +1,74 @@
+package com.fulfilment.application.monolith.stores.reconciliation;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams a legacy store snapshot, a CSV of {@code name,quantityProductsInStock} lines sorted by
+ * name, one line at a time. An optional {@code name,...} header line and blank lines are skipped;
+ * the name is everything before the last comma.
+ */
+final class LegacySnapshotReader implements Iterator<StoreRow>, Closeable {
+
+  private final BufferedReader reader;
+
+  private StoreRow next;
+
+  private long lineNumber;
+
+  LegacySnapshotReader(Path snapshot) throws IOException {
+    this.reader = Files.newBufferedReader(snapshot, StandardCharsets.UTF_8);
+    this.next = read();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return next != null;
+  }
+
+  @Override
+  public StoreRow next() {
+    if (next == null) {
+      throw new NoSuchElementException();
+    }
+    StoreRow current = next;
+    try {
+      next = read();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return current;
+  }
+
+  private StoreRow read() throws IOException {
+    String line;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      if (line.isBlank() || (lineNumber == 1 && line.startsWith("name,"))) {
+        continue;
+      }
+      int comma = line.lastIndexOf(',');
+      if (comma <= 0) {
+        throw new IllegalStateException("Invalid legacy snapshot line " + lineNumber + ": " + line);
+      }
+      try {
+        return new StoreRow(null, line.substring(0, comma), Integer.parseInt(line.substring(comma + 1).trim()));
+      } catch (NumberFormatException ex) {
+        throw new IllegalStateException("Invalid legacy snapshot line " + lineNumber + ": " + line, ex);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
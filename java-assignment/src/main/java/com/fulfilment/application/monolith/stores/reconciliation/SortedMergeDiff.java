@@ -0,0 +1,79 @@
+package com.fulfilment.application.monolith.stores.reconciliation;
+
+import java.util.Iterator;
+
+/**
+ * Single pass diff of two store streams sorted by name, holding one row of each side at a time.
+ *
+ * <p>Names are compared by Unicode code point, which is the order of {@code collate "C"} on a
+ * UTF-8 database; {@link String#compareTo} would disagree with it for supplementary characters.
+ */
+final class SortedMergeDiff {
+
+  interface Differences {
+
+    /** Store we have that the legacy system does not know. */
+    void missing(StoreRow ours);
+
+    /** Store the legacy system has that we do not. */
+    void extra(StoreRow legacy);
+
+    void quantityMismatch(StoreRow ours, StoreRow legacy);
+
+    default void matched(StoreRow ours) {}
+  }
+
+  private SortedMergeDiff() {}
+
+  static void diff(Iterator<StoreRow> ours, Iterator<StoreRow> legacy, Differences differences) {
+    StoreRow our = next(ours, null, "Store table");
+    StoreRow their = next(legacy, null, "legacy snapshot");
+
+    while (our != null || their != null) {
+      int order = our == null ? 1 : their == null ? -1 : compareNames(our.name, their.name);
+      if (order < 0) {
+        differences.missing(our);
+        our = next(ours, our, "Store table");
+      } else if (order > 0) {
+        differences.extra(their);
+        their = next(legacy, their, "legacy snapshot");
+      } else {
+        if (our.quantityProductsInStock != their.quantityProductsInStock) {
+          differences.quantityMismatch(our, their);
+        } else {
+          differences.matched(our);
+        }
+        our = next(ours, our, "Store table");
+        their = next(legacy, their, "legacy snapshot");
+      }
+    }
+  }
+
+  private static StoreRow next(Iterator<StoreRow> rows, StoreRow previous, String source) {
+    if (!rows.hasNext()) {
+      return null;
+    }
+    StoreRow row = rows.next();
+    // a merge over unsorted input silently reports garbage, refuse it instead
+    if (previous != null && compareNames(previous.name, row.name) >= 0) {
+      throw new IllegalStateException(
+          source + " is not sorted by unique name: '" + row.name + "' follows '" + previous.name + "'");
+    }
+    return row;
+  }
+
+  static int compareNames(String left, String right) {
+    int i = 0;
+    int j = 0;
+    while (i < left.length() && j < right.length()) {
+      int a = left.codePointAt(i);
+      int b = right.codePointAt(j);
+      if (a != b) {
+        return Integer.compare(a, b);
+      }
+      i += Character.charCount(a);
+      j += Character.charCount(b);
+    }
+    return Integer.compare(left.length() - i, right.length() - j);
+  }
+}
@@ -0,0 +1,36 @@
+package com.fulfilment.application.monolith.stores.reconciliation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Outcome of one reconciliation: full counts, and the first differences of each kind as samples. */
+public class StoreReconciliationReport {
+
+  public long matched;
+
+  public long missing;
+
+  public long extra;
+
+  public long quantityMismatched;
+
+  public long propagated;
+
+  public final List<String> missingSample = new ArrayList<>();
+
+  public final List<String> extraSample = new ArrayList<>();
+
+  public final List<String> quantityMismatchedSample = new ArrayList<>();
+
+  private final int sampleSize;
+
+  StoreReconciliationReport(int sampleSize) {
+    this.sampleSize = sampleSize;
+  }
+
+  void sample(List<String> samples, String difference) {
+    if (samples.size() < sampleSize) {
+      samples.add(difference);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.fulfilment.application.monolith.stores.reconciliation;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+
+@Path("admin/store-reconciliation")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+public class StoreReconciliationResource {
+
+  @Inject StoreReconciliationService storeReconciliationService;
+
+  @POST
+  public StoreReconciliationReport reconcile() {
+    try {
+      return storeReconciliationService.reconcile();
+    } catch (IllegalStateException ex) {
+      // not configured, or a snapshot that is malformed or not sorted by name
+      throw new WebApplicationException(ex.getMessage(), 422);
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package com.fulfilment.application.monolith.stores.reconciliation;
+
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.outbox.StoreOutboxEvent;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+/**
+ * Finds drift between the Store table and a legacy snapshot ({@code store.reconciliation.snapshot-path}).
+ *
+ * <p>Both sides are streamed sorted by name, the table through a forward-only cursor ordered with
+ * {@code collate "C"}, and diffed in one merge pass, so memory does not depend on the number of
+ * stores. Stores missing from the legacy system or with a different quantity are queued in the
+ * store outbox and reach the legacy system like any other store change. Stores only the legacy
+ * system knows are reported but not touched.
+ *
+ * <p>The outbox events are written in the transaction of the diff, so a snapshot that turns out
+ * to be malformed or unsorted halfway through rolls back everything queued before it; either the
+ * whole difference is propagated or none of it.
+ */
+@ApplicationScoped
+public class StoreReconciliationService {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreReconciliationService.class.getName());
+
+  private final EntityManager entityManager;
+
+  private final Optional<String> snapshotPath;
+
+  private final int sampleSize;
+
+  private final int batchSize;
+
+  private final Duration transactionTimeout;
+
+  public StoreReconciliationService(
+      EntityManager entityManager,
+      @ConfigProperty(name = "store.reconciliation.snapshot-path") Optional<String> snapshotPath,
+      @ConfigProperty(name = "store.reconciliation.sample-size", defaultValue = "100") int sampleSize,
+      @ConfigProperty(name = "store.reconciliation.batch-size", defaultValue = "500") int batchSize,
+      @ConfigProperty(name = "store.reconciliation.transaction-timeout", defaultValue = "1h") Duration transactionTimeout) {
+    this.entityManager = entityManager;
+    this.snapshotPath = snapshotPath;
+    this.sampleSize = sampleSize;
+    this.batchSize = batchSize;
+    this.transactionTimeout = transactionTimeout;
+  }
+
+  public StoreReconciliationReport reconcile() {
+    Path snapshot = snapshotPath.map(Path::of).orElseThrow(() ->
+        new IllegalStateException("store.reconciliation.snapshot-path is not configured"));
+
+    StoreReconciliationReport report = new StoreReconciliationReport(sampleSize);
+    OutboxBatch outbox = new OutboxBatch();
+
+    QuarkusTransaction.requiringNew()
+        .timeout((int) transactionTimeout.toSeconds())
+        .run(() -> {
+          try (LegacySnapshotReader legacy = new LegacySnapshotReader(snapshot);
+              ScrollableResults<Object[]> rows = entityManager.unwrap(Session.class)
+                  .createNativeQuery("select id, name, quantityProductsInStock from store "
+                      + "where name is not null order by name collate \"C\"", Object[].class)
+                  .setReadOnly(true)
+                  .setFetchSize(batchSize)
+                  .scroll(ScrollMode.FORWARD_ONLY)) {
+
+            SortedMergeDiff.diff(new StoreRows(rows), legacy, new SortedMergeDiff.Differences() {
+              @Override
+              public void missing(StoreRow ours) {
+                report.missing++;
+                report.sample(report.missingSample, ours.toString());
+                outbox.add(StoreOutboxEvent.Type.CREATED, ours);
+              }
+
+              @Override
+              public void extra(StoreRow legacyRow) {
+                report.extra++;
+                report.sample(report.extraSample, legacyRow.toString());
+              }
+
+              @Override
+              public void quantityMismatch(StoreRow ours, StoreRow legacyRow) {
+                report.quantityMismatched++;
+                report.sample(report.quantityMismatchedSample,
+                    ours.name + ": " + ours.quantityProductsInStock + " (legacy " + legacyRow.quantityProductsInStock + ")");
+                outbox.add(StoreOutboxEvent.Type.UPDATED, ours);
+              }
+
+              @Override
+              public void matched(StoreRow ours) {
+                report.matched++;
+              }
+            });
+            outbox.flush();
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        });
+    report.propagated = outbox.queued;
+
+    LOGGER.infof("Store reconciliation: %d matched, %d missing, %d extra, %d quantity mismatches",
+        report.matched, report.missing, report.extra, report.quantityMismatched);
+    return report;
+  }
+
+  /**
+   * Queues differences in the outbox within the current transaction, flushing and clearing the
+   * session every batchSize events so that it does not grow with the number of differences.
+   */
+  private final class OutboxBatch {
+
+    private final List<StoreOutboxEvent> events = new ArrayList<>(batchSize);
+
+    private long queued;
+
+    void add(StoreOutboxEvent.Type type, StoreRow row) {
+      Store store = new Store(row.name);
+      store.id = row.id;
+      store.quantityProductsInStock = row.quantityProductsInStock;
+      events.add(StoreOutboxEvent.of(type, store));
+      if (events.size() == batchSize) {
+        flush();
+      }
+    }
+
+    void flush() {
+      if (events.isEmpty()) {
+        return;
+      }
+      events.forEach(entityManager::persist);
+      entityManager.flush();
+      entityManager.clear();
+      queued += events.size();
+      events.clear();
+    }
+  }
+
+  private static final class StoreRows implements Iterator<StoreRow> {
+
+    private final ScrollableResults<Object[]> rows;
+
+    private Boolean hasNext;
+
+    StoreRows(ScrollableResults<Object[]> rows) {
+      this.rows = rows;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (hasNext == null) {
+        hasNext = rows.next();
+      }
+      return hasNext;
+    }
+
+    @Override
+    public StoreRow next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      hasNext = null;
+      Object[] row = rows.get();
+      return new StoreRow(((Number) row[0]).longValue(), (String) row[1], ((Number) row[2]).intValue());
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.fulfilment.application.monolith.stores.reconciliation;
+
+/** Store as compared by the reconciliation: name and stock, plus our id when it comes from the table. */
+public final class StoreRow {
+
+  public final Long id;
+
+  public final String name;
+
+  public final int quantityProductsInStock;
+
+  public StoreRow(Long id, String name, int quantityProductsInStock) {
+    this.id = id;
+    this.name = name;
+    this.quantityProductsInStock = quantityProductsInStock;
+  }
+
+  @Override
+  public String toString() {
+    return name + "=" + quantityProductsInStock;
+  }
+}
@@ -0,0 +1,29 @@
+package com.fulfilment.application.monolith.stores.resync;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Spaces out permits evenly at a fixed rate; a rate of zero or less means unlimited. */
+final class RateLimiter {
+
+  private final long intervalNanos;
+
+  private final AtomicLong nextPermitNanos = new AtomicLong(System.nanoTime());
+
+  RateLimiter(double permitsPerSecond) {
+    this.intervalNanos = permitsPerSecond <= 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+  }
+
+  void acquire() throws InterruptedException {
+    if (intervalNanos == 0) {
+      return;
+    }
+    long now = System.nanoTime();
+    // reserve the next slot; an idle limiter does not bank permits for a burst
+    long slot = nextPermitNanos.getAndUpdate(next -> Math.max(next, now) + intervalNanos);
+    long wait = Math.max(slot, now) - now;
+    if (wait > 0) {
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+}
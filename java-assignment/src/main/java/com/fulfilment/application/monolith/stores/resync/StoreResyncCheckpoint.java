@@ -0,0 +1,43 @@
+package com.fulfilment.application.monolith.stores.resync;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import java.time.LocalDateTime;
+
+/** Durable progress of the store resync, one row per job. Stores are resynced in id order. */
+@Entity
+public class StoreResyncCheckpoint extends PanacheEntityBase {
+
+  public enum Status {
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+  }
+
+  @Id
+  @Column(length = 40)
+  public String job;
+
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  public Status status;
+
+  // every store with an id up to and including this one has been propagated, or queued in the
+  // store outbox when that failed
+  public long lastStoreId;
+
+  public long processed;
+
+  public long failed;
+
+  public LocalDateTime startedAt;
+
+  public LocalDateTime updatedAt;
+
+  public StoreResyncCheckpoint() {}
+}
@@ -0,0 +1,31 @@
+package com.fulfilment.application.monolith.stores.resync;
+
+import java.time.LocalDateTime;
+
+public class StoreResyncProgress {
+
+  public final StoreResyncCheckpoint.Status status;
+
+  public final long lastStoreId;
+
+  public final long processed;
+
+  public final long failed;
+
+  public final long total;
+
+  public final LocalDateTime startedAt;
+
+  public final LocalDateTime updatedAt;
+
+  public StoreResyncProgress(StoreResyncCheckpoint.Status status, long lastStoreId, long processed,
+      long failed, long total, LocalDateTime startedAt, LocalDateTime updatedAt) {
+    this.status = status;
+    this.lastStoreId = lastStoreId;
+    this.processed = processed;
+    this.failed = failed;
+    this.total = total;
+    this.startedAt = startedAt;
+    this.updatedAt = updatedAt;
+  }
+}
@@ -0,0 +1,55 @@
+package com.fulfilment.application.monolith.stores.resync;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+
+@Path("admin/store-resync")
+@ApplicationScoped
+@Produces("application/json")
+@Consumes("application/json")
+public class StoreResyncResource {
+
+  private static final Logger LOGGER = Logger.getLogger(StoreResyncResource.class.getName());
+
+  @Inject StoreResyncService storeResyncService;
+
+  @POST
+  public Response start(@QueryParam("resume") @DefaultValue("true") boolean resume) {
+    try {
+      StoreResyncProgress progress = storeResyncService.start(resume);
+      LOGGER.infof("Store resync started after store id %d", progress.lastStoreId);
+      return Response.status(202).entity(progress).build();
+    } catch (IllegalStateException ex) {
+      throw new WebApplicationException(ex.getMessage(), 409);
+    }
+  }
+
+  @GET
+  public StoreResyncProgress progress() {
+    StoreResyncProgress progress = storeResyncService.progress();
+    if (progress == null) {
+      throw new WebApplicationException("No store resync has been run yet.", 404);
+    }
+    return progress;
+  }
+
+  @DELETE
+  public StoreResyncProgress cancel() {
+    StoreResyncProgress progress = storeResyncService.cancel();
+    if (progress == null) {
+      throw new WebApplicationException("No store resync has been run yet.", 404);
+    }
+    return progress;
+  }
+}
@@ -0,0 +1,255 @@
+package com.fulfilment.application.monolith.stores.resync;
+
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.outbox.LegacyStorePropagator;
+import com.fulfilment.application.monolith.stores.outbox.StoreOutboxEvent;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.faulttolerance.exceptions.BulkheadException;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.hibernate.jpa.HibernateHints;
+import org.jboss.logging.Logger;
+
+/**
+ * Pushes every store to the legacy system again, e.g. after a legacy outage.
+ *
+ * <p>Stores are read in id order, one chunk of {@code store.resync.chunk-size} at a time in a
+ * short read-only transaction keyed on the last id seen, and handed to
+ * {@code store.resync.parallelism} workers, at most {@code store.resync.rate-limit} stores per
+ * second. Only one chunk is held in memory at a time and no transaction stays open while the
+ * legacy system is called, so heap use and transaction length do not grow with the number of
+ * stores.
+ *
+ * <p>The checkpoint is committed after every chunk; a resumed run continues after it. Stores of
+ * the chunk that could not be propagated are written to the store outbox in that same
+ * transaction, so the checkpoint never moves past a store that is not either delivered or queued
+ * for {@link com.fulfilment.application.monolith.stores.outbox.StoreOutboxDispatcher} to retry.
+ */
+@ApplicationScoped
+public class StoreResyncService {
+
+  static final String JOB = "store-resync";
+
+  private static final Logger LOGGER = Logger.getLogger(StoreResyncService.class.getName());
+
+  private static final long REJECTED_BACKOFF_MILLIS = 200;
+
+  private final LegacyStorePropagator legacyStorePropagator;
+
+  private final int parallelism;
+
+  private final int chunkSize;
+
+  private final double rateLimit;
+
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  private final ExecutorService driver = Executors.newSingleThreadExecutor(daemonThreads("store-resync"));
+
+  private volatile boolean cancelRequested;
+
+  private volatile StoreResyncProgress progress;
+
+  public StoreResyncService(
+      LegacyStorePropagator legacyStorePropagator,
+      @ConfigProperty(name = "store.resync.parallelism", defaultValue = "4") int parallelism,
+      @ConfigProperty(name = "store.resync.chunk-size", defaultValue = "500") int chunkSize,
+      @ConfigProperty(name = "store.resync.rate-limit", defaultValue = "200") double rateLimit) {
+    this.legacyStorePropagator = legacyStorePropagator;
+    this.parallelism = parallelism;
+    this.chunkSize = chunkSize;
+    this.rateLimit = rateLimit;
+  }
+
+  /**
+   * Starts a resync in the background, continuing after the last checkpoint when {@code resume}
+   * is set and the previous run did not complete. Fails when a resync is already running.
+   */
+  public StoreResyncProgress start(boolean resume) {
+    if (!running.compareAndSet(false, true)) {
+      throw new IllegalStateException("A store resync is already running");
+    }
+    try {
+      cancelRequested = false;
+      StoreResyncCheckpoint checkpoint = QuarkusTransaction.requiringNew().call(() -> begin(resume));
+      long remaining = QuarkusTransaction.requiringNew().call(() -> Store.count("id > ?1", checkpoint.lastStoreId));
+      progress = toProgress(checkpoint, checkpoint.processed + remaining);
+      driver.execute(this::run);
+      return progress;
+    } catch (RuntimeException ex) {
+      running.set(false);
+      throw ex;
+    }
+  }
+
+  public StoreResyncProgress cancel() {
+    cancelRequested = true;
+    return progress();
+  }
+
+  public StoreResyncProgress progress() {
+    if (running.get()) {
+      return progress;
+    }
+    StoreResyncCheckpoint checkpoint = QuarkusTransaction.requiringNew().call(() -> StoreResyncCheckpoint.findById(JOB));
+    if (checkpoint == null) {
+      return null;
+    }
+    return toProgress(checkpoint, progress == null ? checkpoint.processed : progress.total);
+  }
+
+  private StoreResyncCheckpoint begin(boolean resume) {
+    StoreResyncCheckpoint checkpoint = StoreResyncCheckpoint.findById(JOB);
+    if (checkpoint == null) {
+      checkpoint = new StoreResyncCheckpoint();
+      checkpoint.job = JOB;
+      checkpoint.persist();
+    }
+    if (!resume || checkpoint.status == StoreResyncCheckpoint.Status.COMPLETED) {
+      checkpoint.lastStoreId = 0;
+      checkpoint.processed = 0;
+      checkpoint.failed = 0;
+      checkpoint.startedAt = LocalDateTime.now();
+    }
+    checkpoint.status = StoreResyncCheckpoint.Status.RUNNING;
+    checkpoint.updatedAt = LocalDateTime.now();
+    return checkpoint;
+  }
+
+  private void run() {
+    ExecutorService workers = Executors.newFixedThreadPool(parallelism, daemonThreads("store-resync-worker"));
+    RateLimiter rateLimiter = new RateLimiter(rateLimit);
+    StoreResyncCheckpoint.Status outcome = StoreResyncCheckpoint.Status.FAILED;
+    try {
+      List<Store> chunk;
+      do {
+        chunk = QuarkusTransaction.requiringNew().call(() -> nextChunk(progress.lastStoreId));
+        if (!chunk.isEmpty()) {
+          propagate(chunk, workers, rateLimiter);
+        }
+      } while (chunk.size() == chunkSize && !cancelRequested);
+      outcome = cancelRequested ? StoreResyncCheckpoint.Status.CANCELLED : StoreResyncCheckpoint.Status.COMPLETED;
+    } catch (RuntimeException ex) {
+      LOGGER.error("Store resync failed, it can be resumed from its last checkpoint", ex);
+    } finally {
+      workers.shutdownNow();
+      StoreResyncCheckpoint.Status status = outcome;
+      QuarkusTransaction.requiringNew().run(() -> checkpoint(status, progress.lastStoreId, List.of(), 0));
+      running.set(false);
+      LOGGER.infof("Store resync %s: %d stores processed, %d failed",
+          status, progress.processed, progress.failed);
+    }
+  }
+
+  private List<Store> nextChunk(long afterStoreId) {
+    List<Store> rows = Store.<Store>find("id > ?1", Sort.by("id"), afterStoreId)
+        .withHint(HibernateHints.HINT_READ_ONLY, true)
+        .range(0, chunkSize - 1)
+        .list();
+    List<Store> chunk = new ArrayList<>(rows.size());
+    for (Store row : rows) {
+      chunk.add(copyOf(row));
+    }
+    return chunk;
+  }
+
+  private void propagate(List<Store> chunk, ExecutorService workers, RateLimiter rateLimiter) {
+    List<Future<Boolean>> results = new ArrayList<>(chunk.size());
+    for (Store store : chunk) {
+      results.add(workers.submit(() -> propagate(store, rateLimiter)));
+    }
+
+    List<Store> failed = new ArrayList<>();
+    for (int i = 0; i < results.size(); i++) {
+      try {
+        if (!results.get(i).get()) {
+          failed.add(chunk.get(i));
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Store resync interrupted", ex);
+      } catch (ExecutionException ex) {
+        failed.add(chunk.get(i));
+      }
+    }
+
+    if (cancelRequested) {
+      // stores skipped by the cancellation are not failures, a resumed run repeats this chunk
+      return;
+    }
+    long lastStoreId = chunk.get(chunk.size() - 1).id;
+    long processed = chunk.size();
+    QuarkusTransaction.requiringNew().run(() ->
+        checkpoint(StoreResyncCheckpoint.Status.RUNNING, lastStoreId, failed, processed));
+  }
+
+  private boolean propagate(Store store, RateLimiter rateLimiter) throws InterruptedException {
+    while (!cancelRequested) {
+      rateLimiter.acquire();
+      try {
+        legacyStorePropagator.propagate(StoreOutboxEvent.Type.UPDATED, store);
+        return true;
+      } catch (CircuitBreakerOpenException | BulkheadException ex) {
+        // the legacy system is shedding load, wait instead of counting the store as failed
+        Thread.sleep(REJECTED_BACKOFF_MILLIS);
+      } catch (RuntimeException ex) {
+        LOGGER.warnf(ex, "Store resync could not propagate store %d", store.id);
+        return false;
+      }
+    }
+    return false;
+  }
+
+  private void checkpoint(StoreResyncCheckpoint.Status status, long lastStoreId, List<Store> failed, long processed) {
+    for (Store store : failed) {
+      StoreOutboxEvent.of(StoreOutboxEvent.Type.UPDATED, store).persist();
+    }
+    StoreResyncCheckpoint checkpoint = StoreResyncCheckpoint.findById(JOB);
+    checkpoint.status = status;
+    checkpoint.lastStoreId = lastStoreId;
+    checkpoint.processed += processed;
+    checkpoint.failed += failed.size();
+    checkpoint.updatedAt = LocalDateTime.now();
+    progress = toProgress(checkpoint, progress.total);
+  }
+
+  void onStop(@Observes ShutdownEvent event) {
+    cancelRequested = true;
+    driver.shutdown();
+  }
+
+  private static Store copyOf(Store row) {
+    Store store = new Store(row.name);
+    store.id = row.id;
+    store.quantityProductsInStock = row.quantityProductsInStock;
+    return store;
+  }
+
+  private static StoreResyncProgress toProgress(StoreResyncCheckpoint checkpoint, long total) {
+    return new StoreResyncProgress(checkpoint.status, checkpoint.lastStoreId, checkpoint.processed,
+        checkpoint.failed, total, checkpoint.startedAt, checkpoint.updatedAt);
+  }
+
+  private static ThreadFactory daemonThreads(String name) {
+    AtomicInteger counter = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
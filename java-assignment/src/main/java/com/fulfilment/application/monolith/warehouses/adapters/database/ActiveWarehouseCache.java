@@ -0,0 +1,67 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of the active warehouse version per business unit code.
+ *
+ * <p>Backed by Caffeine (W-TinyLFU eviction) with a time-to-live, and published to Micrometer
+ * as the {@code active-warehouses} cache (hits, misses, evictions and size). Callers always get
+ * their own copy because the use cases mutate the warehouses they read.
+ */
+@ApplicationScoped
+public class ActiveWarehouseCache {
+
+  private final Cache<String, Warehouse> cache;
+
+  public ActiveWarehouseCache(
+          @ConfigProperty(name = "warehouse.cache.maximum-size", defaultValue = "10000") long maximumSize,
+          @ConfigProperty(name = "warehouse.cache.expire-after-write", defaultValue = "5m") Duration expireAfterWrite,
+          MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "active-warehouses");
+  }
+
+  public Warehouse get(String businessUnitCode, Function<String, Warehouse> loader) {
+    if (businessUnitCode == null) {
+      return loader.apply(null);
+    }
+    // absent warehouses are not cached, the loader returns null for them
+    Warehouse cached = cache.get(businessUnitCode, code -> copyOf(loader.apply(code)));
+    return copyOf(cached);
+  }
+
+  public void invalidate(String businessUnitCode) {
+    if (businessUnitCode != null) {
+      cache.invalidate(businessUnitCode);
+    }
+  }
+
+  private static Warehouse copyOf(Warehouse warehouse) {
+    if (warehouse == null) {
+      return null;
+    }
+    var copy = new Warehouse();
+    copy.businessUnitCode = warehouse.businessUnitCode;
+    copy.location = warehouse.location;
+    copy.capacity = warehouse.capacity;
+    copy.stock = warehouse.stock;
+    copy.createdAt = warehouse.createdAt;
+    copy.archivedAt = warehouse.archivedAt;
+    copy.version = warehouse.version;
+    return copy;
+  }
+}
@@ -0,0 +1,80 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import jakarta.annotation.Priority;
+import jakarta.decorator.Decorator;
+import jakarta.decorator.Delegate;
+import jakarta.inject.Inject;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Read-through cache in front of {@link WarehouseStore#findByBusinessUnitCode}.
+ *
+ * <p>Writes go straight to the delegate, which invalidates {@link ActiveWarehouseCache} once
+ * its transaction has committed.
+ */
+@Decorator
+@Priority(1)
+public class CachingWarehouseStore implements WarehouseStore {
+
+  @Inject
+  @Delegate
+  WarehouseStore delegate;
+
+  @Inject
+  ActiveWarehouseCache cache;
+
+  @Override
+  public Warehouse findByBusinessUnitCode(String buCode) {
+    return cache.get(buCode, delegate::findByBusinessUnitCode);
+  }
+
+  @Override
+  public Set<String> findActiveBusinessUnitCodes(Collection<String> buCodes) {
+    return delegate.findActiveBusinessUnitCodes(buCodes);
+  }
+
+  @Override
+  public List<Warehouse> getAll() {
+    return delegate.getAll();
+  }
+
+  @Override
+  public List<Warehouse> findActivePage(String afterBusinessUnitCode, int limit) {
+    return delegate.findActivePage(afterBusinessUnitCode, limit);
+  }
+
+  @Override
+  public void create(Warehouse warehouse) {
+    delegate.create(warehouse);
+  }
+
+  @Override
+  public void createAll(List<Warehouse> warehouses) {
+    delegate.createAll(warehouses);
+  }
+
+  @Override
+  public void update(Warehouse warehouse) {
+    delegate.update(warehouse);
+  }
+
+  @Override
+  public void replace(Warehouse archived, Warehouse replacement) {
+    delegate.replace(archived, replacement);
+  }
+
+  @Override
+  public boolean adjustStock(String buCode, int delta) {
+    return delegate.adjustStock(buCode, delta);
+  }
+
+  @Override
+  public void remove(Warehouse warehouse) {
+    delegate.remove(warehouse);
+  }
+}
@@ -6,9 +6,12 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 
 @Entity
+// at most one active version per business unit: see the partial unique index
+// warehouse_active_bu_code_uidx in db/warehouse-schema.sql
 @Table(name = "warehouse")
 @Cacheable
 public class DbWarehouse {
@@ -27,6 +30,8 @@ public class DbWarehouse {
 
   public LocalDateTime archivedAt;
 
+  @Version public Long version;
+
   public DbWarehouse() {}
 
   public Warehouse toWarehouse() {
@@ -37,6 +42,7 @@ public class DbWarehouse {
     warehouse.stock = this.stock;
     warehouse.createdAt = this.createdAt;
     warehouse.archivedAt = this.archivedAt;
+    warehouse.version = this.version;
     return warehouse;
   }
 
@@ -46,8 +52,8 @@ public class DbWarehouse {
     entity.location = warehouse.getLocation();
     entity.capacity = warehouse.getCapacity();
     entity.stock = warehouse.getStock();
-    warehouse.createdAt = warehouse.getCreatedAt();
-    warehouse.archivedAt = warehouse.getArchivedAt();
+    entity.createdAt = warehouse.getCreatedAt();
+    entity.archivedAt = warehouse.getArchivedAt();
     return entity;
   }
 
@@ -0,0 +1,302 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.persistence.EntityManager;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.Session;
+import org.jboss.logging.Logger;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind mode for stock adjustments ({@code warehouse.stock.write-behind.enabled}).
+ *
+ * <p>Each delta is checked on arrival against the projected stock of its warehouse: the stored
+ * stock plus every delta accepted since, flushed or not. A delta that would take the projection
+ * out of {@code [0, capacity]} is rejected right away, so a caller that was told its adjustment
+ * was accepted never loses it at flush time. Accepted deltas are summed per business unit code and
+ * flushed as one JDBC batch of conditional updates every {@code flush-interval} or as soon as
+ * {@code flush-size} deltas are pending.
+ *
+ * <p>The projection of a warehouse is dropped after its row changes through another path (see
+ * {@link #forget}) and is read again from the table once its pending deltas are written. The
+ * conditional update still guards {@code [0, capacity]}; a delta it turns down is logged as an
+ * error and counted as dropped.
+ */
+@ApplicationScoped
+public class StockWriteBehindBuffer {
+
+  private static final Logger LOGGER = Logger.getLogger(StockWriteBehindBuffer.class.getName());
+
+  private static final String FLUSH_SQL = "UPDATE warehouse SET stock = stock + ?, version = version + 1 "
+          + "WHERE businessUnitCode = ? AND archivedAt IS NULL AND stock + ? BETWEEN 0 AND capacity";
+
+  private final boolean enabled;
+
+  private final int flushSize;
+
+  private final EntityManager entityManager;
+
+  private final ActiveWarehouseCache warehouseCache;
+
+  // every read and write of a PendingStock happens inside a compute of this map, which makes it
+  // atomic per business unit code
+  private final ConcurrentHashMap<String, PendingStock> pendingStock = new ConcurrentHashMap<>();
+
+  private final AtomicLong pendingCount = new AtomicLong();
+
+  private final AtomicLong oldestPendingNanos = new AtomicLong();
+
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "stock-write-behind-flush");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final Timer flushLag;
+
+  private final DistributionSummary batchSize;
+
+  private final Counter acceptedDeltas;
+
+  private final Counter rejectedDeltas;
+
+  private final Counter droppedDeltas;
+
+  public StockWriteBehindBuffer(
+          @ConfigProperty(name = "warehouse.stock.write-behind.enabled", defaultValue = "false") boolean enabled,
+          @ConfigProperty(name = "warehouse.stock.write-behind.flush-size", defaultValue = "500") int flushSize,
+          EntityManager entityManager,
+          ActiveWarehouseCache warehouseCache,
+          MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.flushSize = flushSize;
+    this.entityManager = entityManager;
+    this.warehouseCache = warehouseCache;
+    this.flushLag = Timer.builder("warehouse.stock.write-behind.flush.lag")
+            .description("Time between the oldest pending delta and the commit of its flush")
+            .register(meterRegistry);
+    this.batchSize = DistributionSummary.builder("warehouse.stock.write-behind.batch.size")
+            .description("Warehouses updated per flush")
+            .register(meterRegistry);
+    this.acceptedDeltas = meterRegistry.counter("warehouse.stock.write-behind.deltas", "result", "accepted");
+    this.rejectedDeltas = meterRegistry.counter("warehouse.stock.write-behind.deltas", "result", "rejected");
+    this.droppedDeltas = meterRegistry.counter("warehouse.stock.write-behind.deltas", "result", "dropped");
+    meterRegistry.gauge("warehouse.stock.write-behind.pending", pendingCount);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Accepts {@code delta} if it keeps the projected stock within {@code [0, capacity]}.
+   * {@code storedStock} is the stock read from the table; it only seeds the projection of a
+   * warehouse that has none yet.
+   */
+  public boolean enqueue(String businessUnitCode, int delta, int storedStock, int capacity) {
+    boolean[] accepted = new boolean[1];
+    pendingStock.compute(businessUnitCode, (code, stock) -> {
+      PendingStock current = stock != null ? stock : new PendingStock(storedStock);
+      long projected = current.projected + delta;
+      if (projected >= 0 && projected <= capacity) {
+        current.projected = projected;
+        current.pending += delta;
+        accepted[0] = true;
+      }
+      return current;
+    });
+    if (!accepted[0]) {
+      rejectedDeltas.increment();
+      return false;
+    }
+
+    oldestPendingNanos.compareAndSet(0, System.nanoTime());
+    acceptedDeltas.increment();
+    if (pendingCount.incrementAndGet() >= flushSize) {
+      scheduleFlush();
+    }
+    return true;
+  }
+
+  /**
+   * The row of {@code businessUnitCode} changed outside of this buffer (created, updated,
+   * replaced or removed): its projection is read again once the pending deltas are written.
+   */
+  public void forget(String businessUnitCode) {
+    pendingStock.computeIfPresent(businessUnitCode, (code, stock) -> {
+      stock.stale = true;
+      return stock;
+    });
+  }
+
+  @Scheduled(every = "${warehouse.stock.write-behind.flush-interval:1s}",
+          concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+  void scheduledFlush() {
+    if (enabled) {
+      flush();
+    }
+  }
+
+  // at most one flush queued on the executor at a time, however many enqueues pass flush-size
+  private void scheduleFlush() {
+    if (flushScheduled.compareAndSet(false, true)) {
+      flushExecutor.execute(() -> {
+        try {
+          flush();
+        } finally {
+          flushScheduled.set(false);
+        }
+        if (pendingCount.get() >= flushSize) {
+          scheduleFlush();
+        }
+      });
+    }
+  }
+
+  void flush() {
+    if (!flushLock.tryLock()) {
+      // a flush is already running and will pick up these deltas or leave them for the next one
+      return;
+    }
+    try {
+      pendingCount.set(0);
+      long since = oldestPendingNanos.getAndSet(0);
+
+      // taken atomically with enqueue: a delta is either in this batch or still pending
+      Map<String, Long> batch = new LinkedHashMap<>();
+      for (String code : pendingStock.keySet()) {
+        pendingStock.computeIfPresent(code, (key, stock) -> {
+          if (stock.pending != 0) {
+            batch.put(key, stock.pending);
+            stock.pending = 0;
+          }
+          return stock;
+        });
+      }
+      if (batch.isEmpty()) {
+        releaseStaleProjections();
+        return;
+      }
+
+      List<String> rejected;
+      try {
+        rejected = writeBatch(batch);
+      } catch (RuntimeException ex) {
+        LOGGER.error("Stock write-behind flush failed, deltas will be retried", ex);
+        batch.forEach((code, delta) -> pendingStock.computeIfPresent(code, (key, stock) -> {
+          stock.pending += delta;
+          return stock;
+        }));
+        oldestPendingNanos.compareAndSet(0, since);
+        return;
+      }
+
+      // the JDBC batch bypasses Hibernate, so drop what it may have cached for these rows
+      entityManager.getEntityManagerFactory().getCache().evict(DbWarehouse.class);
+      batch.keySet().forEach(warehouseCache::invalidate);
+
+      batchSize.record(batch.size());
+      flushLag.record(System.nanoTime() - since, TimeUnit.NANOSECONDS);
+      if (!rejected.isEmpty()) {
+        // the table disagrees with the projection: take the delta back out of it and read the
+        // stock again once nothing is pending
+        for (String code : rejected) {
+          long delta = batch.get(code);
+          pendingStock.computeIfPresent(code, (key, stock) -> {
+            stock.projected -= delta;
+            stock.stale = true;
+            return stock;
+          });
+          LOGGER.errorf("Dropped stock delta %d of warehouse %s, it no longer fits the stored stock", delta, code);
+        }
+        droppedDeltas.increment(rejected.size());
+      }
+      releaseStaleProjections();
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /** Writes the net deltas in a transaction of its own; returns the codes whose update was turned down. */
+  List<String> writeBatch(Map<String, Long> batch) {
+    return QuarkusTransaction.requiringNew().call(() -> write(batch));
+  }
+
+  // only called by the flush holding flushLock, so no delta of a released projection is in flight
+  private void releaseStaleProjections() {
+    for (String code : pendingStock.keySet()) {
+      pendingStock.computeIfPresent(code, (key, stock) -> stock.stale && stock.pending == 0 ? null : stock);
+    }
+  }
+
+  private List<String> write(Map<String, Long> batch) {
+    List<String> codes = new ArrayList<>(batch.keySet());
+    List<String> rejected = new ArrayList<>();
+
+    entityManager.unwrap(Session.class).doWork(connection -> {
+      try (PreparedStatement statement = connection.prepareStatement(FLUSH_SQL)) {
+        for (String code : codes) {
+          long delta = batch.get(code);
+          statement.setLong(1, delta);
+          statement.setString(2, code);
+          statement.setLong(3, delta);
+          statement.addBatch();
+        }
+        int[] updated = statement.executeBatch();
+        for (int i = 0; i < updated.length; i++) {
+          if (updated[i] == 0) {
+            rejected.add(codes.get(i));
+          }
+        }
+      }
+    });
+    return rejected;
+  }
+
+  void onStop(@Observes ShutdownEvent event) {
+    flushExecutor.shutdown();
+    if (enabled) {
+      flush();
+    }
+  }
+
+  private static final class PendingStock {
+
+    // stored stock plus every accepted delta, written or not
+    long projected;
+
+    // accepted deltas not taken by a flush yet
+    long pending;
+
+    // the row changed elsewhere; released once nothing is pending
+    boolean stale;
+
+    PendingStock(long storedStock) {
+      this.projected = storedStock;
+    }
+  }
+}
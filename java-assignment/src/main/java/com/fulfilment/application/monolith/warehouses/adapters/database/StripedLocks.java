@@ -0,0 +1,45 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed set of binary semaphores addressed by key hash. Keys on different stripes never contend;
+ * the number of stripes is rounded up to a power of two.
+ *
+ * <p>Semaphores rather than {@code ReentrantLock}s because the release happens when the
+ * transaction completes, which is not necessarily on the thread that acquired the stripe.
+ */
+public final class StripedLocks {
+
+  private final Semaphore[] stripes;
+
+  private final int mask;
+
+  public StripedLocks(int stripes) {
+    int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+    this.stripes = new Semaphore[size];
+    for (int i = 0; i < size; i++) {
+      this.stripes[i] = new Semaphore(1);
+    }
+    this.mask = size - 1;
+  }
+
+  public int stripeOf(String key) {
+    int hash = key.hashCode();
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  int size() {
+    return stripes.length;
+  }
+
+  public boolean tryAcquire(int stripe, Duration timeout) throws InterruptedException {
+    return stripes[stripe].tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  public void release(int stripe) {
+    stripes[stripe].release();
+  }
+}
@@ -0,0 +1,143 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseLock;
+import com.fulfilment.application.monolith.warehouses.exceptions.WarehouseConcurrentModificationException;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Per business unit lock held until the surrounding transaction completes.
+ *
+ * <p>{@code warehouse.locking.mode=local} uses in-process {@link StripedLocks}, enough for a single
+ * node. {@code advisory} takes a Postgres transaction-level advisory lock instead, so that every
+ * node of the service serializes on the same business unit code.
+ */
+@ApplicationScoped
+public class TransactionScopedWarehouseLock implements WarehouseLock {
+
+  // first key of the two-key advisory lock, keeps warehouse locks apart from any other user
+  private static final int ADVISORY_NAMESPACE = 0x57480001;
+
+  private static final long MAX_BACKOFF_MILLIS = 50;
+
+  private static final Object HELD_STRIPES = new Object();
+
+  private final boolean advisory;
+
+  private final Duration timeout;
+
+  private final StripedLocks stripes;
+
+  private final EntityManager entityManager;
+
+  private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+  public TransactionScopedWarehouseLock(
+          @ConfigProperty(name = "warehouse.locking.mode", defaultValue = "local") String mode,
+          @ConfigProperty(name = "warehouse.locking.stripes", defaultValue = "64") int stripes,
+          @ConfigProperty(name = "warehouse.locking.timeout", defaultValue = "2s") Duration timeout,
+          EntityManager entityManager,
+          TransactionSynchronizationRegistry transactionSynchronizationRegistry) {
+    if (!"local".equals(mode) && !"advisory".equals(mode)) {
+      throw new IllegalArgumentException("warehouse.locking.mode must be local or advisory, was " + mode);
+    }
+    this.advisory = "advisory".equals(mode);
+    this.timeout = timeout;
+    this.stripes = new StripedLocks(stripes);
+    this.entityManager = entityManager;
+    this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+  }
+
+  @Override
+  public void lock(String businessUnitCode) {
+    if (transactionSynchronizationRegistry.getTransactionKey() == null) {
+      throw new IllegalStateException("Warehouse locks must be taken inside a transaction");
+    }
+    if (advisory) {
+      lockAdvisory(businessUnitCode);
+    } else {
+      lockStripe(businessUnitCode);
+    }
+  }
+
+  private void lockStripe(String businessUnitCode) {
+    int stripe = stripes.stripeOf(businessUnitCode);
+    Set<Integer> held = heldStripes();
+    if (held.contains(stripe)) {
+      return;
+    }
+
+    boolean acquired;
+    try {
+      acquired = stripes.tryAcquire(stripe, timeout);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      throw busy(businessUnitCode);
+    }
+    held.add(stripe);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<Integer> heldStripes() {
+    Set<Integer> held = (Set<Integer>) transactionSynchronizationRegistry.getResource(HELD_STRIPES);
+    if (held != null) {
+      return held;
+    }
+    Set<Integer> created = new HashSet<>();
+    transactionSynchronizationRegistry.putResource(HELD_STRIPES, created);
+    transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+      @Override
+      public void beforeCompletion() {
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        // committed or rolled back, the stripes are released either way
+        created.forEach(stripes::release);
+      }
+    });
+    return created;
+  }
+
+  private void lockAdvisory(String businessUnitCode) {
+    // pg_try_advisory_xact_lock never blocks the connection; back off and retry until the
+    // timeout so that a conflicting request waits a little but is rejected quickly
+    long deadline = System.nanoTime() + timeout.toNanos();
+    long backoff = 1;
+    while (!tryAdvisoryLock(businessUnitCode)) {
+      if (System.nanoTime() + backoff * 1_000_000 > deadline) {
+        throw busy(businessUnitCode);
+      }
+      try {
+        Thread.sleep(backoff);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw busy(businessUnitCode);
+      }
+      backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+    }
+  }
+
+  private boolean tryAdvisoryLock(String businessUnitCode) {
+    return (Boolean) entityManager
+            .createNativeQuery("select pg_try_advisory_xact_lock(?1, hashtext(?2))")
+            .setParameter(1, ADVISORY_NAMESPACE)
+            .setParameter(2, businessUnitCode)
+            .getSingleResult();
+  }
+
+  private static WarehouseConcurrentModificationException busy(String businessUnitCode) {
+    return new WarehouseConcurrentModificationException(
+            "Warehouse " + businessUnitCode + " is being modified by another request");
+  }
+}
@@ -0,0 +1,49 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory count and summed capacity of the active warehouses per location.
+ *
+ * <p>Seeded from the database at startup by {@link WarehouseRepository} and kept up to date by
+ * its write methods once their transaction commits, so admission checks need no query.
+ */
+@ApplicationScoped
+public class WarehouseCapacityLedger {
+
+  private final ConcurrentHashMap<String, LocationOccupancy> occupancyByLocation = new ConcurrentHashMap<>();
+
+  public LocationOccupancy occupancyOf(String location) {
+    if (location == null) {
+      return LocationOccupancy.EMPTY;
+    }
+    return occupancyByLocation.getOrDefault(location, LocationOccupancy.EMPTY);
+  }
+
+  public void register(String location, int capacity) {
+    if (location == null) {
+      return;
+    }
+    occupancyByLocation.merge(location, LocationOccupancy.EMPTY.plus(capacity),
+            (current, added) -> current.plus(capacity));
+  }
+
+  public void release(String location, int capacity) {
+    if (location == null) {
+      return;
+    }
+    occupancyByLocation.computeIfPresent(location, (key, current) -> {
+      LocationOccupancy remaining = current.minus(capacity);
+      return remaining.warehouses == 0 ? null : remaining;
+    });
+  }
+
+  void reset(Map<String, LocationOccupancy> occupancy) {
+    occupancyByLocation.clear();
+    occupancyByLocation.putAll(occupancy);
+  }
+}
@@ -1,20 +1,65 @@
 package com.fulfilment.application.monolith.warehouses.adapters.database;
 
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.exceptions.WarehouseConcurrentModificationException;
+import com.fulfilment.application.monolith.warehouses.exceptions.WarehouseNotFoundException;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.NotFoundException;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @ApplicationScoped
 public class WarehouseRepository implements WarehouseStore, PanacheRepository<DbWarehouse> {
 
+  @Inject
+  WarehouseCapacityLedger capacityLedger;
+
+  @Inject
+  ActiveWarehouseCache warehouseCache;
+
+  @Inject
+  StockWriteBehindBuffer stockBuffer;
+
+  @Inject
+  TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
   @Override
   public List<Warehouse> getAll() {
-    return this.listAll().stream().filter(dbWarehouse -> dbWarehouse.archivedAt == null).map(DbWarehouse::toWarehouse).toList();
+    return list("archivedAt is null", Sort.by("businessUnitCode"))
+            .stream()
+            .map(DbWarehouse::toWarehouse)
+            .toList();
+  }
+
+  @Override
+  public List<Warehouse> findActivePage(String afterBusinessUnitCode, int limit) {
+    // keyset pagination: seek past the last business unit code instead of using an offset
+    PanacheQuery<DbWarehouse> query = afterBusinessUnitCode == null
+            ? find("archivedAt is null", Sort.by("businessUnitCode"))
+            : find("archivedAt is null and businessUnitCode > ?1", Sort.by("businessUnitCode"), afterBusinessUnitCode);
+
+    return query.range(0, limit - 1)
+            .stream()
+            .map(DbWarehouse::toWarehouse)
+            .toList();
   }
 
   @Override
@@ -22,33 +67,193 @@ public class WarehouseRepository implements WarehouseStore, PanacheRepository<Db
   public void create(Warehouse warehouse) {
     DbWarehouse entity = DbWarehouse.from(warehouse);
     persist(entity);
+
+    if (entity.archivedAt == null) {
+      afterCommit(() -> capacityLedger.register(entity.location, capacityOf(entity.capacity)));
+    }
+    afterCommit(() -> {
+      warehouseCache.invalidate(entity.businessUnitCode);
+      stockBuffer.forget(entity.businessUnitCode);
+    });
+  }
+
+  @Override
+  @Transactional
+  public void createAll(List<Warehouse> warehouses) {
+    // inserts are grouped into JDBC batches of quarkus.hibernate-orm.jdbc.statement-batch-size
+    List<DbWarehouse> entities = warehouses.stream().map(DbWarehouse::from).toList();
+    persist(entities);
+
+    afterCommit(() -> entities.forEach(entity -> {
+      if (entity.archivedAt == null) {
+        capacityLedger.register(entity.location, capacityOf(entity.capacity));
+      }
+      warehouseCache.invalidate(entity.businessUnitCode);
+      stockBuffer.forget(entity.businessUnitCode);
+    }));
   }
 
   @Override
   @Transactional
   public void update(Warehouse warehouse) {
-    DbWarehouse existing = find("businessUnitCode", warehouse.getBusinessUnitCode()).firstResult();
+    DbWarehouse existing = findActive(warehouse.getBusinessUnitCode());
     if (existing == null) {
       throw new NotFoundException();
     }
+    // the caller read an older version; Hibernate re-checks the version when flushing
+    if (warehouse.getVersion() != null && !warehouse.getVersion().equals(existing.version)) {
+      throw concurrentModification(warehouse.getBusinessUnitCode());
+    }
+    boolean wasActive = existing.archivedAt == null;
+    String previousLocation = existing.location;
+    int previousCapacity = capacityOf(existing.capacity);
+
     // Update fields
     existing.updateFrom(warehouse);
     // No need to call persist() — entity is managed
+
+    boolean isActive = existing.archivedAt == null;
+    String location = existing.location;
+    int capacity = capacityOf(existing.capacity);
+    afterCommit(() -> {
+      if (wasActive) {
+        capacityLedger.release(previousLocation, previousCapacity);
+      }
+      if (isActive) {
+        capacityLedger.register(location, capacity);
+      }
+      warehouseCache.invalidate(warehouse.getBusinessUnitCode());
+      stockBuffer.forget(warehouse.getBusinessUnitCode());
+    });
+  }
+
+  @Override
+  @Transactional
+  public void replace(Warehouse archived, Warehouse replacement) {
+    // targeted archive first so the partial unique index never sees two active versions;
+    // the caller already holds the active version, no need to load the entity again
+    int updated = archived.getVersion() == null
+            ? update("archivedAt = ?1, version = version + 1 where businessUnitCode = ?2 and archivedAt is null",
+                    archived.getArchivedAt(), archived.getBusinessUnitCode())
+            : update("archivedAt = ?1, version = version + 1 where businessUnitCode = ?2 and archivedAt is null "
+                    + "and version = ?3", archived.getArchivedAt(), archived.getBusinessUnitCode(), archived.getVersion());
+    if (updated == 0) {
+      if (archived.getVersion() != null && findActive(archived.getBusinessUnitCode()) != null) {
+        throw concurrentModification(archived.getBusinessUnitCode());
+      }
+      throw new WarehouseNotFoundException("Warehouse not found: " + archived.getBusinessUnitCode());
+    }
+
+    DbWarehouse entity = DbWarehouse.from(replacement);
+    persist(entity);
+
+    afterCommit(() -> {
+      capacityLedger.release(archived.getLocation(), capacityOf(archived.getCapacity()));
+      capacityLedger.register(entity.location, capacityOf(entity.capacity));
+      warehouseCache.invalidate(archived.getBusinessUnitCode());
+      stockBuffer.forget(archived.getBusinessUnitCode());
+    });
+  }
+
+  @Override
+  @Transactional
+  public boolean adjustStock(String buCode, int delta) {
+    if (stockBuffer.isEnabled()) {
+      return enqueueStockDelta(buCode, delta);
+    }
+
+    // single conditional UPDATE: no entity load, the row lock lasts for this statement's transaction only
+    int updated = update("stock = stock + ?1, version = version + 1 where businessUnitCode = ?2 and archivedAt is null "
+            + "and stock + ?1 between 0 and capacity", delta, buCode);
+
+    if (updated > 0) {
+      afterCommit(() -> warehouseCache.invalidate(buCode));
+    }
+    return updated > 0;
+  }
+
+  // write-behind: the buffer checks the delta against the stock projected from the stored stock
+  // and the deltas it has accepted since
+  private boolean enqueueStockDelta(String buCode, int delta) {
+    DbWarehouse existing = findActive(buCode);
+    if (existing == null) {
+      return false;
+    }
+    return stockBuffer.enqueue(buCode, delta, capacityOf(existing.stock), capacityOf(existing.capacity));
   }
 
   @Override
   @Transactional
   public void remove(Warehouse warehouse) {
+    List<DbWarehouse> active =
+            list("businessUnitCode = ?1 and archivedAt is null", warehouse.getBusinessUnitCode());
     delete("businessUnitCode", warehouse.getBusinessUnitCode());
+
+    afterCommit(() -> {
+      active.forEach(entity -> capacityLedger.release(entity.location, capacityOf(entity.capacity)));
+      warehouseCache.invalidate(warehouse.getBusinessUnitCode());
+      stockBuffer.forget(warehouse.getBusinessUnitCode());
+    });
   }
 
   @Override
   public Warehouse findByBusinessUnitCode(String buCode) {
-    DbWarehouse existing = find("businessUnitCode", buCode)
-            .stream()
-            .filter(dbWarehouse -> dbWarehouse.archivedAt == null)
-            .findFirst()
-            .orElse(null);
+    DbWarehouse existing = findActive(buCode);
     return existing == null ? null : existing.toWarehouse();
   }
+
+  @Override
+  public Set<String> findActiveBusinessUnitCodes(Collection<String> buCodes) {
+    if (buCodes.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(getEntityManager()
+            .createQuery("select w.businessUnitCode from DbWarehouse w "
+                    + "where w.businessUnitCode in :codes and w.archivedAt is null", String.class)
+            .setParameter("codes", buCodes)
+            .getResultList());
+  }
+
+  // served by the partial unique index on active business unit codes; the query result is
+  // kept in the second-level query cache and evicted by Hibernate on any warehouse write
+  private DbWarehouse findActive(String buCode) {
+    return find("businessUnitCode = ?1 and archivedAt is null", buCode)
+            .withHint(HibernateHints.HINT_CACHEABLE, true)
+            .firstResult();
+  }
+
+  @Transactional
+  void seedCapacityLedger(@Observes StartupEvent event) {
+    Map<String, LocationOccupancy> occupancy = new HashMap<>();
+    getEntityManager()
+            .createQuery("select w.location, count(w), coalesce(sum(w.capacity), 0) from DbWarehouse w "
+                    + "where w.archivedAt is null group by w.location", Object[].class)
+            .getResultList()
+            .forEach(row -> occupancy.put((String) row[0],
+                    new LocationOccupancy(((Number) row[1]).intValue(), ((Number) row[2]).longValue())));
+    capacityLedger.reset(occupancy);
+  }
+
+  private void afterCommit(Runnable action) {
+    transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+      @Override
+      public void beforeCompletion() {
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        if (status == Status.STATUS_COMMITTED) {
+          action.run();
+        }
+      }
+    });
+  }
+
+  private static WarehouseConcurrentModificationException concurrentModification(String buCode) {
+    return new WarehouseConcurrentModificationException("Warehouse " + buCode + " was modified concurrently");
+  }
+
+  private static int capacityOf(Integer capacity) {
+    return capacity == null ? 0 : capacity;
+  }
 }
@@ -0,0 +1,75 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.interceptor.Interceptor;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies {@value #SCRIPT}, the warehouse schema the entity mappings cannot express (such as the
+ * partial unique index on active business unit codes), at every startup. Unlike the seed data of
+ * import.sql it does not depend on Hibernate creating the schema, so its statements must be
+ * idempotent.
+ */
+@ApplicationScoped
+public class WarehouseSchema {
+
+  private static final Logger LOGGER = Logger.getLogger(WarehouseSchema.class.getName());
+
+  static final String SCRIPT = "db/warehouse-schema.sql";
+
+  @Inject
+  EntityManager entityManager;
+
+  // before anything else starts writing warehouses
+  @Transactional
+  void apply(@Observes @Priority(Interceptor.Priority.PLATFORM_BEFORE) StartupEvent event) {
+    List<String> statements = statements();
+    for (String statement : statements) {
+      entityManager.createNativeQuery(statement).executeUpdate();
+    }
+    LOGGER.debugf("Applied %d statements of %s", statements.size(), SCRIPT);
+  }
+
+  /**
+   * The statements of {@value #SCRIPT}: separated by semicolons, with {@code --} comment lines
+   * left out.
+   */
+  static List<String> statements() {
+    String script;
+    try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(SCRIPT)) {
+      if (in == null) {
+        throw new IllegalStateException(SCRIPT + " is missing from the classpath");
+      }
+      script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      throw new UncheckedIOException("Reading " + SCRIPT + " failed", ex);
+    }
+
+    StringBuilder withoutComments = new StringBuilder();
+    for (String line : script.split("\n")) {
+      if (!line.trim().startsWith("--")) {
+        withoutComments.append(line).append('\n');
+      }
+    }
+    List<String> statements = new ArrayList<>();
+    for (String statement : withoutComments.toString().split(";")) {
+      if (!statement.isBlank()) {
+        statements.add(statement.trim());
+      }
+    }
+    return statements;
+  }
+}
@@ -2,15 +2,22 @@ package com.fulfilment.application.monolith.warehouses.adapters.restapi;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.AdjustWarehouseStockUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ArchiveWarehouseUseCase;
+import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseBatchUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.CreateWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.domain.usecases.ReplaceWarehouseUseCase;
 import com.fulfilment.application.monolith.warehouses.exceptions.*;
+import com.fulfilment.application.monolith.warehouses.exceptions.mapper.GlobalExceptionMapper;
 import com.warehouse.api.WarehouseResource;
+import com.warehouse.api.beans.StockAdjustment;
 import com.warehouse.api.beans.Warehouse;
+import com.warehouse.api.beans.WarehouseBatchResult;
 import jakarta.enterprise.context.RequestScoped;
 import jakarta.inject.Inject;
 import jakarta.validation.constraints.NotNull;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 import java.util.List;
@@ -24,20 +31,32 @@ public class WarehouseResourceImpl implements WarehouseResource {
   @Inject
   private CreateWarehouseUseCase createWarehouseUseCase;
 
+  @Inject
+  private CreateWarehouseBatchUseCase createWarehouseBatchUseCase;
+
   @Inject
   private ArchiveWarehouseUseCase archiveWarehouseUseCase;
 
   @Inject
   private ReplaceWarehouseUseCase replaceWarehouseUseCase;
 
+  @Inject
+  private AdjustWarehouseStockUseCase adjustWarehouseStockUseCase;
+
+  @ConfigProperty(name = "warehouse.list.default-page-size", defaultValue = "100")
+  int defaultPageSize;
+
+  @ConfigProperty(name = "warehouse.list.max-page-size", defaultValue = "1000")
+  int maxPageSize;
+
   private static final Logger LOGGER = Logger.getLogger(WarehouseResourceImpl.class.getName());
 
   @Override
-  public List<Warehouse> listAllWarehousesUnits() {
-    LOGGER.debug("Fetching all warehouse units");
+  public List<Warehouse> listAllWarehousesUnits(Integer limit, String cursor) {
+    LOGGER.debugf("Fetching warehouse units limit=%s cursor=%s", limit, cursor);
     try {
       var result = warehouseRepository
-              .getAll()
+              .findActivePage(cursor, pageSize(limit))
               .stream()
               .map(this::toWarehouseResponse)
               .toList();
@@ -67,6 +86,27 @@ public class WarehouseResourceImpl implements WarehouseResource {
     }
   }
 
+  @Override
+  public List<WarehouseBatchResult> createWarehouseUnitsInBatch(@NotNull List<Warehouse> data) {
+    LOGGER.infof("Creating %d warehouses in batch", data.size());
+
+    try {
+      var results = createWarehouseBatchUseCase
+              .createAll(data.stream().map(WarehouseResourceImpl::fromWarehouse).toList())
+              .stream()
+              .map(this::toBatchResult)
+              .toList();
+
+      LOGGER.infof("Batch processed: %d of %d warehouses created",
+              results.stream().filter(WarehouseBatchResult::getCreated).count(), results.size());
+      return results;
+
+    } catch (Exception ex) {
+      LOGGER.error("Error while creating warehouses in batch", ex);
+      throw ex;
+    }
+  }
+
   @Override
   public Warehouse getAWarehouseUnitByID(String id) {
     LOGGER.debugf("Fetching warehouse by id=%s", id);
@@ -116,6 +156,25 @@ public class WarehouseResourceImpl implements WarehouseResource {
     }
   }
 
+  @Override
+  public void adjustTheStockOfTheActiveWarehouse(
+          String businessUnitCode,
+          @NotNull StockAdjustment data) {
+
+    if (data.getDelta() == null) {
+      throw new jakarta.validation.ValidationException("delta is required");
+    }
+    LOGGER.debugf("Adjusting stock of warehouse %s by %d", businessUnitCode, data.getDelta());
+
+    adjustWarehouseStockUseCase.adjustStock(businessUnitCode, data.getDelta());
+  }
+
+  private int pageSize(Integer limit) {
+    if (limit == null) {
+      return defaultPageSize;
+    }
+    return Math.max(1, Math.min(limit, maxPageSize));
+  }
 
   private Warehouse toWarehouseResponse(
       com.fulfilment.application.monolith.warehouses.domain.models.Warehouse warehouse) {
@@ -127,6 +186,22 @@ public class WarehouseResourceImpl implements WarehouseResource {
     return response;
   }
 
+  private WarehouseBatchResult toBatchResult(WarehouseCreationResult result) {
+    var response = new WarehouseBatchResult();
+    response.setBusinessUnitCode(result.warehouse.businessUnitCode);
+    response.setCreated(result.isCreated());
+    if (!result.isCreated()) {
+      String code = GlobalExceptionMapper.errorCode(result.rejection);
+      if (code == null) {
+        LOGGER.error("Unexpected error while creating warehouse "
+                + result.warehouse.businessUnitCode, result.rejection);
+      }
+      response.setCode(code == null ? "INTERNAL_SERVER_ERROR" : code);
+      response.setMessage(code == null ? "An unexpected error occurred" : result.rejection.getMessage());
+    }
+    return response;
+  }
+
   private static com.fulfilment.application.monolith.warehouses.domain.models.Warehouse fromWarehouse(Warehouse data) {
     ObjectMapper mapper = new ObjectMapper();
     return mapper.convertValue(data, com.fulfilment.application.monolith.warehouses.domain.models.Warehouse.class);
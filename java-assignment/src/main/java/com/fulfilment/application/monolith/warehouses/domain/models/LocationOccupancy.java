@@ -0,0 +1,33 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class LocationOccupancy {
+
+  public static final LocationOccupancy EMPTY = new LocationOccupancy(0, 0);
+
+  // number of active warehouses in the location
+  public final int warehouses;
+
+  // sum of the capacities of the active warehouses in the location
+  public final long capacity;
+
+  public LocationOccupancy(int warehouses, long capacity) {
+    this.warehouses = warehouses;
+    this.capacity = capacity;
+  }
+
+  public LocationOccupancy plus(int warehouseCapacity) {
+    return new LocationOccupancy(warehouses + 1, capacity + warehouseCapacity);
+  }
+
+  public LocationOccupancy minus(int warehouseCapacity) {
+    return new LocationOccupancy(Math.max(0, warehouses - 1), Math.max(0, capacity - warehouseCapacity));
+  }
+
+  @Override
+  public String toString() {
+    return "LocationOccupancy{" +
+            "warehouses=" + warehouses +
+            ", capacity=" + capacity +
+            '}';
+  }
+}
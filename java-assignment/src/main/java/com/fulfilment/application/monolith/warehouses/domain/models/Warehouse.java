@@ -18,6 +18,9 @@ public class Warehouse {
 
   public LocalDateTime archivedAt;
 
+  // optimistic locking version of the stored row, null for warehouses not read from the store
+  public Long version;
+
   public String getBusinessUnitCode() {
     return businessUnitCode;
   }
@@ -66,6 +69,14 @@ public class Warehouse {
     this.archivedAt = archivedAt;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * CDI event fired when a warehouse is archived without a replacement. A replacement keeps the
+ * business unit code in use, so it does not fire this event.
+ */
+public class WarehouseArchived {
+
+  public final String businessUnitCode;
+
+  public final LocalDateTime archivedAt;
+
+  public WarehouseArchived(String businessUnitCode, LocalDateTime archivedAt) {
+    this.businessUnitCode = businessUnitCode;
+    this.archivedAt = archivedAt;
+  }
+}
@@ -0,0 +1,19 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * CDI event fired when a new business unit code is taken into use. A replacement keeps the code
+ * of the warehouse it replaces, so it does not fire this event.
+ */
+public class WarehouseCreated {
+
+  public final String businessUnitCode;
+
+  public final LocalDateTime createdAt;
+
+  public WarehouseCreated(String businessUnitCode, LocalDateTime createdAt) {
+    this.businessUnitCode = businessUnitCode;
+    this.createdAt = createdAt;
+  }
+}
@@ -0,0 +1,26 @@
+package com.fulfilment.application.monolith.warehouses.domain.models;
+
+public class WarehouseCreationResult {
+
+  public final Warehouse warehouse;
+
+  // null when the warehouse was accepted
+  public final RuntimeException rejection;
+
+  private WarehouseCreationResult(Warehouse warehouse, RuntimeException rejection) {
+    this.warehouse = warehouse;
+    this.rejection = rejection;
+  }
+
+  public static WarehouseCreationResult created(Warehouse warehouse) {
+    return new WarehouseCreationResult(warehouse, null);
+  }
+
+  public static WarehouseCreationResult rejected(Warehouse warehouse, RuntimeException rejection) {
+    return new WarehouseCreationResult(warehouse, rejection);
+  }
+
+  public boolean isCreated() {
+    return rejection == null;
+  }
+}
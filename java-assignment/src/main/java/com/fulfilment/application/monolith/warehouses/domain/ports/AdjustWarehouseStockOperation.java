@@ -0,0 +1,5 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+public interface AdjustWarehouseStockOperation {
+  void adjustStock(String businessUnitCode, int delta);
+}
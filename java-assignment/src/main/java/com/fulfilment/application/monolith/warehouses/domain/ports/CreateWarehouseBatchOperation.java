@@ -0,0 +1,9 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import java.util.List;
+
+public interface CreateWarehouseBatchOperation {
+  List<WarehouseCreationResult> createAll(List<Warehouse> warehouses);
+}
@@ -0,0 +1,11 @@
+package com.fulfilment.application.monolith.warehouses.domain.ports;
+
+public interface WarehouseLock {
+
+  /**
+   * Locks {@code businessUnitCode} until the current transaction completes. Waits at most the
+   * configured timeout, then fails with a
+   * {@link com.fulfilment.application.monolith.warehouses.exceptions.WarehouseConcurrentModificationException}.
+   */
+  void lock(String businessUnitCode);
+}
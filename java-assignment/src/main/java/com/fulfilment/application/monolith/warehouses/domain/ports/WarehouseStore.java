@@ -1,17 +1,37 @@
 package com.fulfilment.application.monolith.warehouses.domain.ports;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public interface WarehouseStore {
 
   List<Warehouse> getAll();
 
+  List<Warehouse> findActivePage(String afterBusinessUnitCode, int limit);
+
   void create(Warehouse warehouse);
 
+  void createAll(List<Warehouse> warehouses);
+
   void update(Warehouse warehouse);
 
+  /**
+   * Archives the active version of {@code archived} (using its {@code archivedAt}) and inserts
+   * {@code replacement} in a single transaction.
+   */
+  void replace(Warehouse archived, Warehouse replacement);
+
+  /**
+   * Adds {@code delta} to the stock of the active warehouse if the result stays within
+   * {@code [0, capacity]}. Returns {@code false} when nothing was updated.
+   */
+  boolean adjustStock(String buCode, int delta);
+
   void remove(Warehouse warehouse);
 
   Warehouse findByBusinessUnitCode(String buCode);
+
+  Set<String> findActiveBusinessUnitCodes(Collection<String> buCodes);
 }
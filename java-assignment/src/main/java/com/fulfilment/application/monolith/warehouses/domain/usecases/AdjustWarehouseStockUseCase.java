@@ -0,0 +1,34 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.domain.ports.AdjustWarehouseStockOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.exceptions.InvalidWarehouseStockException;
+import com.fulfilment.application.monolith.warehouses.exceptions.WarehouseNotFoundException;
+import jakarta.enterprise.context.ApplicationScoped;
+
+@ApplicationScoped
+public class AdjustWarehouseStockUseCase implements AdjustWarehouseStockOperation {
+
+  private final WarehouseStore warehouseStore;
+
+  public AdjustWarehouseStockUseCase(WarehouseStore warehouseStore) {
+    this.warehouseStore = warehouseStore;
+  }
+
+  @Override
+  public void adjustStock(String businessUnitCode, int delta) {
+    // 1️⃣ Conditional update: applied only if the result stays within [0, capacity]
+    if (warehouseStore.adjustStock(businessUnitCode, delta)) {
+      return;
+    }
+
+    // 2️⃣ Nothing updated: tell a missing warehouse apart from an out-of-range stock
+    var existing = warehouseStore.findByBusinessUnitCode(businessUnitCode);
+    if (existing == null) {
+      throw new WarehouseNotFoundException("Warehouse not found: " + businessUnitCode);
+    }
+    throw new InvalidWarehouseStockException(
+            "Stock adjustment (" + delta + ") would take stock of warehouse " + businessUnitCode
+                    + " outside of [0, " + existing.getCapacity() + "]");
+  }
+}
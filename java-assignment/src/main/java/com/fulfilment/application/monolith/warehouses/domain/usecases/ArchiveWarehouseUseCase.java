@@ -1,9 +1,13 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseArchived;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ArchiveWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseLock;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.transaction.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -12,13 +16,27 @@ public class ArchiveWarehouseUseCase implements ArchiveWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
 
-  public ArchiveWarehouseUseCase(WarehouseStore warehouseStore) {
+  private final WarehouseLock warehouseLock;
+
+  private final Event<WarehouseArchived> warehouseArchived;
+
+  public ArchiveWarehouseUseCase(WarehouseStore warehouseStore,
+                                 WarehouseLock warehouseLock,
+                                 Event<WarehouseArchived> warehouseArchived) {
     this.warehouseStore = warehouseStore;
+    this.warehouseLock = warehouseLock;
+    this.warehouseArchived = warehouseArchived;
   }
 
   @Override
+  @Transactional
   public void archive(Warehouse warehouse) {
+    // the version read by the caller is checked by the store, a concurrent replace fails it
+    warehouseLock.lock(warehouse.getBusinessUnitCode());
     warehouse.setArchivedAt(LocalDateTime.now());
     warehouseStore.update(warehouse);
+
+    // observers that clean up after the warehouse run once this transaction has committed
+    warehouseArchived.fire(new WarehouseArchived(warehouse.getBusinessUnitCode(), warehouse.getArchivedAt()));
   }
 }
@@ -0,0 +1,117 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseCapacityLedger;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreated;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseBatchOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.utils.WarehousesUtils;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.validation.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@ApplicationScoped
+public class CreateWarehouseBatchUseCase implements CreateWarehouseBatchOperation {
+
+  private final WarehouseStore warehouseStore;
+
+  private final WarehouseCapacityLedger capacityLedger;
+
+  private final LocationResolver locationResolver;
+
+  private final WarehousesUtils warehousesUtils;
+
+  private final Event<WarehouseCreated> warehouseCreated;
+
+  public CreateWarehouseBatchUseCase(WarehouseStore warehouseStore,
+                                     WarehouseCapacityLedger capacityLedger,
+                                     LocationResolver locationResolver,
+                                     WarehousesUtils warehousesUtils,
+                                     Event<WarehouseCreated> warehouseCreated) {
+    this.warehouseStore = warehouseStore;
+    this.capacityLedger = capacityLedger;
+    this.locationResolver = locationResolver;
+    this.warehousesUtils = warehousesUtils;
+    this.warehouseCreated = warehouseCreated;
+  }
+
+  @Override
+  public List<WarehouseCreationResult> createAll(List<Warehouse> warehouses) {
+    // 1️⃣ Existing business unit codes of the whole batch in a single query
+    Set<String> takenCodes = new HashSet<>(warehouseStore.findActiveBusinessUnitCodes(
+            warehouses.stream()
+                    .map(Warehouse::getBusinessUnitCode)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList()));
+
+    // per-location occupancy including the warehouses accepted earlier in this batch
+    Map<String, LocationOccupancy> occupancyByLocation = new HashMap<>();
+
+    List<WarehouseCreationResult> results = new ArrayList<>(warehouses.size());
+    List<Warehouse> accepted = new ArrayList<>();
+    LocalDateTime now = LocalDateTime.now();
+
+    for (Warehouse warehouse : warehouses) {
+      try {
+        checkRequiredFields(warehouse);
+
+        // 2️⃣ Business unit code must be new, also within the batch
+        warehousesUtils.checkIfWarehouseExists(warehouse,
+                takenCodes.contains(warehouse.getBusinessUnitCode()) ? warehouse : null);
+
+        // 3️⃣ Location, feasibility and capacity rules against the in-batch occupancy
+        Location location = locationResolver.resolveByIdentifier(warehouse.getLocation());
+        warehousesUtils.checkIfLocationExists(warehouse, location);
+
+        LocationOccupancy occupancy = occupancyByLocation.computeIfAbsent(
+                warehouse.getLocation(), capacityLedger::occupancyOf);
+        warehousesUtils.checkIfWarehouseCanBeCreatedAtLocation(warehouse, occupancy.warehouses, location);
+        warehousesUtils.checkForLocationMaxNumberOfWarehouse(warehouse, location);
+        warehousesUtils.checkIfLocationHasCapacity(warehouse, occupancy, location);
+        warehousesUtils.checkForWarehouseCapacity(warehouse);
+
+        takenCodes.add(warehouse.getBusinessUnitCode());
+        occupancyByLocation.put(warehouse.getLocation(), occupancy.plus(warehouse.getCapacity()));
+
+        warehouse.setCreatedAt(now);
+        accepted.add(warehouse);
+        results.add(WarehouseCreationResult.created(warehouse));
+
+      } catch (RuntimeException ex) {
+        results.add(WarehouseCreationResult.rejected(warehouse, ex));
+      }
+    }
+
+    // 4️⃣ Insert all accepted warehouses in one transaction
+    if (!accepted.isEmpty()) {
+      warehouseStore.createAll(accepted);
+      accepted.forEach(warehouse -> warehouseCreated.fire(
+              new WarehouseCreated(warehouse.getBusinessUnitCode(), warehouse.getCreatedAt())));
+    }
+    return results;
+  }
+
+  private static void checkRequiredFields(Warehouse warehouse) {
+    if (warehouse.getBusinessUnitCode() == null
+            || warehouse.getLocation() == null
+            || warehouse.getCapacity() == null
+            || warehouse.getStock() == null) {
+      throw new ValidationException(
+              "businessUnitCode, location, capacity and stock are required");
+    }
+  }
+}
@@ -1,13 +1,16 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
-import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseCapacityLedger;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreated;
 import com.fulfilment.application.monolith.warehouses.domain.ports.CreateWarehouseOperation;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import com.fulfilment.application.monolith.warehouses.utils.WarehousesUtils;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 
 import java.time.LocalDateTime;
 
@@ -16,20 +19,24 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
 
-  private final WarehouseRepository warehouseRepository;
+  private final WarehouseCapacityLedger capacityLedger;
 
   private final LocationResolver locationResolver;
 
   private final WarehousesUtils warehousesUtils;
 
+  private final Event<WarehouseCreated> warehouseCreated;
+
   public CreateWarehouseUseCase(WarehouseStore warehouseStore,
-                                WarehouseRepository warehouseRepository,
+                                WarehouseCapacityLedger capacityLedger,
                                 LocationResolver locationResolver,
-                                WarehousesUtils warehousesUtils) {
+                                WarehousesUtils warehousesUtils,
+                                Event<WarehouseCreated> warehouseCreated) {
     this.warehouseStore = warehouseStore;
-    this.warehouseRepository = warehouseRepository;
+    this.capacityLedger = capacityLedger;
     this.locationResolver = locationResolver;
     this.warehousesUtils = warehousesUtils;
+    this.warehouseCreated = warehouseCreated;
   }
 
   @Override
@@ -47,14 +54,15 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
 
     warehousesUtils.checkIfLocationExists(warehouse, location);
 
-    // 3️⃣ Warehouse Creation Feasibility
-    long warehousesAtLocation =
-            warehouseRepository.count("location", warehouse.getLocation());
+    // 3️⃣ Warehouse Creation Feasibility (active warehouses only)
+    LocationOccupancy occupancy =
+            capacityLedger.occupancyOf(warehouse.getLocation());
 
-    warehousesUtils.checkIfWarehouseCanBeCreatedAtLocation(warehouse, warehousesAtLocation, location);
+    warehousesUtils.checkIfWarehouseCanBeCreatedAtLocation(warehouse, occupancy.warehouses, location);
 
     // 4️⃣ Capacity must not exceed location maximum
     warehousesUtils.checkForLocationMaxNumberOfWarehouse(warehouse, location);
+    warehousesUtils.checkIfLocationHasCapacity(warehouse, occupancy, location);
 
     // 5️⃣ Stock must fit within capacity
     warehousesUtils.checkForWarehouseCapacity(warehouse);
@@ -62,5 +70,6 @@ public class CreateWarehouseUseCase implements CreateWarehouseOperation {
     // if all went well, create the warehouse
     warehouse.setCreatedAt(LocalDateTime.now());
     warehouseStore.create(warehouse);
+    warehouseCreated.fire(new WarehouseCreated(warehouse.getBusinessUnitCode(), warehouse.getCreatedAt()));
   }
 }
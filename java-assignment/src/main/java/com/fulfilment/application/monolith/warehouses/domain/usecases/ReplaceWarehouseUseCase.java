@@ -2,9 +2,11 @@ package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.ReplaceWarehouseOperation;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseLock;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import com.fulfilment.application.monolith.warehouses.utils.WarehousesUtils;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.transaction.Transactional;
 
 import java.time.LocalDateTime;
 
@@ -13,16 +15,24 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
 
   private final WarehouseStore warehouseStore;
 
+  private final WarehouseLock warehouseLock;
+
   private final WarehousesUtils warehousesUtils;
 
   public ReplaceWarehouseUseCase(WarehouseStore warehouseStore,
+                                 WarehouseLock warehouseLock,
                                  WarehousesUtils warehousesUtils) {
     this.warehouseStore = warehouseStore;
+    this.warehouseLock = warehouseLock;
     this.warehousesUtils = warehousesUtils;
   }
 
   @Override
+  @Transactional
   public void replace(Warehouse newWarehouse) {
+    // 0️⃣ Serialize replacements and archives of the same business unit
+    warehouseLock.lock(newWarehouse.getBusinessUnitCode());
+
     // 1️⃣ Fetch existing active warehouse
     var existing =
             warehouseStore.findByBusinessUnitCode(newWarehouse.getBusinessUnitCode());
@@ -36,12 +46,11 @@ public class ReplaceWarehouseUseCase implements ReplaceWarehouseOperation {
     // 3 Stock matching validation
     warehousesUtils.checkIfNewWareHouseHaveSameStocks(newWarehouse, existing);
 
-    // 4 Create new warehouse
-    newWarehouse.setCreatedAt(LocalDateTime.now());
-    warehouseStore.create(newWarehouse);
-
-    // 5 Archive old warehouse
-    existing.setArchivedAt(LocalDateTime.now());
-    warehouseStore.update(existing);
+    // 4 Archive old warehouse and create the new one in a single transaction
+    // (only one active version per business unit is allowed)
+    LocalDateTime now = LocalDateTime.now();
+    existing.setArchivedAt(now);
+    newWarehouse.setCreatedAt(now);
+    warehouseStore.replace(existing, newWarehouse);
   }
 }
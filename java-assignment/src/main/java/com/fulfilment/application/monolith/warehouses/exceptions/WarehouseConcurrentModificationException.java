@@ -0,0 +1,7 @@
+package com.fulfilment.application.monolith.warehouses.exceptions;
+
+public class WarehouseConcurrentModificationException extends RuntimeException {
+    public WarehouseConcurrentModificationException(String message) {
+        super(message);
+    }
+}
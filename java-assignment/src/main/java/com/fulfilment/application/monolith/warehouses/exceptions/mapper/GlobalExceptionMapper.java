@@ -1,5 +1,11 @@
 package com.fulfilment.application.monolith.warehouses.exceptions.mapper;
 
+import com.fulfilment.application.monolith.fulfillments.exceptions.FulfilmentAlreadyExistsException;
+import com.fulfilment.application.monolith.fulfillments.exceptions.FulfilmentConcurrentModificationException;
+import com.fulfilment.application.monolith.fulfillments.exceptions.FulfilmentReferenceNotFoundException;
+import com.fulfilment.application.monolith.fulfillments.exceptions.ProductFulfilmentLimitExceededException;
+import com.fulfilment.application.monolith.fulfillments.exceptions.StoreFulfilmentLimitExceededException;
+import com.fulfilment.application.monolith.fulfillments.exceptions.WarehouseProductLimitExceededException;
 import com.fulfilment.application.monolith.warehouses.exceptions.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.Response;
@@ -19,73 +25,86 @@ public class GlobalExceptionMapper implements ExceptionMapper<RuntimeException>
     @Override
     public Response toResponse(RuntimeException exception) {
 
-        if (exception instanceof WarehouseNotFoundException) {
-            return buildResponse(
-                    Response.Status.NOT_FOUND,
-                    "WAREHOUSE_NOT_FOUND",
-                    exception.getMessage()
-            );
+        String code = errorCode(exception);
+        if (code != null) {
+            Response.Status status = exception instanceof WarehouseNotFoundException
+                    ? Response.Status.NOT_FOUND
+                    : isConcurrentModification(exception)
+                            || exception instanceof FulfilmentConcurrentModificationException
+                    ? Response.Status.CONFLICT
+                    : Response.Status.BAD_REQUEST;
+            return buildResponse(status, code, exception.getMessage());
         }
 
+        // 🔥 Fallback for unexpected errors
+        LOGGER.error("Unexpected error occurred", exception);
+
+        return buildResponse(
+                Response.Status.INTERNAL_SERVER_ERROR,
+                "INTERNAL_SERVER_ERROR",
+                "An unexpected error occurred"
+        );
+    }
+
+    /**
+     * Error code reported for a business rule violation, or {@code null} for unexpected errors.
+     */
+    public static String errorCode(RuntimeException exception) {
+        if (exception instanceof WarehouseNotFoundException) {
+            return "WAREHOUSE_NOT_FOUND";
+        }
         if (exception instanceof WareHouseAlreadyExistException) {
-            return buildResponse(
-                    Response.Status.BAD_REQUEST,
-                    "WAREHOUSE_ALREADY_EXISTS",
-                    exception.getMessage()
-            );
+            return "WAREHOUSE_ALREADY_EXISTS";
         }
-
         if (exception instanceof WarehouseCapacityExceededException) {
-            return buildResponse(
-                    Response.Status.BAD_REQUEST,
-                    "WAREHOUSE_LOCATION_CAPACITY_EXCEEDED",
-                    exception.getMessage()
-            );
+            return "WAREHOUSE_LOCATION_CAPACITY_EXCEEDED";
         }
-
         if (exception instanceof InvalidWarehouseStockException) {
-            return buildResponse(
-                    Response.Status.BAD_REQUEST,
-                    "WAREHOUSE_STOCK_CAPACITY_EXCEEDED",
-                    exception.getMessage()
-            );
+            return "WAREHOUSE_STOCK_CAPACITY_EXCEEDED";
         }
-
-
-
         if (exception instanceof LocationNotFoundException) {
-            LOGGER.info("LocationNotFoundException");
-            return buildResponse(
-                    Response.Status.BAD_REQUEST,
-                    "LOCATION_NOT_FOUND",
-                    exception.getMessage()
-            );
+            return "LOCATION_NOT_FOUND";
         }
-
         if (exception instanceof WarehouseAlreadyArchivedException) {
-            return buildResponse(
-                    Response.Status.BAD_REQUEST,
-                    "WAREHOUSE_ALREADY_ARCHIVED",
-                    exception.getMessage()
-            );
+            return "WAREHOUSE_ALREADY_ARCHIVED";
         }
-
-        if (exception instanceof jakarta.validation.ConstraintViolationException) {
-            return buildResponse(
-                    Response.Status.BAD_REQUEST,
-                    "VALIDATION_ERROR",
-                    exception.getMessage()
-            );
+        if (exception instanceof jakarta.validation.ValidationException) {
+            return "VALIDATION_ERROR";
         }
+        if (exception instanceof ProductFulfilmentLimitExceededException) {
+            return "PRODUCT_FULFILMENT_LIMIT_EXCEEDED";
+        }
+        if (exception instanceof StoreFulfilmentLimitExceededException) {
+            return "STORE_FULFILMENT_LIMIT_EXCEEDED";
+        }
+        if (exception instanceof WarehouseProductLimitExceededException) {
+            return "WAREHOUSE_PRODUCT_LIMIT_EXCEEDED";
+        }
+        if (exception instanceof FulfilmentAlreadyExistsException) {
+            return "FULFILMENT_ALREADY_EXISTS";
+        }
+        if (exception instanceof FulfilmentReferenceNotFoundException) {
+            return "FULFILMENT_REFERENCE_NOT_FOUND";
+        }
+        if (exception instanceof FulfilmentConcurrentModificationException) {
+            return "FULFILMENT_CONCURRENT_MODIFICATION";
+        }
+        if (isConcurrentModification(exception)) {
+            return "WAREHOUSE_CONCURRENT_MODIFICATION";
+        }
+        return null;
+    }
 
-        // 🔥 Fallback for unexpected errors
-        LOGGER.error("Unexpected error occurred", exception);
-
-        return buildResponse(
-                Response.Status.INTERNAL_SERVER_ERROR,
-                "INTERNAL_SERVER_ERROR",
-                "An unexpected error occurred"
-        );
+    // version conflicts detected by Hibernate at flush arrive wrapped in the commit failure
+    private static boolean isConcurrentModification(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WarehouseConcurrentModificationException
+                    || cause instanceof jakarta.persistence.OptimisticLockException
+                    || cause instanceof org.hibernate.StaleStateException) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private Response buildResponse(Response.Status status,
@@ -1,6 +1,7 @@
 package com.fulfilment.application.monolith.warehouses.utils;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.exceptions.*;
 import jakarta.enterprise.context.ApplicationScoped;
@@ -58,6 +59,15 @@ public class WarehousesUtils {
         }
     }
 
+    public void checkIfLocationHasCapacity(Warehouse warehouse, LocationOccupancy occupancy, Location location) {
+        if (occupancy.capacity + warehouse.getCapacity() > location.maxCapacity) {
+            throw new WarehouseCapacityExceededException(
+                    "Warehouse capacity (" + warehouse.getCapacity()
+                            + ") exceeds remaining capacity of location " + warehouse.getLocation()
+                            + " (" + (location.maxCapacity - occupancy.capacity) + ")");
+        }
+    }
+
     public void checkIfLocationExists(Warehouse warehouse, Location location) {
         if (location == null) {
             throw new LocationNotFoundException(
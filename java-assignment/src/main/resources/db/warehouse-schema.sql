@@ -0,0 +1,5 @@
+-- Schema the entity mappings cannot express, applied by WarehouseSchema at every startup whatever
+-- quarkus.hibernate-orm.database.generation is. Statements must be idempotent.
+
+-- A business unit keeps its archived versions, but only one version may be active at a time.
+CREATE UNIQUE INDEX IF NOT EXISTS warehouse_active_bu_code_uidx ON warehouse (businessUnitCode) WHERE archivedAt IS NULL;
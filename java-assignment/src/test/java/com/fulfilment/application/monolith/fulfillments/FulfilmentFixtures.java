@@ -0,0 +1,49 @@
+package com.fulfilment.application.monolith.fulfillments;
+
+import com.fulfilment.application.monolith.fulfillments.adapters.database.DbFulfilmentAssignment;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentRequest;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+
+/**
+ * Builders for the requests, assignments and warehouses the fulfilment tests are written against.
+ */
+public final class FulfilmentFixtures {
+
+    private FulfilmentFixtures() {
+    }
+
+    public static FulfilmentRequest request(String product, String store, String warehouse) {
+        FulfilmentRequest request = item(product, store);
+        request.warehouseCode = warehouse;
+        return request;
+    }
+
+    /**
+     * A request the planner still has to find a warehouse for.
+     */
+    public static FulfilmentRequest item(String product, String store) {
+        FulfilmentRequest request = new FulfilmentRequest();
+        request.productCode = product;
+        request.storeCode = store;
+        return request;
+    }
+
+    /**
+     * An assignment as it is already stored, i.e. what the repository hands back.
+     */
+    public static DbFulfilmentAssignment existing(String product, String store, String warehouse) {
+        DbFulfilmentAssignment assignment = new DbFulfilmentAssignment();
+        assignment.productCode = product;
+        assignment.storeCode = store;
+        assignment.warehouseCode = warehouse;
+        return assignment;
+    }
+
+    public static Warehouse warehouse(String code, int capacity, int stock) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode(code);
+        warehouse.setCapacity(capacity);
+        warehouse.setStock(stock);
+        return warehouse;
+    }
+}
@@ -0,0 +1,47 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void shouldContainEveryValuePut() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("MWH." + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("MWH." + i), "MWH." + i);
+        }
+        assertTrue(filter.insertions() > 9_900 && filter.insertions() <= 10_000);
+    }
+
+    @Test
+    void shouldKeepFalsePositivesNearTheTargetRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("STORE-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("UNKNOWN-" + i)) {
+                falsePositives++;
+            }
+        }
+        // 1% target, with room for hashing noise
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives");
+    }
+
+    @Test
+    void shouldNotCountTheSameValueTwice() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertTrue(filter.put("TONSTAD"));
+        assertFalse(filter.put("TONSTAD"));
+        assertEquals(1, filter.insertions());
+    }
+}
@@ -0,0 +1,156 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentCounts;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FulfilmentConstraintGraphTest {
+
+    private final FulfilmentConstraintGraph graph = new FulfilmentConstraintGraph();
+
+    // ---------------------------------------------------------
+    // 1️⃣ NOT LOADED UNTIL SEEDED
+    // ---------------------------------------------------------
+    @Test
+    void shouldOnlyBeLoadedOnceSeeded() {
+
+        assertFalse(graph.isLoaded());
+
+        graph.load(List.of());
+
+        assertTrue(graph.isLoaded());
+        assertCounts(0, 0, 0, graph.counts("P1", "S1", "W1"));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ DISTINCT COUNTS FOLLOW THE ASSIGNMENTS
+    // ---------------------------------------------------------
+    @Test
+    void shouldCountDistinctWarehousesAndProducts() {
+
+        graph.load(List.of(
+                new String[] {"P1", "S1", "W1"},
+                new String[] {"P1", "S1", "W2"},
+                new String[] {"P2", "S1", "W1"},
+                new String[] {"P2", "S2", "W1"}));
+
+        // W1 serves S1 twice but counts once; P1 and P2 are the products of W1
+        assertCounts(2, 2, 2, graph.counts("P1", "S1", "W1"));
+        assertCounts(1, 1, 2, graph.counts("P2", "S2", "W1"));
+        assertCounts(0, 2, 1, graph.counts("P3", "S1", "W2"));
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ REMOVING THE LAST PAIR DROPS THE DISTINCT COUNT
+    // ---------------------------------------------------------
+    @Test
+    void shouldReleaseDistinctCountsWithLastAssignment() {
+
+        graph.load(List.of(
+                new String[] {"P1", "S1", "W1"},
+                new String[] {"P2", "S1", "W1"}));
+
+        graph.remove("P1", "S1", "W1");
+        assertCounts(0, 1, 1, graph.counts("P1", "S1", "W1"));
+
+        graph.remove("P2", "S1", "W1");
+        assertCounts(0, 0, 0, graph.counts("P2", "S1", "W1"));
+
+        // unknown assignments are ignored
+        graph.remove("P2", "S1", "W1");
+        graph.remove("P9", "S9", "W9");
+        assertCounts(0, 0, 0, graph.counts("P2", "S1", "W1"));
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ MATCHES A NAIVE RECOUNT UNDER RANDOM CHURN
+    // ---------------------------------------------------------
+    @Test
+    void shouldMatchRecountAfterRandomAddsAndRemoves() {
+
+        graph.load(List.of());
+        Random random = new Random(42);
+        Set<List<String>> assignments = new HashSet<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            List<String> assignment = List.of(
+                    "P" + random.nextInt(40), "S" + random.nextInt(30), "W" + random.nextInt(20));
+            if (assignments.add(assignment)) {
+                graph.add(assignment.get(0), assignment.get(1), assignment.get(2));
+            } else if (random.nextBoolean()) {
+                assignments.remove(assignment);
+                graph.remove(assignment.get(0), assignment.get(1), assignment.get(2));
+            }
+        }
+
+        for (int i = 0; i < 500; i++) {
+            String product = "P" + random.nextInt(40);
+            String store = "S" + random.nextInt(30);
+            String warehouse = "W" + random.nextInt(20);
+
+            FulfilmentCounts counts = graph.counts(product, store, warehouse);
+            assertEquals(recount(assignments, product, store, warehouse), List.of(
+                    counts.warehousesForProductInStore, counts.warehousesForStore, counts.productsForWarehouse));
+        }
+    }
+
+    // ---------------------------------------------------------
+    // 5️⃣ COUNTER MAP SURVIVES GROWTH AND DELETES
+    // ---------------------------------------------------------
+    @Test
+    void shouldKeepCountersAcrossResizeAndRemoval() {
+
+        LongIntCounterMap map = new LongIntCounterMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = LongIntCounterMap.pair(random.nextInt(100), random.nextInt(100));
+            if (random.nextInt(3) == 0) {
+                Integer current = expected.get(key);
+                assertEquals(current == null ? -1 : current - 1, map.decrement(key));
+                if (current != null) {
+                    expected.compute(key, (k, v) -> v == 1 ? null : v - 1);
+                }
+            } else {
+                assertEquals(expected.merge(key, 1, Integer::sum), map.increment(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+
+    private static List<Long> recount(Set<List<String>> assignments, String product, String store, String warehouse) {
+        Set<String> warehousesForProductInStore = new HashSet<>();
+        Set<String> warehousesForStore = new HashSet<>();
+        Set<String> productsForWarehouse = new HashSet<>();
+        for (List<String> a : assignments) {
+            if (a.get(0).equals(product) && a.get(1).equals(store)) {
+                warehousesForProductInStore.add(a.get(2));
+            }
+            if (a.get(1).equals(store)) {
+                warehousesForStore.add(a.get(2));
+            }
+            if (a.get(2).equals(warehouse)) {
+                productsForWarehouse.add(a.get(0));
+            }
+        }
+        return List.of((long) warehousesForProductInStore.size(),
+                (long) warehousesForStore.size(), (long) productsForWarehouse.size());
+    }
+
+    private static void assertCounts(long productInStore, long store, long warehouse, FulfilmentCounts counts) {
+        assertEquals(productInStore, counts.warehousesForProductInStore);
+        assertEquals(store, counts.warehousesForStore);
+        assertEquals(warehouse, counts.productsForWarehouse);
+    }
+}
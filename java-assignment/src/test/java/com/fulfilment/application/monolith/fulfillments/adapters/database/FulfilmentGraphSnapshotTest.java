@@ -0,0 +1,124 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentCounts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FulfilmentGraphSnapshotTest {
+
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2024, 7, 1, 12, 0, 0, 123_000_000);
+
+    @TempDir
+    Path directory;
+
+    // ---------------------------------------------------------
+    // 1️⃣ ROWS AND WATERMARK SURVIVE A ROUND TRIP
+    // ---------------------------------------------------------
+    @Test
+    void shouldReadBackWrittenRows() throws Exception {
+
+        Path path = directory.resolve("graph.snapshot");
+        FulfilmentGraphSnapshot.Writer writer = new FulfilmentGraphSnapshot.Writer(WATERMARK);
+        writer.add(1, "TONSTAD", "S1", "MWH.001", WATERMARK.minusDays(1));
+        writer.add(2, "BESTÅ", "S1", "MWH.012", WATERMARK.minusDays(1));
+        writer.add(3, "TONSTAD", "S2", "MWH.001", null);
+        writer.writeTo(path);
+
+        FulfilmentGraphSnapshot snapshot = FulfilmentGraphSnapshot.read(path);
+
+        assertEquals(WATERMARK, snapshot.watermark());
+        assertEquals(3, snapshot.rowCount());
+        assertEquals(3, snapshot.maxId());
+        assertEquals(Map.of("MWH.001", 2L), snapshot.rowsPerWarehouse(Set.of("MWH.001", "MWH.023")));
+        assertEquals(List.of("TONSTAD/S1/MWH.001", "BESTÅ/S1/MWH.012", "TONSTAD/S2/MWH.001"),
+                rows(snapshot.rows()));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ ONLY ROWS AFTER THE WATERMARK ARE REMEMBERED BY ID
+    // ---------------------------------------------------------
+    @Test
+    void shouldRememberIdsOfRowsCreatedAfterTheWatermark() throws Exception {
+
+        Path path = directory.resolve("graph.snapshot");
+        FulfilmentGraphSnapshot.Writer writer = new FulfilmentGraphSnapshot.Writer(WATERMARK);
+        writer.add(900_000, "P1", "S1", "W1", WATERMARK.plusSeconds(1));
+        writer.add(7, "P2", "S1", "W1", WATERMARK);
+        writer.add(300, "P3", "S1", "W1", WATERMARK.plusMinutes(2));
+        writer.writeTo(path);
+
+        FulfilmentGraphSnapshot snapshot = FulfilmentGraphSnapshot.read(path);
+
+        assertTrue(snapshot.contains(300));
+        assertTrue(snapshot.contains(900_000));
+        assertFalse(snapshot.contains(7));
+        assertFalse(snapshot.contains(301));
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ A DAMAGED FILE IS REFUSED
+    // ---------------------------------------------------------
+    @Test
+    void shouldRefuseCorruptSnapshot() throws Exception {
+
+        Path path = directory.resolve("graph.snapshot");
+        FulfilmentGraphSnapshot.Writer writer = new FulfilmentGraphSnapshot.Writer(WATERMARK);
+        writer.add(1, "P1", "S1", "W1", null);
+        writer.writeTo(path);
+
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> FulfilmentGraphSnapshot.read(path));
+        assertThrows(IOException.class, () -> FulfilmentGraphSnapshot.read(directory.resolve("missing")));
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ THE GRAPH RESTORED FROM A SNAPSHOT COUNTS THE SAME
+    // ---------------------------------------------------------
+    @Test
+    void shouldRestoreTheSameGraph() throws Exception {
+
+        Path path = directory.resolve("graph.snapshot");
+        FulfilmentGraphSnapshot.Writer writer = new FulfilmentGraphSnapshot.Writer(WATERMARK);
+        List<String[]> assignments = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String[] assignment = {"P" + (i % 300), "S" + (i % 40), "W" + (i % 150)};
+            assignments.add(assignment);
+            writer.add(i + 1, assignment[0], assignment[1], assignment[2], null);
+        }
+        writer.writeTo(path);
+
+        FulfilmentConstraintGraph fromTable = new FulfilmentConstraintGraph();
+        fromTable.load(assignments);
+        FulfilmentConstraintGraph fromSnapshot = new FulfilmentConstraintGraph();
+        fromSnapshot.load(FulfilmentGraphSnapshot.read(path)::rows);
+
+        for (String[] assignment : assignments) {
+            FulfilmentCounts expected = fromTable.counts(assignment[0], assignment[1], assignment[2]);
+            FulfilmentCounts actual = fromSnapshot.counts(assignment[0], assignment[1], assignment[2]);
+            assertEquals(expected.warehousesForProductInStore, actual.warehousesForProductInStore);
+            assertEquals(expected.warehousesForStore, actual.warehousesForStore);
+            assertEquals(expected.productsForWarehouse, actual.productsForWarehouse);
+        }
+    }
+
+    private static List<String> rows(Iterator<String[]> rows) {
+        List<String> result = new ArrayList<>();
+        rows.forEachRemaining(row -> result.add(String.join("/", row)));
+        return result;
+    }
+}
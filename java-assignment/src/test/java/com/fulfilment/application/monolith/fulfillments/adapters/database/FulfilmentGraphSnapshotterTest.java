@@ -0,0 +1,220 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentCounts;
+import com.fulfilment.application.monolith.warehouses.adapters.database.DbWarehouse;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.fulfilment.application.monolith.fulfillments.FulfilmentFixtures.existing;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Restores the constraint graph from snapshots written to a fixed temp file. Each test starts
+ * with three assignments created well before the watermark of the snapshots it writes. Assignments
+ * are only deleted once their warehouse is archived, as the cleanup does.
+ */
+@QuarkusTest
+@TestProfile(FulfilmentGraphSnapshotterTest.TempSnapshot.class)
+class FulfilmentGraphSnapshotterTest {
+
+    private static final Path SNAPSHOT =
+            Path.of(System.getProperty("java.io.tmpdir"), "fulfilment-graph-snapshotter-test.snapshot");
+
+    private static final List<String> WAREHOUSES = List.of("SNAP-W1", "SNAP-W2", "SNAP-W3");
+
+    public static class TempSnapshot implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "quarkus.scheduler.enabled", "false",
+                    "fulfilment.constraint-graph.snapshot.path", SNAPSHOT.toString(),
+                    "fulfilment.constraint-graph.snapshot.replay-overlap", "5m");
+        }
+    }
+
+    @Inject
+    FulfilmentGraphSnapshotter snapshotter;
+
+    @Inject
+    FulfilmentAssignmentRepository repository;
+
+    @Inject
+    FulfilmentConstraintGraph constraintGraph;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.deleteIfExists(SNAPSHOT);
+        LocalDateTime old = LocalDateTime.now().minusHours(2);
+        assign("SNAP-P1", "SNAP-S1", "SNAP-W1", old);
+        assign("SNAP-P2", "SNAP-S1", "SNAP-W2", old);
+        assign("SNAP-P2", "SNAP-S2", "SNAP-W2", old);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (String warehouse : WAREHOUSES) {
+            removeAssignmentsOf(warehouse);
+        }
+        QuarkusTransaction.requiringNew().run(() -> repository.getEntityManager()
+                .createQuery("delete from DbWarehouse w where w.businessUnitCode in ?1")
+                .setParameter(1, WAREHOUSES)
+                .executeUpdate());
+        Files.deleteIfExists(SNAPSHOT);
+    }
+
+    // ---------------------------------------------------------
+    // 1️⃣ SNAPSHOT PLUS REPLAYED ASSIGNMENTS RESTORE THE GRAPH
+    // ---------------------------------------------------------
+    @Test
+    void shouldRestoreSnapshotAndReplayNewerAssignments() {
+
+        snapshotter.writeSnapshot();
+        assign("SNAP-P3", "SNAP-S2", "SNAP-W3", LocalDateTime.now());
+
+        FulfilmentConstraintGraph restored = new FulfilmentConstraintGraph();
+        assertTrue(restore(restored));
+
+        assertTrue(restored.isLoaded());
+        assertSameCounts(constraintGraph, restored, "SNAP-P1", "SNAP-S1", "SNAP-W1");
+        assertSameCounts(constraintGraph, restored, "SNAP-P2", "SNAP-S1", "SNAP-W2");
+        assertSameCounts(constraintGraph, restored, "SNAP-P3", "SNAP-S2", "SNAP-W3");
+        assertEquals(1, restored.counts("SNAP-P3", "SNAP-S2", "SNAP-W3").productsForWarehouse);
+        assertEquals(2, restored.counts("SNAP-P3", "SNAP-S2", "SNAP-W3").warehousesForStore);
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ A CORRUPT SNAPSHOT IS NOT RESTORED
+    // ---------------------------------------------------------
+    @Test
+    void shouldNotRestoreCorruptSnapshot() throws Exception {
+
+        snapshotter.writeSnapshot();
+        byte[] bytes = Files.readAllBytes(SNAPSHOT);
+        bytes[bytes.length / 2] ^= 0x10;
+        Files.write(SNAPSHOT, bytes);
+
+        FulfilmentConstraintGraph restored = new FulfilmentConstraintGraph();
+        assertFalse(restore(restored));
+        assertFalse(restored.isLoaded());
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ AN ASSIGNMENT DELETED SINCE THE SNAPSHOT IS NOTICED
+    // ---------------------------------------------------------
+    @Test
+    void shouldNotRestoreSnapshotWithDeletedAssignment() {
+
+        snapshotter.writeSnapshot();
+        archive("SNAP-W1");
+        removeAssignmentsOf("SNAP-W1");
+
+        FulfilmentConstraintGraph restored = new FulfilmentConstraintGraph();
+        assertFalse(restore(restored));
+        assertFalse(restored.isLoaded());
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ A LATE COMMIT ABOVE THE SNAPSHOT'S IDS IS REPLAYED
+    // ---------------------------------------------------------
+    @Test
+    void shouldReplayAssignmentAboveSnapshotIds() {
+
+        snapshotter.writeSnapshot();
+        // created before the watermark but committed after the scan
+        assign("SNAP-P3", "SNAP-S2", "SNAP-W3", LocalDateTime.now().minusHours(1));
+
+        FulfilmentConstraintGraph restored = new FulfilmentConstraintGraph();
+        assertTrue(restore(restored));
+
+        assertSameCounts(constraintGraph, restored, "SNAP-P3", "SNAP-S2", "SNAP-W3");
+        assertEquals(1, restored.counts("SNAP-P3", "SNAP-S2", "SNAP-W3").productsForWarehouse);
+    }
+
+    // ---------------------------------------------------------
+    // 5️⃣ AN ARCHIVED WAREHOUSE WITH UNCHANGED ASSIGNMENTS IS RESTORED
+    // ---------------------------------------------------------
+    @Test
+    void shouldRestoreSnapshotOfArchivedWarehouseNotCleanedUpYet() {
+
+        snapshotter.writeSnapshot();
+        archive("SNAP-W2");
+
+        FulfilmentConstraintGraph restored = new FulfilmentConstraintGraph();
+        assertTrue(restore(restored));
+
+        assertSameCounts(constraintGraph, restored, "SNAP-P2", "SNAP-S2", "SNAP-W2");
+    }
+
+    // ---------------------------------------------------------
+    // 6️⃣ STARTUP FALLS BACK TO THE WHOLE TABLE
+    // ---------------------------------------------------------
+    @Test
+    void shouldLoadWholeTableWhenSnapshotDoesNotMatch() {
+
+        snapshotter.writeSnapshot();
+        archive("SNAP-W1");
+        removeAssignmentsOf("SNAP-W1");
+        assign("SNAP-P3", "SNAP-S2", "SNAP-W3", LocalDateTime.now().minusHours(1));
+
+        snapshotter.loadConstraintGraph(null);
+
+        assertTrue(constraintGraph.isLoaded());
+        assertEquals(0, constraintGraph.counts("SNAP-P1", "SNAP-S1", "SNAP-W1").productsForWarehouse);
+        assertEquals(1, constraintGraph.counts("SNAP-P3", "SNAP-S2", "SNAP-W3").productsForWarehouse);
+        assertEquals(2, constraintGraph.counts("SNAP-P3", "SNAP-S2", "SNAP-W3").warehousesForStore);
+    }
+
+    private boolean restore(FulfilmentConstraintGraph graph) {
+        return QuarkusTransaction.requiringNew().call(() -> snapshotter.restore(graph));
+    }
+
+    private void assign(String product, String store, String warehouse, LocalDateTime createdAt) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            DbFulfilmentAssignment assignment = existing(product, store, warehouse);
+            assignment.createdAt = createdAt;
+            repository.persist(assignment);
+        });
+    }
+
+    private void archive(String warehouse) {
+        QuarkusTransaction.requiringNew().run(() -> {
+            DbWarehouse archived = new DbWarehouse();
+            archived.businessUnitCode = warehouse;
+            archived.location = "ZWOLLE-001";
+            archived.capacity = 10;
+            archived.stock = 0;
+            archived.createdAt = LocalDateTime.now().minusDays(1);
+            archived.archivedAt = LocalDateTime.now();
+            repository.getEntityManager().persist(archived);
+        });
+    }
+
+    private void removeAssignmentsOf(String warehouse) {
+        // through the repository, so that the live graph lets go of them too
+        while (QuarkusTransaction.requiringNew().call(() ->
+                repository.deleteChunkOfWarehouse(warehouse, LocalDateTime.now(), 1000)) > 0) {
+            // next chunk
+        }
+    }
+
+    private static void assertSameCounts(FulfilmentConstraintGraph expected, FulfilmentConstraintGraph actual,
+                                         String product, String store, String warehouse) {
+        FulfilmentCounts want = expected.counts(product, store, warehouse);
+        FulfilmentCounts got = actual.counts(product, store, warehouse);
+        assertEquals(want.warehousesForProductInStore, got.warehousesForProductInStore);
+        assertEquals(want.warehousesForStore, got.warehousesForStore);
+        assertEquals(want.productsForWarehouse, got.productsForWarehouse);
+    }
+}
@@ -0,0 +1,23 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+
+import java.util.Map;
+
+/**
+ * {@link FulfilmentLimitStressTest} with Postgres advisory locks, where the limits are counted in
+ * the database instead of the in-memory graph.
+ */
+@QuarkusTest
+@TestProfile(FulfilmentLimitAdvisoryStressTest.AdvisoryLocking.class)
+class FulfilmentLimitAdvisoryStressTest extends FulfilmentLimitStressTest {
+
+    public static class AdvisoryLocking implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("fulfilment.locking.mode", "advisory");
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentCounts;
+import com.fulfilment.application.monolith.fulfillments.domains.usecases.FulfilmentService;
+import com.fulfilment.application.monolith.fulfillments.exceptions.FulfilmentConcurrentModificationException;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@link FulfilmentService#assignWarehouseToProductAndStore} from many threads against a
+ * small, hot set of stores and warehouses, with {@link FulfilmentLimitLock} in local mode and the
+ * limits counted in {@link FulfilmentConstraintGraph}, and checks that no committed state ever
+ * breaks a limit. Every tenth assignment is rolled back after it went through. Throughput and
+ * outcomes are logged; {@link FulfilmentLimitAdvisoryStressTest} runs the same in advisory mode.
+ */
+@QuarkusTest
+class FulfilmentLimitStressTest {
+
+    private static final Logger LOGGER = Logger.getLogger(FulfilmentLimitStressTest.class.getName());
+
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+
+    private static final int PRODUCTS = 10;
+    private static final int STORES = 4;
+    private static final int WAREHOUSES = 6;
+
+    @Inject
+    FulfilmentService service;
+
+    @Inject
+    FulfilmentAssignmentRepository repository;
+
+    @Inject
+    FulfilmentLimitLock limitLock;
+
+    @InjectMock
+    ReferenceCodeFilters referenceCodes;
+
+    private final AtomicInteger accepted = new AtomicInteger();
+
+    private final AtomicInteger rolledBack = new AtomicInteger();
+
+    private final AtomicInteger rejected = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        when(referenceCodes.exists(any(), anyString())).thenReturn(true);
+        removeAssignments();
+    }
+
+    @AfterEach
+    void tearDown() {
+        removeAssignments();
+    }
+
+    // ---------------------------------------------------------
+    // 1️⃣ LIMITS HOLD UNDER CONCURRENT ASSIGNMENTS
+    // ---------------------------------------------------------
+    @Test
+    void shouldNeverExceedLimitsUnderConcurrentAssignments() throws Exception {
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    assign(product(random.nextInt(PRODUCTS)), store(random.nextInt(STORES)),
+                            warehouse(random.nextInt(WAREHOUSES)), random.nextInt(10) == 0);
+                }
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(120, TimeUnit.SECONDS);
+        }
+        long elapsed = System.nanoTime() - began;
+        pool.shutdown();
+
+        int attempts = THREADS * ATTEMPTS_PER_THREAD;
+        LOGGER.infof("%s locking: %d assignment attempts in %d ms (%.0f/s), %d committed, %d rolled back, %d rejected",
+                limitLock.isDistributed() ? "advisory" : "local", attempts, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                attempts / (elapsed / 1e9), accepted.get(), rolledBack.get(), rejected.get());
+
+        List<List<String>> committed = committedAssignments();
+        assertEquals(attempts, accepted.get() + rolledBack.get() + rejected.get());
+        assertEquals(accepted.get(), committed.size());
+        assertEquals(committed.size(), new HashSet<>(committed).size(), "no assignment is stored twice");
+        assertLimitsHold(committed);
+        assertTrue(rejected.get() > 0, "the key space is small enough to hit the limits");
+
+        // the counts the service decides on match the committed assignments, rolled back
+        // reservations are gone from the graph
+        for (List<String> a : committed) {
+            FulfilmentCounts counts = QuarkusTransaction.requiringNew().call(() ->
+                    repository.countLimits(a.get(0), a.get(1), a.get(2)));
+            assertEquals(recount(a, committed), List.of(
+                    counts.warehousesForProductInStore, counts.warehousesForStore, counts.productsForWarehouse));
+        }
+    }
+
+    private void assign(String product, String store, String warehouse, boolean rollback) {
+        try {
+            QuarkusTransaction.requiringNew().run(() -> {
+                service.assignWarehouseToProductAndStore(product, store, warehouse);
+                if (rollback) {
+                    QuarkusTransaction.setRollbackOnly();
+                }
+            });
+            (rollback ? rolledBack : accepted).incrementAndGet();
+        } catch (FulfilmentConcurrentModificationException ex) {
+            fail("lock timed out: " + ex.getMessage());
+        } catch (RuntimeException ex) {
+            // a limit, or the unique constraint for an assignment that already exists
+            rejected.incrementAndGet();
+        }
+    }
+
+    private List<List<String>> committedAssignments() {
+        return QuarkusTransaction.requiringNew().call(() -> repository
+                .list("storeCode like ?1", "STRESS-S%")
+                .stream()
+                .map(a -> List.of(a.productCode, a.storeCode, a.warehouseCode))
+                .toList());
+    }
+
+    private void removeAssignments() {
+        // through the repository, so that the graph and the lookup cache let go of them too
+        for (int w = 0; w < WAREHOUSES; w++) {
+            String code = warehouse(w);
+            while (QuarkusTransaction.requiringNew().call(() ->
+                    repository.deleteChunkOfWarehouse(code, LocalDateTime.now(), 1000)) > 0) {
+                // next chunk
+            }
+        }
+    }
+
+    private static String product(int i) {
+        return "STRESS-P" + i;
+    }
+
+    private static String store(int i) {
+        return "STRESS-S" + i;
+    }
+
+    private static String warehouse(int i) {
+        return "STRESS-W" + i;
+    }
+
+    private static void assertLimitsHold(List<List<String>> assignments) {
+        Map<String, Set<String>> warehousesForProductInStore = new HashMap<>();
+        Map<String, Set<String>> warehousesForStore = new HashMap<>();
+        Map<String, Set<String>> productsForWarehouse = new HashMap<>();
+        for (List<String> a : assignments) {
+            warehousesForProductInStore.computeIfAbsent(a.get(0) + "/" + a.get(1), k -> new HashSet<>()).add(a.get(2));
+            warehousesForStore.computeIfAbsent(a.get(1), k -> new HashSet<>()).add(a.get(2));
+            productsForWarehouse.computeIfAbsent(a.get(2), k -> new HashSet<>()).add(a.get(0));
+        }
+        warehousesForProductInStore.forEach((key, warehouses) -> assertTrue(warehouses.size() <= 2, key));
+        warehousesForStore.forEach((key, warehouses) -> assertTrue(warehouses.size() <= 3, key));
+        productsForWarehouse.forEach((key, products) -> assertTrue(products.size() <= 5, key));
+    }
+
+    private static List<Long> recount(List<String> of, List<List<String>> assignments) {
+        long productInStore = assignments.stream()
+                .filter(a -> a.get(0).equals(of.get(0)) && a.get(1).equals(of.get(1))).count();
+        long store = assignments.stream()
+                .filter(a -> a.get(1).equals(of.get(1))).map(a -> a.get(2)).distinct().count();
+        long warehouse = assignments.stream()
+                .filter(a -> a.get(2).equals(of.get(2))).map(a -> a.get(0)).distinct().count();
+        return List.of(productInStore, store, warehouse);
+    }
+}
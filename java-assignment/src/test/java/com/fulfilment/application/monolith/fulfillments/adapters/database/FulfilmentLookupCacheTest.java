@@ -0,0 +1,55 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FulfilmentLookupCacheTest {
+
+    private final FulfilmentLookupCache cache =
+            new FulfilmentLookupCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    // ---------------------------------------------------------
+    // 1️⃣ REPEATED LOOKUPS ARE SERVED FROM THE CACHE
+    // ---------------------------------------------------------
+    @Test
+    void shouldLoadEachLookupOnce() {
+
+        assertEquals(List.of("W1", "W2"), cache.warehousesOfStore("S1", () -> load("W1", "W2")));
+        assertEquals(List.of("W1", "W2"), cache.warehousesOfStore("S1", () -> load("W9")));
+
+        assertEquals(1, loads.get());
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ AN ASSIGNMENT INVALIDATES ITS THREE LOOKUPS ONLY
+    // ---------------------------------------------------------
+    @Test
+    void shouldInvalidateLookupsOfTheAssignment() {
+
+        cache.warehousesOfStore("S1", () -> load("W1"));
+        cache.warehousesOfProductInStore("P1", "S1", () -> load("W1"));
+        cache.productsOfWarehouse("W1", () -> load("P1"));
+        cache.warehousesOfStore("S2", () -> load("W1"));
+
+        cache.invalidate("P1", "S1", "W2");
+
+        assertEquals(List.of("W1", "W2"), cache.warehousesOfStore("S1", () -> load("W1", "W2")));
+        assertEquals(List.of("W1", "W2"), cache.warehousesOfProductInStore("P1", "S1", () -> load("W1", "W2")));
+        // W1 and S2 are not part of the assignment
+        assertEquals(List.of("P1"), cache.productsOfWarehouse("W1", () -> load("P1", "P2")));
+        assertEquals(List.of("W1"), cache.warehousesOfStore("S2", () -> load("W3")));
+    }
+
+    private List<String> load(String... codes) {
+        loads.incrementAndGet();
+        return List.of(codes);
+    }
+}
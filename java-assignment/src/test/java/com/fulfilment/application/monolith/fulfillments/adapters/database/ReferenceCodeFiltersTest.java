@@ -0,0 +1,151 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.database;
+
+import com.fulfilment.application.monolith.fulfillments.adapters.database.ReferenceCodeFilters.Kind;
+import com.fulfilment.application.monolith.products.Product;
+import com.fulfilment.application.monolith.products.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The code filters against the codes of import.sql. Writes through the API reach the filters by
+ * their events; writes straight to the database stand in for another instance, which only the
+ * refresh and the confirmation TTL pick up.
+ */
+@QuarkusTest
+@TestProfile(ReferenceCodeFiltersTest.ManualRefresh.class)
+class ReferenceCodeFiltersTest {
+
+    public static class ManualRefresh implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "quarkus.scheduler.enabled", "false",
+                    "fulfilment.code-filter.confirmed-ttl", "1s");
+        }
+    }
+
+    @Inject
+    ReferenceCodeFilters filters;
+
+    @Inject
+    ProductRepository products;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    // ---------------------------------------------------------
+    // 1️⃣ THE SEEDED CODES ARE LOADED AT STARTUP
+    // ---------------------------------------------------------
+    @Test
+    void shouldLoadExistingCodesAtStartup() {
+
+        assertTrue(filters.exists(Kind.PRODUCT, "KALLAX"));
+        assertTrue(filters.exists(Kind.STORE, "TONSTAD"));
+        assertTrue(filters.exists(Kind.WAREHOUSE, "MWH.001"));
+
+        double rejectedBefore = lookups("rejected");
+        assertFalse(filters.exists(Kind.PRODUCT, "UNKNOWN-PRODUCT"));
+        assertEquals(rejectedBefore + 1, lookups("rejected"));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ A PRODUCT CREATED THROUGH THE API IS LET IN AT ONCE
+    // ---------------------------------------------------------
+    @Test
+    void shouldAddCreatedProduct() {
+
+        create("FILTER-CREATED");
+
+        assertTrue(filters.exists(Kind.PRODUCT, "FILTER-CREATED"));
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ DELETED AND RENAMED PRODUCTS ARE TURNED DOWN
+    // ---------------------------------------------------------
+    @Test
+    void shouldRemoveDeletedAndRenamedProducts() {
+
+        long deleted = create("FILTER-DELETED");
+        long renamed = create("FILTER-OLD");
+        // confirmed and cached before they go
+        assertTrue(filters.exists(Kind.PRODUCT, "FILTER-DELETED"));
+        assertTrue(filters.exists(Kind.PRODUCT, "FILTER-OLD"));
+
+        given().when().delete("product/" + deleted).then().statusCode(204);
+        given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("name", "FILTER-NEW"))
+                .when()
+                .put("product/" + renamed)
+                .then()
+                .statusCode(200);
+
+        assertFalse(filters.exists(Kind.PRODUCT, "FILTER-DELETED"));
+        assertFalse(filters.exists(Kind.PRODUCT, "FILTER-OLD"));
+        assertTrue(filters.exists(Kind.PRODUCT, "FILTER-NEW"));
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ A CODE WRITTEN ELSEWHERE IS MISSED UNTIL THE REFRESH
+    // ---------------------------------------------------------
+    @Test
+    void shouldLetInCodeWrittenElsewhereOnceRefreshed() {
+
+        QuarkusTransaction.requiringNew().run(() -> products.persist(new Product("FILTER-ELSEWHERE")));
+
+        // the false negative the refresh interval bounds
+        assertFalse(filters.exists(Kind.PRODUCT, "FILTER-ELSEWHERE"));
+
+        filters.refresh();
+
+        assertTrue(filters.exists(Kind.PRODUCT, "FILTER-ELSEWHERE"));
+        assertTrue(filters.exists(Kind.PRODUCT, "KALLAX"));
+        assertFalse(filters.exists(Kind.PRODUCT, "UNKNOWN-PRODUCT"));
+    }
+
+    // ---------------------------------------------------------
+    // 5️⃣ A CODE DELETED ELSEWHERE EXPIRES FROM THE CONFIRMATIONS
+    // ---------------------------------------------------------
+    @Test
+    void shouldForgetCodeDeletedElsewhereAfterTtl() throws Exception {
+
+        create("FILTER-EXPIRED");
+        assertTrue(filters.exists(Kind.PRODUCT, "FILTER-EXPIRED"));
+
+        QuarkusTransaction.requiringNew().run(() -> products.delete("name", "FILTER-EXPIRED"));
+
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (filters.exists(Kind.PRODUCT, "FILTER-EXPIRED")) {
+            assertTrue(System.nanoTime() < deadline, "confirmation of FILTER-EXPIRED did not expire");
+            Thread.sleep(100);
+        }
+    }
+
+    private static long create(String name) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(Map.of("name", name))
+                .when()
+                .post("product")
+                .then()
+                .statusCode(201)
+                .extract()
+                .jsonPath()
+                .getLong("id");
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.counter("fulfilment.code-filter.lookups", "result", result).count();
+    }
+}
@@ -0,0 +1,128 @@
+package com.fulfilment.application.monolith.fulfillments.adapters.rest;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The cached reverse lookups end to end: answers are cached after the first read and must follow
+ * assignments made through POST /fulfilment and assignments removed when a warehouse is archived.
+ * Runs in its own application, so archiving a seeded warehouse does not leak into other tests.
+ */
+@QuarkusTest
+@TestProfile(FulfilmentLookupEndpointTest.OwnApplication.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class FulfilmentLookupEndpointTest {
+
+    public static class OwnApplication implements QuarkusTestProfile {
+    }
+
+    private static final String STORE_WAREHOUSES = "/fulfilment/stores/TONSTAD/warehouses";
+
+    private static final String PRODUCT_IN_STORE_WAREHOUSES = "/fulfilment/stores/TONSTAD/products/KALLAX/warehouses";
+
+    private static final String WAREHOUSE_PRODUCTS = "/fulfilment/warehouses/MWH.023/products";
+
+    // ---------------------------------------------------------
+    // 1️⃣ NOTHING ASSIGNED YET, AND THAT IS CACHED
+    // ---------------------------------------------------------
+    @Test
+    @Order(1)
+    void shouldAnswerEmptyListsBeforeAnyAssignment() {
+
+        for (int read = 0; read < 2; read++) {
+            given().when().get(STORE_WAREHOUSES).then().statusCode(200).body("size()", is(0));
+            given().when().get(PRODUCT_IN_STORE_WAREHOUSES).then().statusCode(200).body("size()", is(0));
+            given().when().get(WAREHOUSE_PRODUCTS).then().statusCode(200).body("size()", is(0));
+        }
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ AN ASSIGNMENT INVALIDATES THE CACHED ANSWERS
+    // ---------------------------------------------------------
+    @Test
+    @Order(2)
+    void shouldSeeAssignmentsRightAfterTheyAreMade() {
+
+        assign("KALLAX", "TONSTAD", "MWH.023");
+        assign("BESTÅ", "TONSTAD", "MWH.001");
+
+        given()
+        .when()
+            .get(STORE_WAREHOUSES)
+        .then()
+            .statusCode(200)
+            .body("", contains("MWH.001", "MWH.023"));
+
+        given()
+        .when()
+            .get(PRODUCT_IN_STORE_WAREHOUSES)
+        .then()
+            .statusCode(200)
+            .body("", contains("MWH.023"));
+
+        given()
+        .when()
+            .get(WAREHOUSE_PRODUCTS)
+        .then()
+            .statusCode(200)
+            .body("", contains("KALLAX"));
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ ARCHIVING THE WAREHOUSE INVALIDATES THEM AGAIN
+    // ---------------------------------------------------------
+    @Test
+    @Order(3)
+    void shouldDropAssignmentsOfArchivedWarehouse() throws Exception {
+
+        given()
+        .when()
+            .delete("/warehouse/MWH.023")
+        .then()
+            .statusCode(204);
+
+        // the assignments are deleted in the background once the archiving committed
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!List.of("MWH.001").equals(get(STORE_WAREHOUSES))) {
+            assertTrue(System.nanoTime() < deadline, "assignments of MWH.023 were not cleaned up");
+            Thread.sleep(50);
+        }
+
+        given().when().get(PRODUCT_IN_STORE_WAREHOUSES).then().statusCode(200).body("size()", is(0));
+        given().when().get(WAREHOUSE_PRODUCTS).then().statusCode(200).body("size()", is(0));
+    }
+
+    private static void assign(String product, String store, String warehouse) {
+        given()
+            .contentType(ContentType.JSON)
+            .body(Map.of("productCode", product, "storeCode", store, "warehouseCode", warehouse))
+        .when()
+            .post("/fulfilment")
+        .then()
+            .statusCode(201);
+    }
+
+    private static List<String> get(String path) {
+        return given()
+                .when()
+                .get(path)
+                .then()
+                .statusCode(200)
+                .extract()
+                .jsonPath()
+                .getList("", String.class);
+    }
+}
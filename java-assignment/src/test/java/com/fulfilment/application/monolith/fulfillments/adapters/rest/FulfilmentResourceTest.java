@@ -1,16 +1,30 @@
 package com.fulfilment.application.monolith.fulfillments.adapters.rest;
 
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentAssignmentResult;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentRequest;
 import com.fulfilment.application.monolith.fulfillments.domains.usecases.FulfilmentService;
+import com.fulfilment.application.monolith.fulfillments.exceptions.StoreFulfilmentLimitExceededException;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.InjectMock;
 import io.restassured.http.ContentType;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
+import static com.fulfilment.application.monolith.fulfillments.FulfilmentFixtures.request;
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @QuarkusTest
 class FulfilmentResourceTest {
@@ -65,4 +79,65 @@ class FulfilmentResourceTest {
                 .then()
                 .statusCode(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
     }
+
+    // ---------------------------------------------------------
+    // 📦 BATCH: ONE RESULT PER REQUEST, IN ORDER
+    // ---------------------------------------------------------
+    @Test
+    void shouldReportEveryBatchItem() {
+
+        FulfilmentRequest first = request("P1", "S1", "W1");
+        FulfilmentRequest second = request("P2", "S1", "W4");
+        FulfilmentRequest third = request("P3", "S2", "W2");
+        when(service.assignAll(anyList())).thenReturn(List.of(
+                FulfilmentAssignmentResult.accepted(first),
+                FulfilmentAssignmentResult.rejected(second,
+                        new StoreFulfilmentLimitExceededException("Store S1 already fulfilled by 3 warehouses")),
+                FulfilmentAssignmentResult.rejected(third, new IllegalStateException("boom"))));
+
+        String body = """
+            [
+              { "productCode": "P1", "storeCode": "S1", "warehouseCode": "W1" },
+              { "productCode": "P2", "storeCode": "S1", "warehouseCode": "W4" },
+              { "productCode": "P3", "storeCode": "S2", "warehouseCode": "W2" }
+            ]
+        """;
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .post("/fulfilment/batch")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .body("productCode", contains("P1", "P2", "P3"))
+                .body("accepted", contains(true, false, false))
+                .body("[0].code", nullValue())
+                .body("[1].code", equalTo("STORE_FULFILMENT_LIMIT_EXCEEDED"))
+                .body("[1].message", equalTo("Store S1 already fulfilled by 3 warehouses"))
+                // unexpected failures are not leaked to the caller
+                .body("[2].code", equalTo("INTERNAL_SERVER_ERROR"))
+                .body("[2].message", equalTo("An unexpected error occurred"));
+
+        verify(service).assignAll(argThat(requests -> requests.size() == 3
+                && "W4".equals(requests.get(1).warehouseCode)));
+    }
+
+    // ---------------------------------------------------------
+    // 📦 BATCH: A MISSING BODY IS A VALIDATION ERROR
+    // ---------------------------------------------------------
+    @Test
+    void shouldRejectBatchWithoutBody() {
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("null")
+                .when()
+                .post("/fulfilment/batch")
+                .then()
+                .statusCode(Response.Status.BAD_REQUEST.getStatusCode())
+                .body("code", equalTo("VALIDATION_ERROR"));
+
+        verify(service, never()).assignAll(any());
+    }
 }
@@ -0,0 +1,55 @@
+package com.fulfilment.application.monolith.fulfillments.domains.usecases;
+
+import com.fulfilment.application.monolith.fulfillments.adapters.database.FulfilmentAssignmentRepository;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@QuarkusTest
+class FulfilmentCleanupServiceTest {
+
+    @Inject
+    FulfilmentCleanupService cleanupService;
+
+    @InjectMock
+    FulfilmentAssignmentRepository repository;
+
+    // ------------------------------------------------------
+    // 1️⃣ DELETES CHUNK BY CHUNK UNTIL A SHORT CHUNK
+    // ------------------------------------------------------
+
+    @Test
+    void shouldDeleteInChunksUntilNothingIsLeft() {
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        when(repository.deleteChunkOfWarehouse(eq("MWH.001"), eq(archivedAt), anyInt()))
+                .thenReturn(500, 500, 12);
+
+        cleanupService.cleanUp("MWH.001", archivedAt);
+
+        verify(repository, times(3)).deleteChunkOfWarehouse("MWH.001", archivedAt, 500);
+    }
+
+    // ------------------------------------------------------
+    // 2️⃣ A FAILING CHUNK STOPS THE CLEANUP
+    // ------------------------------------------------------
+
+    @Test
+    void shouldStopAtFailingChunk() {
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        when(repository.deleteChunkOfWarehouse(eq("MWH.001"), eq(archivedAt), anyInt()))
+                .thenReturn(500)
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        cleanupService.cleanUp("MWH.001", archivedAt);
+
+        verify(repository, times(2)).deleteChunkOfWarehouse("MWH.001", archivedAt, 500);
+    }
+}
@@ -0,0 +1,192 @@
+package com.fulfilment.application.monolith.fulfillments.domains.usecases;
+
+import com.fulfilment.application.monolith.fulfillments.adapters.database.DbFulfilmentAssignment;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.FulfilmentAssignmentRepository;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.ReferenceCodeFilters;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.ReferenceCodeFilters.Kind;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentCounts;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentDemand;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentPlan;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentRequest;
+import com.fulfilment.application.monolith.fulfillments.exceptions.FulfilmentReferenceNotFoundException;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fulfilment.application.monolith.fulfillments.FulfilmentFixtures.existing;
+import static com.fulfilment.application.monolith.fulfillments.FulfilmentFixtures.item;
+import static com.fulfilment.application.monolith.fulfillments.FulfilmentFixtures.warehouse;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FulfilmentPlannerTest {
+
+    private final FulfilmentPlanner planner =
+            new FulfilmentPlanner(null, null, null, 4, Duration.ofMillis(200), Duration.ofSeconds(1));
+
+    @AfterEach
+    void close() {
+        planner.close();
+    }
+
+    // ---------------------------------------------------------
+    // 1️⃣ FULFILS ALL DEMAND WHEN THE LIMITS ALLOW IT
+    // ---------------------------------------------------------
+    @Test
+    void shouldFulfilAllDemandWithinLimits() {
+
+        // 8 products per store need 2 warehouses each (max 5 products per warehouse)
+        List<FulfilmentRequest> items = new ArrayList<>();
+        for (String store : List.of("S1", "S2", "S3")) {
+            for (int p = 1; p <= 8; p++) {
+                items.add(item("P" + p, store));
+            }
+        }
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (int w = 1; w <= 6; w++) {
+            warehouses.add(warehouse("W" + w, 100, 10 * w));
+        }
+
+        FulfilmentPlan plan = planner.search(items, warehouses, List.of(), Duration.ofMillis(200));
+
+        assertEquals(1.0, plan.score);
+        assertTrue(plan.unfulfilled.isEmpty());
+        assertEquals(24, plan.assignments.size());
+        assertReplaysWithinLimits(List.of(), plan.assignments);
+        assertTrue(plan.attempts > 1);
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ EXISTING ASSIGNMENTS COUNT TOWARD DEMAND AND LIMITS
+    // ---------------------------------------------------------
+    @Test
+    void shouldHonourExistingAssignments() {
+
+        // S1 already has its 3 warehouses, P1 among them
+        List<DbFulfilmentAssignment> existing = List.of(
+                existing("P1", "S1", "W1"), existing("P2", "S1", "W2"), existing("P3", "S1", "W3"));
+
+        FulfilmentPlan plan = planner.search(List.of(item("P1", "S1"), item("P4", "S1")),
+                List.of(warehouse("W1", 100, 0), warehouse("W4", 100, 0)), existing, Duration.ofMillis(50));
+
+        assertEquals(0.5, plan.score);
+        assertTrue(plan.assignments.isEmpty());
+        assertEquals("P4", plan.unfulfilled.get(0).productCode);
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ FULL WAREHOUSES ARE NOT USED
+    // ---------------------------------------------------------
+    @Test
+    void shouldSkipWarehousesWithoutFreeCapacity() {
+
+        FulfilmentPlan plan = planner.search(List.of(item("P1", "S1")),
+                List.of(warehouse("W1", 50, 50), warehouse("W2", 50, 49)), List.of(), Duration.ofMillis(50));
+
+        assertEquals("W2", plan.assignments.get(0).warehouseCode);
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ STAYS WITHIN THE TIME BUDGET
+    // ---------------------------------------------------------
+    @Test
+    void shouldStopAtTheTimeBudget() {
+
+        List<FulfilmentRequest> items = new ArrayList<>();
+        for (int s = 1; s <= 50; s++) {
+            for (int p = 1; p <= 10; p++) {
+                items.add(item("P" + p, "S" + s));
+            }
+        }
+        List<Warehouse> warehouses = new ArrayList<>();
+        for (int w = 1; w <= 40; w++) {
+            warehouses.add(warehouse("W" + w, 100, w));
+        }
+
+        FulfilmentPlan plan = planner.search(items, warehouses, List.of(), Duration.ofMillis(100));
+
+        assertTrue(plan.elapsedMillis < 1000, "took " + plan.elapsedMillis + " ms");
+        assertReplaysWithinLimits(List.of(), plan.assignments);
+    }
+
+    // ---------------------------------------------------------
+    // 5️⃣ ATTEMPTS ONLY ADD TO THEIR OWN OVERLAY
+    // ---------------------------------------------------------
+    @Test
+    void shouldKeepSharedExistingStateUntouched() {
+
+        FulfilmentBatchState existing = new FulfilmentBatchState(
+                List.of(existing("P1", "S1", "W1"), existing("P2", "S1", "W2")));
+        FulfilmentBatchState attempt = existing.overlay();
+
+        attempt.add("P1", "S1", "W2");
+        attempt.add("P1", "S1", "W1");
+
+        FulfilmentCounts seen = attempt.counts("P1", "S1", "W2");
+        assertEquals(2, seen.warehousesForProductInStore);
+        assertEquals(2, seen.warehousesForStore);
+        assertEquals(2, seen.productsForWarehouse);
+        assertTrue(attempt.contains("P1", "S1", "W2"));
+        assertTrue(attempt.warehouseHasProduct("W1", "P1"));
+
+        FulfilmentCounts shared = existing.counts("P1", "S1", "W2");
+        assertEquals(1, shared.warehousesForProductInStore);
+        assertEquals(2, shared.warehousesForStore);
+        assertEquals(1, shared.productsForWarehouse);
+        assertFalse(existing.contains("P1", "S1", "W2"));
+    }
+
+    // ---------------------------------------------------------
+    // 6️⃣ UNKNOWN CODES ARE TURNED DOWN AS BY THE BATCH
+    // ---------------------------------------------------------
+    @Test
+    void shouldTurnDownUnknownCodesAndSkipUnknownWarehouses() {
+
+        ReferenceCodeFilters referenceCodes = mock(ReferenceCodeFilters.class);
+        when(referenceCodes.exists(any(), any())).thenReturn(true);
+        when(referenceCodes.exists(Kind.PRODUCT, "UNKNOWN")).thenReturn(false);
+        when(referenceCodes.exists(Kind.WAREHOUSE, "W2")).thenReturn(false);
+        WarehouseStore warehouseStore = mock(WarehouseStore.class);
+        when(warehouseStore.getAll()).thenReturn(List.of(warehouse("W1", 100, 90), warehouse("W2", 100, 0)));
+        FulfilmentAssignmentRepository repository = mock(FulfilmentAssignmentRepository.class);
+        when(repository.findByStoresOrWarehouses(any(), any())).thenReturn(List.of());
+
+        FulfilmentPlanner checked = new FulfilmentPlanner(
+                repository, warehouseStore, referenceCodes, 1, Duration.ofMillis(20), Duration.ofSeconds(1));
+        try {
+            assertThrows(FulfilmentReferenceNotFoundException.class,
+                    () -> checked.plan(List.of(demand("S1", "P1", "UNKNOWN")), null));
+
+            // W2 has more room but is not known yet, so the batch would turn it down
+            FulfilmentPlan plan = checked.plan(List.of(demand("S1", "P1")), null);
+            assertEquals("W1", plan.assignments.get(0).warehouseCode);
+        } finally {
+            checked.close();
+        }
+    }
+
+    private static FulfilmentDemand demand(String store, String... products) {
+        FulfilmentDemand demand = new FulfilmentDemand();
+        demand.storeCode = store;
+        demand.productCodes = List.of(products);
+        return demand;
+    }
+
+    private static void assertReplaysWithinLimits(List<DbFulfilmentAssignment> existing,
+                                                  List<FulfilmentRequest> assignments) {
+        FulfilmentBatchState state = new FulfilmentBatchState(existing);
+        for (FulfilmentRequest a : assignments) {
+            assertFalse(state.contains(a.productCode, a.storeCode, a.warehouseCode));
+            assertTrue(FulfilmentService.isWithinLimits(state.counts(a.productCode, a.storeCode, a.warehouseCode)),
+                    a.productCode + "/" + a.storeCode + "/" + a.warehouseCode);
+            state.add(a.productCode, a.storeCode, a.warehouseCode);
+        }
+    }
+}
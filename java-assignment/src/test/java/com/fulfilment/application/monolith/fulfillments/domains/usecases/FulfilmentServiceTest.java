@@ -2,19 +2,33 @@ package com.fulfilment.application.monolith.fulfillments.domains.usecases;
 
 import com.fulfilment.application.monolith.fulfillments.adapters.database.DbFulfilmentAssignment;
 import com.fulfilment.application.monolith.fulfillments.adapters.database.FulfilmentAssignmentRepository;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.FulfilmentLimitLock;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.ReferenceCodeFilters;
+import com.fulfilment.application.monolith.fulfillments.adapters.database.ReferenceCodeFilters.Kind;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentAssignmentResult;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentCounts;
+import com.fulfilment.application.monolith.fulfillments.domains.models.FulfilmentRequest;
+import com.fulfilment.application.monolith.fulfillments.exceptions.FulfilmentAlreadyExistsException;
+import com.fulfilment.application.monolith.fulfillments.exceptions.FulfilmentReferenceNotFoundException;
 import com.fulfilment.application.monolith.fulfillments.exceptions.ProductFulfilmentLimitExceededException;
 import com.fulfilment.application.monolith.fulfillments.exceptions.StoreFulfilmentLimitExceededException;
 import com.fulfilment.application.monolith.fulfillments.exceptions.WarehouseProductLimitExceededException;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.InjectMock;
 import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.MockitoAnnotations;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
+import static com.fulfilment.application.monolith.fulfillments.FulfilmentFixtures.existing;
+import static com.fulfilment.application.monolith.fulfillments.FulfilmentFixtures.request;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -28,25 +42,38 @@ class FulfilmentServiceTest {
     @InjectMock
     FulfilmentAssignmentRepository repository;
 
+    @InjectMock
+    FulfilmentLimitLock limitLock;
+
+    @InjectMock
+    ReferenceCodeFilters referenceCodes;
+
+    // @Captor fields are not initialised by @QuarkusTest itself
+    @Captor
+    ArgumentCaptor<List<DbFulfilmentAssignment>> persistedCaptor;
+
+    private AutoCloseable captors;
+
+    @BeforeEach
+    void allCodesExist() {
+        captors = MockitoAnnotations.openMocks(this);
+        when(referenceCodes.exists(any(), anyString())).thenReturn(true);
+    }
+
+    @AfterEach
+    void closeCaptors() throws Exception {
+        captors.close();
+    }
+
     // ------------------------------------------------------
     // ✅ SUCCESS CASE
     // ------------------------------------------------------
 
-    //@Test
+    @Test
     void shouldPersistAssignmentWhenAllConstraintsAreSatisfied() {
 
-        when(repository.count(anyString(), anyString()))
-                .thenReturn(1L); // < 2 OK
-
-        when(repository.find("storeCode", "S1")
-                .project(String.class)
-                .list())
-                .thenReturn(List.of("W1", "W2")); // distinct 2 < 3 OK
-
-        when(repository.find("warehouseCode", "W1")
-                .project(String.class)
-                .list())
-                .thenReturn(List.of("P1", "P2")); // distinct 2 < 5 OK
+        when(repository.countLimits("P1", "S1", "W1"))
+                .thenReturn(new FulfilmentCounts(1, 2, 2)); // 1 < 2, 2 < 3, 2 < 5 OK
 
         service.assignWarehouseToProductAndStore("P1", "S1", "W1");
 
@@ -67,66 +94,51 @@ class FulfilmentServiceTest {
     // ❌ PRODUCT LIMIT EXCEEDED
     // ------------------------------------------------------
 
-    //@Test
+    @Test
     void shouldThrowProductLimitExceededException() {
 
-        when(repository.count(anyString(), any(), any()))
-                .thenReturn(2L); // limit reached
+        when(repository.countLimits("P1", "S1", "W1"))
+                .thenReturn(new FulfilmentCounts(2, 2, 2)); // limit reached
 
         assertThrows(ProductFulfilmentLimitExceededException.class, () ->
                 service.assignWarehouseToProductAndStore("P1", "S1", "W1")
         );
 
-        verify(repository, never()).persist(Collections.singleton(any()));
+        verify(repository, never()).persist(any(DbFulfilmentAssignment.class));
     }
 
     // ------------------------------------------------------
     // ❌ STORE LIMIT EXCEEDED
     // ------------------------------------------------------
 
-    //@Test
+    @Test
     void shouldThrowStoreLimitExceededException() {
 
-        when(repository.count(anyString(), any(), any()))
-                .thenReturn(1L);
-
-        when(repository.find("storeCode", "S1")
-                .project(String.class)
-                .list())
-                .thenReturn(List.of("W1", "W2", "W3")); // 3 distinct
+        when(repository.countLimits("P1", "S1", "W1"))
+                .thenReturn(new FulfilmentCounts(1, 3, 2)); // 3 distinct warehouses
 
         assertThrows(StoreFulfilmentLimitExceededException.class, () ->
                 service.assignWarehouseToProductAndStore("P1", "S1", "W1")
         );
 
-        verify(repository, never()).persist(Collections.singleton(any()));
+        verify(repository, never()).persist(any(DbFulfilmentAssignment.class));
     }
 
     // ------------------------------------------------------
     // ❌ WAREHOUSE LIMIT EXCEEDED
     // ------------------------------------------------------
 
-    //@Test
+    @Test
     void shouldThrowWarehouseProductLimitExceededException() {
 
-        when(repository.count(anyString(), any(), any()))
-                .thenReturn(1L);
-
-        when(repository.find("storeCode", "S1")
-                .project(String.class)
-                .list())
-                .thenReturn(List.of("W1")); // < 3 OK
-
-        when(repository.find("warehouseCode", "W1")
-                .project(String.class)
-                .list())
-                .thenReturn(List.of("P1", "P2", "P3", "P4", "P5")); // 5 distinct
+        when(repository.countLimits("P1", "S1", "W1"))
+                .thenReturn(new FulfilmentCounts(1, 1, 5)); // 5 distinct products
 
         assertThrows(WarehouseProductLimitExceededException.class, () ->
                 service.assignWarehouseToProductAndStore("P1", "S1", "W1")
         );
 
-        verify(repository, never()).persist(Collections.singleton(any()));
+        verify(repository, never()).persist(any(DbFulfilmentAssignment.class));
     }
 
     // ------------------------------------------------------
@@ -134,17 +146,108 @@ class FulfilmentServiceTest {
     // Product limit must short-circuit others
     // ------------------------------------------------------
 
-    //@Test
-    void shouldNotCheckOtherConstraintsIfProductLimitFails() {
+    @Test
+    void shouldReportProductLimitFirstWhenSeveralLimitsAreReached() {
 
-        when(repository.count(anyString(), Optional.ofNullable(any())))
-                .thenReturn(2L);
+        when(repository.countLimits("P1", "S1", "W1"))
+                .thenReturn(new FulfilmentCounts(2, 3, 5));
 
         assertThrows(ProductFulfilmentLimitExceededException.class, () ->
                 service.assignWarehouseToProductAndStore("P1", "S1", "W1")
         );
 
-        verify(repository, never()).find(anyString(), Optional.ofNullable(any()));
-        verify(repository, never()).persist(Collections.singleton(any()));
+        // a single aggregated query, no per-limit lookups
+        verify(repository, times(1)).countLimits("P1", "S1", "W1");
+        verify(repository, never()).count(anyString(), any(Object[].class));
+        verify(repository, never()).find(anyString(), any(Object[].class));
+        verify(repository, never()).persist(any(DbFulfilmentAssignment.class));
+    }
+
+    // ------------------------------------------------------
+    // 🔒 STORE AND WAREHOUSE ARE LOCKED BEFORE COUNTING
+    // ------------------------------------------------------
+
+    @Test
+    void shouldLockStoreAndWarehouseBeforeCountingLimits() {
+
+        when(repository.countLimits("P1", "S1", "W1"))
+                .thenReturn(new FulfilmentCounts(0, 0, 0));
+
+        service.assignWarehouseToProductAndStore("P1", "S1", "W1");
+
+        InOrder inOrder = inOrder(limitLock, repository);
+        inOrder.verify(limitLock).lock("S1", "W1");
+        inOrder.verify(repository).countLimits("P1", "S1", "W1");
+        inOrder.verify(repository).persist(any(DbFulfilmentAssignment.class));
+    }
+
+    // ------------------------------------------------------
+    // 📦 BATCH: LATER ITEMS SEE EARLIER ONES
+    // ------------------------------------------------------
+
+    @Test
+    void shouldApplyBatchItemsAgainstEarlierAcceptedItems() {
+
+        // S1 is already fulfilled by W1 and W2
+        when(repository.findByStoresOrWarehouses(any(), any()))
+                .thenReturn(List.of(existing("P1", "S1", "W1"), existing("P2", "S1", "W2")));
+
+        List<FulfilmentAssignmentResult> results = service.assignAll(List.of(
+                request("P1", "S1", "W2"),   // P1 now fulfilled by W1 and W2
+                request("P1", "S1", "W3"),   // third warehouse for P1 in S1
+                request("P3", "S1", "W3"),   // third warehouse of S1
+                request("P4", "S1", "W4"),   // a fourth one is over the limit
+                request("P3", "S1", "W3"))); // same as an earlier item
+
+        assertEquals(List.of(true, false, true, false, false),
+                results.stream().map(FulfilmentAssignmentResult::isAccepted).toList());
+        assertInstanceOf(ProductFulfilmentLimitExceededException.class, results.get(1).rejection);
+        assertInstanceOf(StoreFulfilmentLimitExceededException.class, results.get(3).rejection);
+        assertInstanceOf(FulfilmentAlreadyExistsException.class, results.get(4).rejection);
+
+        // one lookup for the whole batch, the accepted items inserted together
+        verify(repository, times(1)).findByStoresOrWarehouses(Set.of("S1"), Set.of("W2", "W3", "W4"));
+        verify(repository, never()).countLimits(anyString(), anyString(), anyString());
+
+        verify(repository).persistAll(persistedCaptor.capture());
+        assertEquals(List.of("W2", "W3"),
+                persistedCaptor.getValue().stream().map(assignment -> assignment.warehouseCode).toList());
+    }
+
+    // ------------------------------------------------------
+    // 📦 BATCH: INCOMPLETE ITEMS ARE REJECTED ALONE
+    // ------------------------------------------------------
+
+    @Test
+    void shouldRejectIncompleteBatchItemsWithoutFailingTheBatch() {
+
+        when(repository.findByStoresOrWarehouses(any(), any())).thenReturn(List.of());
+
+        List<FulfilmentAssignmentResult> results = service.assignAll(List.of(
+                request("P1", null, "W1"),
+                request("P1", "S1", "W1")));
+
+        assertFalse(results.get(0).isAccepted());
+        assertInstanceOf(jakarta.validation.ValidationException.class, results.get(0).rejection);
+        assertTrue(results.get(1).isAccepted());
+        verify(limitLock).lockAll(Set.of("S1"), Set.of("W1"));
+    }
+
+    // ------------------------------------------------------
+    // ❌ UNKNOWN CODES ARE REJECTED BEFORE LOCKING
+    // ------------------------------------------------------
+
+    @Test
+    void shouldRejectUnknownWarehouseWithoutLockingOrCounting() {
+
+        when(referenceCodes.exists(Kind.WAREHOUSE, "W404")).thenReturn(false);
+
+        assertThrows(FulfilmentReferenceNotFoundException.class, () ->
+                service.assignWarehouseToProductAndStore("P1", "S1", "W404")
+        );
+
+        verifyNoInteractions(limitLock);
+        verify(repository, never()).countLimits(any(), any(), any());
+        verify(repository, never()).persist(any(DbFulfilmentAssignment.class));
     }
 }
@@ -0,0 +1,126 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogLocationGatewayTest {
+
+    @TempDir
+    Path tempDir;
+
+    // ---------------------------------------------------------
+    // 1️⃣ BUILT-IN LOCATIONS WHEN NO CATALOG IS CONFIGURED
+    // ---------------------------------------------------------
+    @Test
+    void shouldResolveBuiltInLocationsWithoutCatalog() {
+
+        CatalogLocationGateway gateway = new CatalogLocationGateway(Optional.empty());
+
+        Location location = gateway.resolveByIdentifier("ZWOLLE-001");
+
+        assertNotNull(location);
+        assertEquals(1, location.maxNumberOfWarehouses);
+        assertEquals(40, location.maxCapacity);
+        assertNull(gateway.resolveByIdentifier("UNKNOWN-001"));
+        assertNull(gateway.resolveByIdentifier(null));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ LOAD FROM CATALOG FILE
+    // ---------------------------------------------------------
+    @Test
+    void shouldResolveLocationsFromCatalogFile() throws IOException {
+
+        Path catalog = Files.writeString(tempDir.resolve("locations.csv"), """
+                # identification,maxNumberOfWarehouses,maxCapacity
+                UTRECHT-001,4,120
+
+                ROTTERDAM-001, 2, 60
+                """);
+
+        CatalogLocationGateway gateway = new CatalogLocationGateway(Optional.of(catalog.toString()));
+
+        assertEquals(120, gateway.resolveByIdentifier("UTRECHT-001").maxCapacity);
+        assertEquals(2, gateway.resolveByIdentifier("ROTTERDAM-001").maxNumberOfWarehouses);
+        assertNull(gateway.resolveByIdentifier("ZWOLLE-001"));
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ RELOAD SWAPS THE SNAPSHOT
+    // ---------------------------------------------------------
+    @Test
+    void shouldSwapSnapshotOnReload() throws IOException {
+
+        Path catalog = Files.writeString(tempDir.resolve("locations.csv"), "UTRECHT-001,4,120\n");
+        CatalogLocationGateway gateway = new CatalogLocationGateway(Optional.of(catalog.toString()));
+
+        Files.writeString(catalog, "UTRECHT-001,5,150\nDELFT-001,1,30\n");
+        gateway.reload();
+
+        assertEquals(150, gateway.resolveByIdentifier("UTRECHT-001").maxCapacity);
+        assertNotNull(gateway.resolveByIdentifier("DELFT-001"));
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ INVALID CATALOG KEEPS THE CURRENT SNAPSHOT
+    // ---------------------------------------------------------
+    @Test
+    void shouldKeepCurrentSnapshotWhenReloadFails() throws IOException {
+
+        Path catalog = Files.writeString(tempDir.resolve("locations.csv"), "UTRECHT-001,4,120\n");
+        CatalogLocationGateway gateway = new CatalogLocationGateway(Optional.of(catalog.toString()));
+
+        Files.writeString(catalog, "UTRECHT-001,not-a-number,120\n");
+        gateway.reload();
+
+        assertEquals(120, gateway.resolveByIdentifier("UTRECHT-001").maxCapacity);
+    }
+
+    // ---------------------------------------------------------
+    // 5️⃣ AN EMPTY CATALOG KEEPS THE CURRENT SNAPSHOT
+    // ---------------------------------------------------------
+    @Test
+    void shouldKeepCurrentSnapshotWhenCatalogIsEmpty() throws IOException {
+
+        Path catalog = Files.writeString(tempDir.resolve("locations.csv"), "UTRECHT-001,4,120\n");
+        CatalogLocationGateway gateway = new CatalogLocationGateway(Optional.of(catalog.toString()));
+
+        // what the watcher sees right after the writer truncated the file
+        Files.writeString(catalog, "");
+        gateway.reload();
+        Files.writeString(catalog, "# identification,maxNumberOfWarehouses,maxCapacity\n\n");
+        gateway.reload();
+
+        assertEquals(120, gateway.resolveByIdentifier("UTRECHT-001").maxCapacity);
+        assertThrows(IllegalArgumentException.class, () -> LocationCatalog.load(catalog));
+    }
+
+    // ---------------------------------------------------------
+    // 6️⃣ A LOCATION LISTED TWICE IS REJECTED
+    // ---------------------------------------------------------
+    @Test
+    void shouldRejectDuplicateLocations() throws IOException {
+
+        Path catalog = Files.writeString(tempDir.resolve("locations.csv"), "UTRECHT-001,4,120\n");
+        CatalogLocationGateway gateway = new CatalogLocationGateway(Optional.of(catalog.toString()));
+
+        Files.writeString(catalog, "UTRECHT-001,5,150\nDELFT-001,1,30\nUTRECHT-001,1,10\n");
+        gateway.reload();
+
+        assertEquals(120, gateway.resolveByIdentifier("UTRECHT-001").maxCapacity);
+        assertNull(gateway.resolveByIdentifier("DELFT-001"));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                LocationCatalog.of(List.of(new Location("DELFT-001", 1, 30), new Location("DELFT-001", 2, 60))));
+        assertTrue(exception.getMessage().contains("DELFT-001"), exception.getMessage());
+    }
+}
@@ -0,0 +1,88 @@
+package com.fulfilment.application.monolith.location;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the linear scan of {@link LocationGateway} with the hash index of
+ * {@link LocationCatalog}, which backs {@link CatalogLocationGateway}, for growing numbers of
+ * locations: the built-in ones plus synthetic ones.
+ *
+ * <p>Not part of the test suite; run {@link #main} from the test classpath after
+ * {@code ./mvnw test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationResolverBenchmark {
+
+  @Param({"8", "1000", "10000"})
+  int locations;
+
+  private List<Location> all;
+
+  private LocationCatalog catalog;
+
+  private String[] identifiers;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    all = new ArrayList<>(LocationGateway.defaultLocations());
+    int synthetic = Math.max(0, locations - all.size());
+    for (int i = 0; i < synthetic; i++) {
+      all.add(new Location("SYNTHETIC-" + i, 2, 100));
+    }
+
+    identifiers = all.stream().map(location -> location.identification).toArray(String[]::new);
+    catalog = LocationCatalog.of(all);
+  }
+
+  @Benchmark
+  public Location linearScan() {
+    // what LocationGateway.resolveByIdentifier does over its built-in list
+    String identifier = randomIdentifier();
+    return all
+            .stream()
+            .filter(location -> location.identification.equals(identifier))
+            .findFirst()
+            .orElse(null);
+  }
+
+  @Benchmark
+  public Location hashIndexedSnapshot() {
+    return catalog.get(randomIdentifier());
+  }
+
+  private String randomIdentifier() {
+    return identifiers[ThreadLocalRandom.current().nextInt(identifiers.length)];
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(LocationResolverBenchmark.class.getSimpleName())
+            .build())
+            .run();
+  }
+}
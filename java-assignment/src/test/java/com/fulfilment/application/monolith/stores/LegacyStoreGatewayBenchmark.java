@@ -0,0 +1,88 @@
+package com.fulfilment.application.monolith.stores;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of {@link LegacyStoreManagerGateway} per store event: the temp-file round trip
+ * against the group-committed journal, with eight concurrent callers.
+ *
+ * <p>Not part of the test suite; run {@link #main} from the test classpath after
+ * {@code ./mvnw test-compile}. The temp-file mode prints to stdout on every call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class LegacyStoreGatewayBenchmark {
+
+  private LegacyStoreManagerGateway tempFileGateway;
+
+  private LegacyStoreManagerGateway journalGateway;
+
+  private Path journalDirectory;
+
+  private Store store;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    journalDirectory = Files.createTempDirectory("legacy-store-journal");
+    tempFileGateway = new LegacyStoreManagerGateway();
+    journalGateway = new LegacyStoreManagerGateway(
+        LegacyStoreJournal.open(journalDirectory, 64 << 20), Duration.ofSeconds(5));
+
+    store = new Store("TONSTAD");
+    store.id = 1L;
+    store.quantityProductsInStock = 10;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    journalGateway.close();
+    try (Stream<Path> files = Files.walk(journalDirectory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  @Benchmark
+  public void tempFile() {
+    tempFileGateway.updateStoreOnLegacySystem(store);
+  }
+
+  @Benchmark
+  public void journal() {
+    journalGateway.updateStoreOnLegacySystem(store);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(LegacyStoreGatewayBenchmark.class.getSimpleName())
+            .build())
+            .run();
+  }
+}
@@ -0,0 +1,199 @@
+package com.fulfilment.application.monolith.stores;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LegacyStoreJournalTest {
+
+    @TempDir
+    Path directory;
+
+    // ---------------------------------------------------------
+    // 1️⃣ RECORDS ARE APPENDED LENGTH-PREFIXED
+    // ---------------------------------------------------------
+    @Test
+    void shouldAppendLengthPrefixedRecords() throws Exception {
+
+        try (LegacyStoreJournal journal = LegacyStoreJournal.open(directory, 4096)) {
+            journal.append(bytes("TONSTAD")).get(5, TimeUnit.SECONDS);
+            journal.append(bytes("KALLAX")).get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of("TONSTAD", "KALLAX"), records(0));
+        assertEquals(4096, Files.size(LegacyStoreJournal.segmentPath(directory, 0)));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ REOPENING CONTINUES AFTER THE LAST RECORD
+    // ---------------------------------------------------------
+    @Test
+    void shouldContinueAfterLastRecordWhenReopened() throws Exception {
+
+        try (LegacyStoreJournal journal = LegacyStoreJournal.open(directory, 4096)) {
+            journal.append(bytes("TONSTAD")).get(5, TimeUnit.SECONDS);
+        }
+        try (LegacyStoreJournal journal = LegacyStoreJournal.open(directory, 4096)) {
+            journal.append(bytes("BESTÅ")).get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of("TONSTAD", "BESTÅ"), records(0));
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ FULL SEGMENTS ROTATE
+    // ---------------------------------------------------------
+    @Test
+    void shouldRotateFullSegments() throws Exception {
+
+        List<CompletableFuture<Void>> appends = new ArrayList<>();
+        try (LegacyStoreJournal journal = LegacyStoreJournal.open(directory, 64)) {
+            for (int i = 0; i < 10; i++) {
+                appends.add(journal.append(bytes("STORE-" + i)));
+            }
+            CompletableFuture.allOf(appends.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        }
+
+        List<String> all = new ArrayList<>();
+        for (int i = 0; Files.exists(LegacyStoreJournal.segmentPath(directory, i)); i++) {
+            all.addAll(records(i));
+        }
+        assertTrue(Files.exists(LegacyStoreJournal.segmentPath(directory, 1)));
+        assertEquals(10, all.size());
+        assertEquals("STORE-0", all.get(0));
+        assertEquals("STORE-9", all.get(9));
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ OVERSIZED RECORDS ARE REJECTED
+    // ---------------------------------------------------------
+    @Test
+    void shouldRejectRecordLargerThanSegment() throws Exception {
+
+        try (LegacyStoreJournal journal = LegacyStoreJournal.open(directory, 64)) {
+            assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[64]));
+        }
+    }
+
+    // ---------------------------------------------------------
+    // 5️⃣ REOPENING STOPS AT A TORN RECORD
+    // ---------------------------------------------------------
+    @Test
+    void shouldOverwriteTornRecordWhenReopened() throws Exception {
+
+        try (LegacyStoreJournal journal = LegacyStoreJournal.open(directory, 4096)) {
+            journal.append(bytes("TONSTAD")).get(5, TimeUnit.SECONDS);
+            journal.append(bytes("KALLAX")).get(5, TimeUnit.SECONDS);
+        }
+        // flip a payload byte of the second record, as if the crash hit halfway through it
+        Path segment = LegacyStoreJournal.segmentPath(directory, 0);
+        byte[] content = Files.readAllBytes(segment);
+        content[8 + 7 + 8] ^= 0x01;
+        Files.write(segment, content);
+
+        try (LegacyStoreJournal journal = LegacyStoreJournal.open(directory, 4096)) {
+            journal.append(bytes("BESTÅ")).get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of("TONSTAD", "BESTÅ"), records(0));
+    }
+
+    // ---------------------------------------------------------
+    // 6️⃣ AN INTERRUPTED WRITER STOPS AND REJECTS NEW RECORDS
+    // ---------------------------------------------------------
+    @Test
+    void shouldStopWhenWriterIsInterrupted() throws Exception {
+
+        try (LegacyStoreJournal journal = LegacyStoreJournal.open(directory, 4096)) {
+            journal.append(bytes("TONSTAD")).get(5, TimeUnit.SECONDS);
+
+            Thread writer = Thread.getAllStackTraces().keySet().stream()
+                    .filter(thread -> thread.getName().equals("legacy-store-journal") && thread.isAlive())
+                    .findFirst()
+                    .orElseThrow();
+            writer.interrupt();
+            writer.join(5_000);
+
+            assertFalse(writer.isAlive());
+            assertThrows(IllegalStateException.class, () -> journal.append(bytes("KALLAX")));
+        }
+
+        assertEquals(List.of("TONSTAD"), records(0));
+    }
+
+    // ---------------------------------------------------------
+    // 7️⃣ EVERY ACCEPTED RECORD IS WRITTEN, EVEN WHEN CLOSING MEANWHILE
+    // ---------------------------------------------------------
+    @Test
+    void shouldCompleteEveryAcceptedRecordWhenClosedConcurrently() throws Exception {
+
+        LegacyStoreJournal journal = LegacyStoreJournal.open(directory, 1 << 20);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<CompletableFuture<Void>>>> appenders = new ArrayList<>();
+        try {
+            for (int t = 0; t < 4; t++) {
+                appenders.add(executor.submit(() -> {
+                    start.await();
+                    List<CompletableFuture<Void>> accepted = new ArrayList<>();
+                    try {
+                        while (true) {
+                            accepted.add(journal.append(bytes("STORE")));
+                        }
+                    } catch (IllegalStateException closed) {
+                        return accepted;
+                    }
+                }));
+            }
+            start.countDown();
+            Thread.sleep(20);
+            journal.close();
+
+            int accepted = 0;
+            for (Future<List<CompletableFuture<Void>>> appender : appenders) {
+                for (CompletableFuture<Void> record : appender.get(5, TimeUnit.SECONDS)) {
+                    assertTrue(record.isDone());
+                    assertFalse(record.isCompletedExceptionally());
+                    accepted++;
+                }
+            }
+            assertTrue(accepted > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<String> records(int segment) throws Exception {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(LegacyStoreJournal.segmentPath(directory, segment)));
+        List<String> records = new ArrayList<>();
+        while (buffer.remaining() >= 8) {
+            int length = buffer.getInt();
+            if (length == 0) {
+                break;
+            }
+            buffer.getInt();
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            records.add(new String(payload, StandardCharsets.UTF_8));
+        }
+        return records;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,44 @@
+package com.fulfilment.application.monolith.stores;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The default temp-file mode of the gateway, i.e. without a journal.
+ */
+class LegacyStoreManagerGatewayTest {
+
+    private final LegacyStoreManagerGateway gateway = new LegacyStoreManagerGateway();
+
+    // ---------------------------------------------------------
+    // 1️⃣ A WRITTEN STORE RETURNS NORMALLY
+    // ---------------------------------------------------------
+    @Test
+    void shouldWriteStoreToTempFile() {
+
+        assertDoesNotThrow(() -> gateway.createStoreOnLegacySystem(store("TONSTAD")));
+        assertDoesNotThrow(() -> gateway.updateStoreOnLegacySystem(store("TONSTAD")));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ A FAILED WRITE REACHES THE CALLER
+    // ---------------------------------------------------------
+    @Test
+    void shouldRethrowFailedWrite() {
+
+        // longer than any file system allows for a file name
+        Store store = store("X".repeat(300));
+
+        assertThrows(UncheckedIOException.class, () -> gateway.createStoreOnLegacySystem(store));
+        assertThrows(UncheckedIOException.class, () -> gateway.updateStoreOnLegacySystem(store));
+    }
+
+    private static Store store(String name) {
+        Store store = new Store(name);
+        store.quantityProductsInStock = 5;
+        return store;
+    }
+}
@@ -0,0 +1,78 @@
+package com.fulfilment.application.monolith.stores.outbox;
+
+import com.fulfilment.application.monolith.stores.Store;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.faulttolerance.api.CircuitBreakerMaintenance;
+import io.smallrye.faulttolerance.api.CircuitBreakerState;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.faulttolerance.exceptions.CircuitBreakerOpenException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@QuarkusTest
+@TestProfile(LegacyStorePropagatorTest.FailingLegacySystem.class)
+class LegacyStorePropagatorTest {
+
+    private static final String PROPAGATE = LegacyStorePropagator.class.getName() + "/propagate";
+
+    public static class FailingLegacySystem implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "legacy.store.gateway.stand-in", "true",
+                    "legacy.store.gateway.stand-in.failure-rate", "1",
+                    PROPAGATE + "/CircuitBreaker/requestVolumeThreshold", "4",
+                    PROPAGATE + "/CircuitBreaker/delay", "60000");
+        }
+    }
+
+    @Inject
+    LegacyStorePropagator propagator;
+
+    @Inject
+    CircuitBreakerMaintenance circuitBreakerMaintenance;
+
+    @AfterEach
+    void resetCircuit() {
+        circuitBreakerMaintenance.reset(LegacyStorePropagator.CIRCUIT);
+    }
+
+    // ---------------------------------------------------------
+    // 1️⃣ FAILURES OF THE LEGACY SYSTEM REACH THE CALLER
+    // ---------------------------------------------------------
+    @Test
+    void shouldPropagateLegacyFailure() {
+
+        assertThrows(IllegalStateException.class,
+                () -> propagator.propagate(StoreOutboxEvent.Type.CREATED, store()));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ CIRCUIT OPENS AND SHEDS LOAD
+    // ---------------------------------------------------------
+    @Test
+    void shouldOpenCircuitAfterRepeatedFailures() {
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IllegalStateException.class,
+                    () -> propagator.propagate(StoreOutboxEvent.Type.UPDATED, store()));
+        }
+
+        assertEquals(CircuitBreakerState.OPEN, circuitBreakerMaintenance.currentState(LegacyStorePropagator.CIRCUIT));
+        assertThrows(CircuitBreakerOpenException.class,
+                () -> propagator.propagate(StoreOutboxEvent.Type.UPDATED, store()));
+    }
+
+    private static Store store() {
+        Store store = new Store("TONSTAD");
+        store.id = 1L;
+        store.quantityProductsInStock = 10;
+        return store;
+    }
+}
@@ -0,0 +1,76 @@
+package com.fulfilment.application.monolith.stores.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StoreOutboxDispatcherTest {
+
+    private final StoreOutboxDispatcher dispatcher =
+            new StoreOutboxDispatcher(null, 100, Duration.ofSeconds(1), Duration.ofMinutes(5),
+                    Duration.ZERO, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    // ---------------------------------------------------------
+    // 1️⃣ BACKOFF DOUBLES PER ATTEMPT
+    // ---------------------------------------------------------
+    @Test
+    void shouldDoubleBackoffPerAttempt() {
+
+        assertEquals(Duration.ofSeconds(1), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(2), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(8), dispatcher.backoff(4));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ BACKOFF IS CAPPED
+    // ---------------------------------------------------------
+    @Test
+    void shouldCapBackoff() {
+
+        assertEquals(Duration.ofMinutes(5), dispatcher.backoff(10));
+        assertEquals(Duration.ofMinutes(5), dispatcher.backoff(Integer.MAX_VALUE));
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ ONLY THE LATEST UPDATE PER STORE IS KEPT
+    // ---------------------------------------------------------
+    @Test
+    void shouldSupersedeAllButLatestUpdatePerStore() {
+
+        StoreOutboxEvent created = event(1L, 1L, StoreOutboxEvent.Type.CREATED);
+        StoreOutboxEvent firstUpdate = event(2L, 1L, StoreOutboxEvent.Type.UPDATED);
+        StoreOutboxEvent otherStore = event(3L, 2L, StoreOutboxEvent.Type.UPDATED);
+        StoreOutboxEvent secondUpdate = event(4L, 1L, StoreOutboxEvent.Type.UPDATED);
+        StoreOutboxEvent lastUpdate = event(5L, 1L, StoreOutboxEvent.Type.UPDATED);
+
+        Set<Long> superseded = StoreOutboxDispatcher.superseded(
+                List.of(created, firstUpdate, otherStore, secondUpdate, lastUpdate));
+
+        assertEquals(Set.of(2L, 4L), superseded);
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ CREATIONS ARE NEVER COLLAPSED
+    // ---------------------------------------------------------
+    @Test
+    void shouldKeepCreationsAndUpdatesAroundThem() {
+
+        StoreOutboxEvent update = event(1L, 1L, StoreOutboxEvent.Type.UPDATED);
+        StoreOutboxEvent created = event(2L, 1L, StoreOutboxEvent.Type.CREATED);
+
+        assertTrue(StoreOutboxDispatcher.superseded(List.of(update, created)).isEmpty());
+    }
+
+    private static StoreOutboxEvent event(Long id, Long storeId, StoreOutboxEvent.Type type) {
+        StoreOutboxEvent event = new StoreOutboxEvent();
+        event.id = id;
+        event.storeId = storeId;
+        event.type = type;
+        return event;
+    }
+}
@@ -0,0 +1,225 @@
+package com.fulfilment.application.monolith.stores.outbox;
+
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.StoreCreated;
+import com.fulfilment.application.monolith.stores.StoreUpdated;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Outbox round trip against the database: events written with the store change and drained by
+ * {@link StoreOutboxDispatcher}, with the legacy propagation mocked. The scheduler is off, so
+ * every dispatch in here is an explicit call.
+ */
+@QuarkusTest
+@TestProfile(StoreOutboxTest.ManualDispatch.class)
+class StoreOutboxTest {
+
+    public static class ManualDispatch implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "quarkus.scheduler.enabled", "false",
+                    "store.outbox.batch-size", "2",
+                    "store.outbox.coalesce-window", "0s");
+        }
+    }
+
+    @InjectMock
+    LegacyStorePropagator propagator;
+
+    @Inject
+    StoreOutboxDispatcher dispatcher;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    @StoreCreated
+    Event<Store> storeCreatedEvent;
+
+    @Inject
+    @StoreUpdated
+    Event<Store> storeUpdatedEvent;
+
+    @AfterEach
+    void tearDown() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            StoreOutboxEvent.deleteAll();
+            Store.delete("name like ?1", "OUTBOX-%");
+        });
+    }
+
+    // ---------------------------------------------------------
+    // 1️⃣ THE EVENT COMMITS AND ROLLS BACK WITH THE STORE
+    // ---------------------------------------------------------
+    @Test
+    void shouldWriteEventInTheStoreTransaction() {
+
+        Long storeId = createStore("OUTBOX-COMMITTED");
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            Store store = new Store("OUTBOX-ROLLED-BACK");
+            store.persist();
+            storeCreatedEvent.fire(store);
+            QuarkusTransaction.setRollbackOnly();
+        });
+
+        List<StoreOutboxEvent> events = events();
+        assertEquals(1, events.size());
+        assertEquals(storeId, events.get(0).storeId);
+        assertEquals(StoreOutboxEvent.Type.CREATED, events.get(0).type);
+        assertEquals("OUTBOX-COMMITTED", events.get(0).name);
+        assertEquals(0L, QuarkusTransaction.requiringNew().call(
+                () -> Store.count("name", "OUTBOX-ROLLED-BACK")));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ A DELIVERED EVENT IS DELETED
+    // ---------------------------------------------------------
+    @Test
+    void shouldDeleteDeliveredEvent() {
+
+        Long storeId = createStore("OUTBOX-DELIVERED");
+
+        dispatcher.dispatch();
+
+        verify(propagator).propagate(eq(StoreOutboxEvent.Type.CREATED), argThat(store -> storeId.equals(store.id)));
+        assertTrue(events().isEmpty());
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ A FAILED DELIVERY IS SCHEDULED FOR A RETRY
+    // ---------------------------------------------------------
+    @Test
+    void shouldRecordFailedAttempt() {
+
+        doThrow(new IllegalStateException("legacy down")).when(propagator).propagate(any(), any());
+        createStore("OUTBOX-FAILED");
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.dispatch();
+
+        StoreOutboxEvent event = events().get(0);
+        assertEquals(1, event.attempts);
+        assertTrue(event.nextAttemptAt.isAfter(before));
+        assertEquals("legacy down", event.lastError);
+
+        // not due yet, so a second run leaves it alone
+        dispatcher.dispatch();
+        verify(propagator, times(1)).propagate(any(), any());
+        assertEquals(1, events().get(0).attempts);
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ A STORE'S EVENTS ARE DELIVERED IN ORDER
+    // ---------------------------------------------------------
+    @Test
+    void shouldHoldBackLaterEventsOfFailedStore() {
+
+        Long storeId = createStore("OUTBOX-ORDERED");
+        QuarkusTransaction.requiringNew().run(() -> {
+            Store store = Store.findById(storeId);
+            store.quantityProductsInStock = 5;
+            storeUpdatedEvent.fire(store);
+        });
+        doThrow(new IllegalStateException("legacy down"))
+                .when(propagator).propagate(eq(StoreOutboxEvent.Type.CREATED), any());
+
+        dispatcher.dispatch();
+
+        verify(propagator, never()).propagate(eq(StoreOutboxEvent.Type.UPDATED), any());
+        assertEquals(2, events().size());
+
+        // the creation becomes due again and goes through, the update follows it
+        doNothing().when(propagator).propagate(any(), any());
+        QuarkusTransaction.requiringNew().run(() ->
+                StoreOutboxEvent.update("nextAttemptAt = ?1", LocalDateTime.now().minusSeconds(1)));
+
+        dispatcher.dispatch();
+
+        InOrder inOrder = inOrder(propagator);
+        inOrder.verify(propagator, times(2)).propagate(eq(StoreOutboxEvent.Type.CREATED), any());
+        inOrder.verify(propagator).propagate(eq(StoreOutboxEvent.Type.UPDATED),
+                argThat(store -> store.quantityProductsInStock == 5));
+        assertTrue(events().isEmpty());
+    }
+
+    // ---------------------------------------------------------
+    // 5️⃣ A CLAIMED BATCH IS NOT HANDED OUT TWICE
+    // ---------------------------------------------------------
+    @Test
+    void shouldLeaseClaimedEvents() {
+
+        createStore("OUTBOX-LEASED");
+
+        List<StoreOutboxEvent> first = QuarkusTransaction.requiringNew().call(dispatcher::nextBatch);
+        List<StoreOutboxEvent> second = QuarkusTransaction.requiringNew().call(dispatcher::nextBatch);
+
+        assertEquals(1, first.size());
+        assertTrue(second.isEmpty());
+        assertTrue(events().get(0).nextAttemptAt.isAfter(LocalDateTime.now()));
+    }
+
+    // ---------------------------------------------------------
+    // 6️⃣ UPDATES ARE COLLAPSED BEYOND THE CLAIMED BATCH
+    // ---------------------------------------------------------
+    @Test
+    void shouldSendOnlyLatestPendingUpdateOfStore() {
+
+        Long storeId = createStore("OUTBOX-COLLAPSED");
+        for (int quantity = 2; quantity <= 4; quantity++) {
+            int stock = quantity;
+            QuarkusTransaction.requiringNew().run(() -> {
+                Store store = Store.findById(storeId);
+                store.quantityProductsInStock = stock;
+                storeUpdatedEvent.fire(store);
+            });
+        }
+        double collapsedBefore = meterRegistry.counter("store.outbox.events.collapsed").count();
+
+        // the first batch of two holds the creation and the first update only
+        dispatcher.dispatch();
+
+        InOrder inOrder = inOrder(propagator);
+        inOrder.verify(propagator).propagate(eq(StoreOutboxEvent.Type.CREATED), any());
+        inOrder.verify(propagator).propagate(eq(StoreOutboxEvent.Type.UPDATED),
+                argThat(store -> store.quantityProductsInStock == 4));
+        verify(propagator, times(2)).propagate(any(), any());
+        assertEquals(collapsedBefore + 2, meterRegistry.counter("store.outbox.events.collapsed").count());
+        assertTrue(events().isEmpty());
+    }
+
+    private Long createStore(String name) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Store store = new Store(name);
+            store.quantityProductsInStock = 1;
+            store.persist();
+            storeCreatedEvent.fire(store);
+            return store.id;
+        });
+    }
+
+    private static List<StoreOutboxEvent> events() {
+        return QuarkusTransaction.requiringNew().call(() -> StoreOutboxEvent.<StoreOutboxEvent>listAll());
+    }
+}
@@ -0,0 +1,119 @@
+package com.fulfilment.application.monolith.stores.reconciliation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedMergeDiffTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<String> differences = new ArrayList<>();
+
+    private final SortedMergeDiff.Differences recorder = new SortedMergeDiff.Differences() {
+        @Override
+        public void missing(StoreRow ours) {
+            differences.add("missing " + ours);
+        }
+
+        @Override
+        public void extra(StoreRow legacy) {
+            differences.add("extra " + legacy);
+        }
+
+        @Override
+        public void quantityMismatch(StoreRow ours, StoreRow legacy) {
+            differences.add("mismatch " + ours + " vs " + legacy);
+        }
+    };
+
+    // ---------------------------------------------------------
+    // 1️⃣ REPORTS MISSING, EXTRA AND MISMATCHED STORES
+    // ---------------------------------------------------------
+    @Test
+    void shouldReportAllKindsOfDifferences() {
+
+        SortedMergeDiff.diff(
+                rows("BESTÅ=3", "KALLAX=5", "TONSTAD=10"),
+                rows("EKET=1", "KALLAX=4", "TONSTAD=10"),
+                recorder);
+
+        assertEquals(List.of(
+                "missing BESTÅ=3",
+                "extra EKET=1",
+                "mismatch KALLAX=5 vs KALLAX=4"), differences);
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ ONE SIDE EMPTY
+    // ---------------------------------------------------------
+    @Test
+    void shouldReportEverythingWhenOneSideIsEmpty() {
+
+        SortedMergeDiff.diff(rows("KALLAX=5", "TONSTAD=10"), rows(), recorder);
+
+        assertEquals(List.of("missing KALLAX=5", "missing TONSTAD=10"), differences);
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ UNSORTED INPUT IS REJECTED
+    // ---------------------------------------------------------
+    @Test
+    void shouldRejectUnsortedInput() {
+
+        assertThrows(IllegalStateException.class, () ->
+                SortedMergeDiff.diff(rows("TONSTAD=10", "KALLAX=5"), rows(), recorder));
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ NAMES ARE ORDERED BY CODE POINT LIKE COLLATE "C"
+    // ---------------------------------------------------------
+    @Test
+    void shouldOrderNamesByCodePoint() {
+
+        assertTrue(SortedMergeDiff.compareNames("KALLAX", "kallax") < 0);
+        assertTrue(SortedMergeDiff.compareNames("TONSTAD", "BESTÅ") > 0);
+        // U+1F600 sorts after U+FB01 by code point, but before it by UTF-16 code unit
+        assertTrue(SortedMergeDiff.compareNames("😀", "ﬁ") > 0);
+        assertTrue(SortedMergeDiff.compareNames("KALL", "KALLAX") < 0);
+    }
+
+    // ---------------------------------------------------------
+    // 5️⃣ SNAPSHOT FILE IS STREAMED
+    // ---------------------------------------------------------
+    @Test
+    void shouldDiffAgainstSnapshotFile() throws Exception {
+
+        Path snapshot = directory.resolve("legacy-stores.csv");
+        List<String> lines = new ArrayList<>(List.of("name,quantityProductsInStock"));
+        IntStream.range(0, 10_000).forEach(i -> lines.add(String.format("STORE-%05d,%d", i, i % 7)));
+        Files.write(snapshot, lines);
+
+        try (LegacySnapshotReader legacy = new LegacySnapshotReader(snapshot)) {
+            SortedMergeDiff.diff(rows("STORE-00003=4", "STORE-99999=1"), legacy, recorder);
+        }
+
+        // 9 999 extra, 1 mismatch, 1 missing
+        assertEquals(10_001, differences.size());
+        assertTrue(differences.contains("mismatch STORE-00003=4 vs STORE-00003=3"));
+        assertEquals("missing STORE-99999=1", differences.get(differences.size() - 1));
+    }
+
+    private static Iterator<StoreRow> rows(String... rows) {
+        List<StoreRow> list = new ArrayList<>();
+        for (String row : rows) {
+            String[] parts = row.split("=");
+            list.add(new StoreRow(null, parts[0], Integer.parseInt(parts[1])));
+        }
+        return list.iterator();
+    }
+}
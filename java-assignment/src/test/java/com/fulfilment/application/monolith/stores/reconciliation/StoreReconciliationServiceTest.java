@@ -0,0 +1,119 @@
+package com.fulfilment.application.monolith.stores.reconciliation;
+
+import com.fulfilment.application.monolith.stores.outbox.StoreOutboxEvent;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reconciles the stores of import.sql (BESTÅ=3, KALLAX=5, TONSTAD=10) against snapshots written
+ * to a fixed temp file. The scheduler is off so the outbox rows stay where the diff put them.
+ */
+@QuarkusTest
+@TestProfile(StoreReconciliationServiceTest.TempSnapshot.class)
+class StoreReconciliationServiceTest {
+
+    private static final Path SNAPSHOT =
+            Path.of(System.getProperty("java.io.tmpdir"), "store-reconciliation-test.csv");
+
+    public static class TempSnapshot implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "quarkus.scheduler.enabled", "false",
+                    "store.reconciliation.snapshot-path", SNAPSHOT.toString(),
+                    "store.reconciliation.batch-size", "1");
+        }
+    }
+
+    @Inject
+    StoreReconciliationService service;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        QuarkusTransaction.requiringNew().run(() -> StoreOutboxEvent.deleteAll());
+        Files.deleteIfExists(SNAPSHOT);
+    }
+
+    // ---------------------------------------------------------
+    // 1️⃣ DIFFERENCES ARE REPORTED AND QUEUED
+    // ---------------------------------------------------------
+    @Test
+    void shouldQueueMissingAndMismatchedStores() throws Exception {
+
+        snapshot("name,quantityProductsInStock", "BESTÅ,3", "KALLAX,7", "ZZZ,1");
+
+        StoreReconciliationReport report = service.reconcile();
+
+        assertEquals(1, report.matched);
+        assertEquals(1, report.quantityMismatched);
+        assertEquals(1, report.missing);
+        assertEquals(1, report.extra);
+        assertEquals(2, report.propagated);
+        assertEquals(List.of("KALLAX: 5 (legacy 7)"), report.quantityMismatchedSample);
+        assertEquals(List.of("ZZZ=1"), report.extraSample);
+
+        List<StoreOutboxEvent> queued = outbox();
+        assertEquals(2, queued.size());
+        assertEquals(StoreOutboxEvent.Type.UPDATED, queued.get(0).type);
+        assertEquals("KALLAX", queued.get(0).name);
+        assertEquals(5, queued.get(0).quantityProductsInStock);
+        assertEquals(StoreOutboxEvent.Type.CREATED, queued.get(1).type);
+        assertEquals("TONSTAD", queued.get(1).name);
+        assertNotNull(queued.get(1).storeId);
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ AN UNSORTED SNAPSHOT QUEUES NOTHING
+    // ---------------------------------------------------------
+    @Test
+    void shouldQueueNothingWhenSnapshotTurnsOutUnsorted() throws Exception {
+
+        // BESTÅ and KALLAX are flushed to the outbox before the diff reaches the out of order line
+        snapshot("KALLAX,7", "AAA,1");
+
+        assertThrows(IllegalStateException.class, () -> service.reconcile());
+
+        assertTrue(outbox().isEmpty());
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ THE ENDPOINT TURNS AN UNSORTED SNAPSHOT INTO A 422
+    // ---------------------------------------------------------
+    @Test
+    void shouldAnswerUnprocessableForUnsortedSnapshot() throws Exception {
+
+        snapshot("KALLAX,7", "AAA,1");
+
+        given()
+                .when()
+                .post("admin/store-reconciliation")
+                .then()
+                .statusCode(422);
+
+        assertTrue(outbox().isEmpty());
+    }
+
+    private static void snapshot(String... lines) throws Exception {
+        Files.write(SNAPSHOT, List.of(lines), StandardCharsets.UTF_8);
+    }
+
+    private static List<StoreOutboxEvent> outbox() {
+        return QuarkusTransaction.requiringNew().call(() ->
+                StoreOutboxEvent.<StoreOutboxEvent>findAll(Sort.by("id")).list());
+    }
+}
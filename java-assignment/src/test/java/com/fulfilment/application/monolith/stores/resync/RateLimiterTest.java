@@ -0,0 +1,44 @@
+package com.fulfilment.application.monolith.stores.resync;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    // ---------------------------------------------------------
+    // 1️⃣ PERMITS ARE SPACED AT THE CONFIGURED RATE
+    // ---------------------------------------------------------
+    @Test
+    void shouldSpacePermitsAtConfiguredRate() throws Exception {
+
+        RateLimiter limiter = new RateLimiter(100);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            limiter.acquire();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // ten intervals of 10ms after the first permit
+        assertTrue(elapsedMillis >= 95, "elapsed " + elapsedMillis + "ms");
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ ZERO RATE IS UNLIMITED
+    // ---------------------------------------------------------
+    @Test
+    void shouldNotWaitWhenUnlimited() throws Exception {
+
+        RateLimiter limiter = new RateLimiter(0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            limiter.acquire();
+        }
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+    }
+}
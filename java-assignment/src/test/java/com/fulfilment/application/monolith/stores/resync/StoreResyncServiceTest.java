@@ -0,0 +1,168 @@
+package com.fulfilment.application.monolith.stores.resync;
+
+import com.fulfilment.application.monolith.stores.Store;
+import com.fulfilment.application.monolith.stores.outbox.LegacyStorePropagator;
+import com.fulfilment.application.monolith.stores.outbox.StoreOutboxEvent;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@QuarkusTest
+@TestProfile(StoreResyncServiceTest.SmallChunks.class)
+class StoreResyncServiceTest {
+
+    public static class SmallChunks implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "quarkus.scheduler.enabled", "false",
+                    "store.resync.chunk-size", "2",
+                    "store.resync.rate-limit", "0");
+        }
+    }
+
+    @InjectMock
+    LegacyStorePropagator propagator;
+
+    @Inject
+    StoreResyncService service;
+
+    private List<Long> storeIds;
+
+    @BeforeEach
+    void setUp() {
+        storeIds = QuarkusTransaction.requiringNew().call(() ->
+                Store.<Store>findAll(Sort.by("id")).stream().map(store -> store.id).toList());
+        assertTrue(storeIds.size() >= 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        QuarkusTransaction.requiringNew().run(() -> {
+            StoreResyncCheckpoint.deleteById(StoreResyncService.JOB);
+            StoreOutboxEvent.deleteAll();
+        });
+    }
+
+    // ---------------------------------------------------------
+    // 1️⃣ EVERY STORE IS PROPAGATED AND CHECKPOINTED
+    // ---------------------------------------------------------
+    @Test
+    void shouldPropagateEveryStore() throws Exception {
+
+        service.start(false);
+        StoreResyncProgress progress = awaitFinished();
+
+        assertEquals(StoreResyncCheckpoint.Status.COMPLETED, progress.status);
+        assertEquals(storeIds.size(), progress.processed);
+        assertEquals(0, progress.failed);
+        assertEquals(last(storeIds), progress.lastStoreId);
+        verify(propagator, times(storeIds.size())).propagate(eq(StoreOutboxEvent.Type.UPDATED), any());
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ A RESUMED RUN CONTINUES AFTER THE CHECKPOINT
+    // ---------------------------------------------------------
+    @Test
+    void shouldResumeAfterCheckpoint() throws Exception {
+
+        long checkpointed = storeIds.get(1);
+        QuarkusTransaction.requiringNew().run(() -> {
+            StoreResyncCheckpoint checkpoint = new StoreResyncCheckpoint();
+            checkpoint.job = StoreResyncService.JOB;
+            checkpoint.status = StoreResyncCheckpoint.Status.CANCELLED;
+            checkpoint.lastStoreId = checkpointed;
+            checkpoint.processed = 2;
+            checkpoint.persist();
+        });
+
+        service.start(true);
+        StoreResyncProgress progress = awaitFinished();
+
+        assertEquals(StoreResyncCheckpoint.Status.COMPLETED, progress.status);
+        assertEquals(storeIds.size(), progress.processed);
+        verify(propagator, never()).propagate(any(), argThat(store -> store.id <= checkpointed));
+        verify(propagator, times(storeIds.size() - 2)).propagate(any(), argThat(store -> store.id > checkpointed));
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ A CANCELLED RUN KEEPS ITS CHECKPOINT BEFORE THE ABANDONED CHUNK
+    // ---------------------------------------------------------
+    @Test
+    void shouldStopWhenCancelled() throws Exception {
+
+        CountDownLatch propagating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            propagating.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(propagator).propagate(any(), any());
+
+        service.start(false);
+        assertTrue(propagating.await(5, TimeUnit.SECONDS));
+        service.cancel();
+        release.countDown();
+        StoreResyncProgress progress = awaitFinished();
+
+        assertEquals(StoreResyncCheckpoint.Status.CANCELLED, progress.status);
+        assertEquals(0, progress.lastStoreId);
+        assertEquals(0, progress.processed);
+        verify(propagator, atMost(2)).propagate(any(), any());
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ A FAILED STORE IS QUEUED FOR A RETRY, NOT SKIPPED
+    // ---------------------------------------------------------
+    @Test
+    void shouldQueueFailedStoreInOutbox() throws Exception {
+
+        long failing = storeIds.get(0);
+        doThrow(new IllegalStateException("legacy down"))
+                .when(propagator).propagate(any(), argThat(store -> store.id == failing));
+
+        service.start(false);
+        StoreResyncProgress progress = awaitFinished();
+
+        assertEquals(StoreResyncCheckpoint.Status.COMPLETED, progress.status);
+        assertEquals(1, progress.failed);
+        assertEquals(last(storeIds), progress.lastStoreId);
+        List<StoreOutboxEvent> queued = QuarkusTransaction.requiringNew().call(() -> StoreOutboxEvent.<StoreOutboxEvent>listAll());
+        assertEquals(1, queued.size());
+        assertEquals(failing, queued.get(0).storeId);
+        assertEquals(StoreOutboxEvent.Type.UPDATED, queued.get(0).type);
+    }
+
+    private StoreResyncProgress awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        StoreResyncProgress progress = service.progress();
+        while (progress.status == StoreResyncCheckpoint.Status.RUNNING) {
+            assertTrue(System.nanoTime() < deadline, "store resync did not finish");
+            Thread.sleep(20);
+            progress = service.progress();
+        }
+        return progress;
+    }
+
+    private static long last(List<Long> ids) {
+        return ids.get(ids.size() - 1);
+    }
+}
@@ -0,0 +1,90 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActiveWarehouseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ActiveWarehouseCache cache =
+            new ActiveWarehouseCache(100, Duration.ofMinutes(5), meterRegistry);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    // ---------------------------------------------------------
+    // 1️⃣ READ-THROUGH: SECOND LOOKUP IS A HIT
+    // ---------------------------------------------------------
+    @Test
+    void shouldLoadOnceAndServeFromCache() {
+
+        cache.get("MWH.001", this::load);
+        Warehouse warehouse = cache.get("MWH.001", this::load);
+
+        assertEquals("MWH.001", warehouse.getBusinessUnitCode());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "active-warehouses").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "active-warehouses").tag("result", "miss").functionCounter().count());
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ CALLERS GET THEIR OWN COPY
+    // ---------------------------------------------------------
+    @Test
+    void shouldNotExposeCachedInstanceToCallers() {
+
+        Warehouse first = cache.get("MWH.001", this::load);
+        first.setStock(999);
+
+        assertEquals(10, cache.get("MWH.001", this::load).getStock());
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ INVALIDATION FORCES A RELOAD
+    // ---------------------------------------------------------
+    @Test
+    void shouldReloadAfterInvalidation() {
+
+        cache.get("MWH.001", this::load);
+        cache.invalidate("MWH.001");
+        cache.get("MWH.001", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ ABSENT WAREHOUSES ARE NOT CACHED
+    // ---------------------------------------------------------
+    @Test
+    void shouldNotCacheMissingWarehouses() {
+
+        assertNull(cache.get("UNKNOWN", code -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        cache.get("UNKNOWN", code -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    private Warehouse load(String businessUnitCode) {
+        loads.incrementAndGet();
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode(businessUnitCode);
+        warehouse.setLocation("ZWOLLE-001");
+        warehouse.setCapacity(100);
+        warehouse.setStock(10);
+        return warehouse;
+    }
+}
@@ -0,0 +1,174 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StockWriteBehindBufferTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // stands in for the warehouse table: stock per business unit code, capacity 1 000 000
+    private final Map<String, Long> table = new ConcurrentHashMap<>();
+
+    private final List<Map<String, Long>> flushedBatches = new ArrayList<>();
+
+    private final StockWriteBehindBuffer buffer = new StockWriteBehindBuffer(
+            true, Integer.MAX_VALUE, mock(EntityManager.class, RETURNS_DEEP_STUBS),
+            new ActiveWarehouseCache(100, Duration.ofMinutes(5), meterRegistry), meterRegistry) {
+        @Override
+        List<String> writeBatch(Map<String, Long> batch) {
+            flushedBatches.add(new LinkedHashMap<>(batch));
+            List<String> rejected = new ArrayList<>();
+            batch.forEach((code, delta) -> {
+                long stock = table.getOrDefault(code, 0L) + delta;
+                if (stock < 0 || stock > 1_000_000) {
+                    rejected.add(code);
+                } else {
+                    table.put(code, stock);
+                }
+            });
+            return rejected;
+        }
+    };
+
+    // ---------------------------------------------------------
+    // 1️⃣ DELTAS ARE COALESCED PER WAREHOUSE
+    // ---------------------------------------------------------
+    @Test
+    void shouldFlushOneNetDeltaPerWarehouse() {
+
+        assertTrue(buffer.enqueue("MWH.001", 3, 10, 100));
+        assertTrue(buffer.enqueue("MWH.001", 4, 10, 100));
+        assertTrue(buffer.enqueue("MWH.001", -2, 10, 100));
+        assertTrue(buffer.enqueue("MWH.012", 1, 5, 50));
+
+        buffer.flush();
+        buffer.flush();
+
+        assertEquals(List.of(Map.of("MWH.001", 5L, "MWH.012", 1L)), flushedBatches);
+        assertEquals(4.0, deltas("accepted"));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ NO DELTA IS LOST TO A CONCURRENT FLUSH
+    // ---------------------------------------------------------
+    @Test
+    void shouldNotLoseDeltasEnqueuedWhileFlushing() throws Exception {
+
+        int threads = 8;
+        int deltasPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean enqueuing = new AtomicBoolean(true);
+        try {
+            Future<?> flusher = executor.submit(() -> {
+                start.await();
+                while (enqueuing.get()) {
+                    buffer.flush();
+                }
+                return null;
+            });
+            List<Future<?>> enqueuers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                enqueuers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < deltasPerThread; i++) {
+                        assertTrue(buffer.enqueue("MWH.001", 1, 0, 1_000_000));
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> enqueuer : enqueuers) {
+                enqueuer.get(30, TimeUnit.SECONDS);
+            }
+            enqueuing.set(false);
+            flusher.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        buffer.flush();
+
+        assertEquals((long) threads * deltasPerThread, table.get("MWH.001"));
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ OUT OF RANGE DELTAS ARE REJECTED ON ARRIVAL
+    // ---------------------------------------------------------
+    @Test
+    void shouldRejectDeltasThatDoNotFitTheProjectedStock() {
+
+        table.put("MWH.001", 8L);
+
+        // projected 8 -> 10 -> rejected (11) -> 5 -> rejected (-1) -> 0
+        assertTrue(buffer.enqueue("MWH.001", 2, 8, 10));
+        assertFalse(buffer.enqueue("MWH.001", 1, 8, 10));
+        assertTrue(buffer.enqueue("MWH.001", -5, 8, 10));
+        assertFalse(buffer.enqueue("MWH.001", -6, 8, 10));
+        assertTrue(buffer.enqueue("MWH.001", -5, 8, 10));
+
+        buffer.flush();
+
+        assertEquals(0L, table.get("MWH.001"));
+        assertEquals(3.0, deltas("accepted"));
+        assertEquals(2.0, deltas("rejected"));
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ THE PROJECTION SURVIVES A FLUSH UNTIL THE ROW CHANGES ELSEWHERE
+    // ---------------------------------------------------------
+    @Test
+    void shouldKeepProjectingAfterFlushAndReseedOnceForgotten() {
+
+        assertTrue(buffer.enqueue("MWH.001", 9, 0, 10));
+        buffer.flush();
+
+        // the stored stock passed in is stale, the projection still knows about the 9
+        assertFalse(buffer.enqueue("MWH.001", 2, 0, 10));
+
+        buffer.forget("MWH.001");
+        buffer.flush();
+
+        // re-seeded from the stored stock of the row that changed elsewhere
+        assertTrue(buffer.enqueue("MWH.001", 2, 3, 10));
+    }
+
+    // ---------------------------------------------------------
+    // 5️⃣ A DELTA THE TABLE TURNS DOWN IS COUNTED AS DROPPED
+    // ---------------------------------------------------------
+    @Test
+    void shouldCountDeltasTheTableTurnsDown() {
+
+        table.put("MWH.001", 1_000_000L);
+
+        assertTrue(buffer.enqueue("MWH.001", 1, 0, 10));
+        buffer.flush();
+
+        assertEquals(1_000_000L, table.get("MWH.001"));
+        assertEquals(1.0, deltas("dropped"));
+        // the projection was taken back and re-seeded from the table afterwards
+        assertTrue(buffer.enqueue("MWH.001", 10, 0, 10));
+    }
+
+    private double deltas(String result) {
+        return meterRegistry.get("warehouse.stock.write-behind.deltas").tag("result", result).counter().count();
+    }
+}
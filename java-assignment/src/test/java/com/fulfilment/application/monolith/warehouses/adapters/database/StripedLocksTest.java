@@ -0,0 +1,85 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLocksTest {
+
+    private final StripedLocks locks = new StripedLocks(64);
+
+    // ---------------------------------------------------------
+    // 1️⃣ STRIPES ARE ROUNDED UP TO A POWER OF TWO
+    // ---------------------------------------------------------
+    @Test
+    void shouldRoundStripesUpToPowerOfTwo() {
+
+        assertEquals(64, locks.size());
+        assertEquals(128, new StripedLocks(100).size());
+        assertEquals(4, new StripedLocks(3).size());
+        assertEquals(2, new StripedLocks(2).size());
+        assertEquals(1, new StripedLocks(1).size());
+        assertEquals(1, new StripedLocks(0).size());
+    }
+
+    // ---------------------------------------------------------
+    // 1️⃣b A SINGLE STRIPE SERIALIZES EVERY KEY
+    // ---------------------------------------------------------
+    @Test
+    void shouldMapEveryKeyToTheOnlyStripe() {
+
+        StripedLocks single = new StripedLocks(1);
+
+        assertEquals(0, single.stripeOf("MWH.001"));
+        assertEquals(0, single.stripeOf("MWH.012"));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ SAME KEY IS REJECTED UNTIL RELEASED
+    // ---------------------------------------------------------
+    @Test
+    void shouldRejectSameStripeUntilReleased() throws Exception {
+
+        int stripe = locks.stripeOf("MWH.001");
+        assertTrue(locks.tryAcquire(stripe, Duration.ZERO));
+
+        assertFalse(locks.tryAcquire(stripe, Duration.ofMillis(10)));
+
+        locks.release(stripe);
+        assertTrue(locks.tryAcquire(stripe, Duration.ZERO));
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ OTHER STRIPES PROCEED IN PARALLEL
+    // ---------------------------------------------------------
+    @Test
+    void shouldNotBlockOtherStripes() throws Exception {
+
+        int stripe = locks.stripeOf("MWH.001");
+        String other = "MWH.002";
+        for (int i = 3; locks.stripeOf(other) == stripe; i++) {
+            other = "MWH.00" + i;
+        }
+        assertTrue(locks.tryAcquire(stripe, Duration.ZERO));
+
+        assertTrue(locks.tryAcquire(locks.stripeOf(other), Duration.ZERO));
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ RELEASE MAY HAPPEN ON ANOTHER THREAD
+    // ---------------------------------------------------------
+    @Test
+    void shouldAllowReleaseFromAnotherThread() throws Exception {
+
+        int stripe = locks.stripeOf("MWH.001");
+        assertTrue(locks.tryAcquire(stripe, Duration.ZERO));
+
+        CompletableFuture.runAsync(() -> locks.release(stripe)).get(1, TimeUnit.SECONDS);
+
+        assertTrue(locks.tryAcquire(stripe, Duration.ZERO));
+    }
+}
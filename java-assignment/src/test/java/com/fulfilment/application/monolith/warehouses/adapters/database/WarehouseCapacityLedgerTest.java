@@ -0,0 +1,56 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarehouseCapacityLedgerTest {
+
+    private final WarehouseCapacityLedger ledger = new WarehouseCapacityLedger();
+
+    // ---------------------------------------------------------
+    // 1️⃣ UNKNOWN LOCATION IS EMPTY
+    // ---------------------------------------------------------
+    @Test
+    void shouldReturnEmptyOccupancyForUnknownLocation() {
+
+        LocationOccupancy occupancy = ledger.occupancyOf("AMSTERDAM-001");
+
+        assertEquals(0, occupancy.warehouses);
+        assertEquals(0, occupancy.capacity);
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ REGISTER AND RELEASE ARE INCREMENTAL
+    // ---------------------------------------------------------
+    @Test
+    void shouldTrackRegisteredAndReleasedWarehouses() {
+
+        ledger.reset(Map.of("AMSTERDAM-001", new LocationOccupancy(1, 50)));
+
+        ledger.register("AMSTERDAM-001", 30);
+        ledger.register("AMSTERDAM-001", 20);
+        ledger.release("AMSTERDAM-001", 50);
+
+        LocationOccupancy occupancy = ledger.occupancyOf("AMSTERDAM-001");
+
+        assertEquals(2, occupancy.warehouses);
+        assertEquals(50, occupancy.capacity);
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ LAST RELEASE CLEARS THE LOCATION
+    // ---------------------------------------------------------
+    @Test
+    void shouldClearLocationWhenLastWarehouseIsReleased() {
+
+        ledger.register("ZWOLLE-001", 40);
+        ledger.release("ZWOLLE-001", 40);
+        ledger.release("ZWOLLE-001", 40);
+
+        assertSame(LocationOccupancy.EMPTY, ledger.occupancyOf("ZWOLLE-001"));
+    }
+}
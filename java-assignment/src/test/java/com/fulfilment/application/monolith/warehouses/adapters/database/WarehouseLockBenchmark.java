@@ -0,0 +1,98 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Contention benchmark for the per business unit lock: eight threads replacing the same
+ * business unit, eight threads on unrelated business units behind {@link StripedLocks}, and
+ * the same unrelated business units behind one global lock.
+ *
+ * <p>Not part of the test suite; run {@link #main} from the test classpath after
+ * {@code ./mvnw test-compile}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class WarehouseLockBenchmark {
+
+  private static final Duration WAIT = Duration.ofSeconds(10);
+
+  // stand-in for the validation and writes done while a business unit is locked
+  private static final long CRITICAL_SECTION_TOKENS = 200;
+
+  private StripedLocks striped;
+
+  private StripedLocks global;
+
+  private String[] businessUnitCodes;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    striped = new StripedLocks(64);
+    global = new StripedLocks(1);
+    businessUnitCodes = new String[1024];
+    for (int i = 0; i < businessUnitCodes.length; i++) {
+      businessUnitCodes[i] = "MWH." + i;
+    }
+  }
+
+  @Benchmark
+  public void sameBusinessUnit() throws InterruptedException {
+    locked(striped, striped.stripeOf("MWH.001"));
+  }
+
+  @Benchmark
+  public void unrelatedBusinessUnitsStriped() throws InterruptedException {
+    locked(striped, striped.stripeOf(randomCode()));
+  }
+
+  @Benchmark
+  public void unrelatedBusinessUnitsGlobalLock() throws InterruptedException {
+    locked(global, 0);
+  }
+
+  private static void locked(StripedLocks locks, int stripe) throws InterruptedException {
+    if (!locks.tryAcquire(stripe, WAIT)) {
+      throw new IllegalStateException("lock not acquired");
+    }
+    try {
+      Blackhole.consumeCPU(CRITICAL_SECTION_TOKENS);
+    } finally {
+      locks.release(stripe);
+    }
+  }
+
+  private String randomCode() {
+    return businessUnitCodes[ThreadLocalRandom.current().nextInt(businessUnitCodes.length)];
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(WarehouseLockBenchmark.class.getSimpleName())
+            .build())
+            .run();
+  }
+}
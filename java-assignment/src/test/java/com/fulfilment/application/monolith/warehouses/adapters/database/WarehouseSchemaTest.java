@@ -0,0 +1,52 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarehouseSchemaTest {
+
+    // ---------------------------------------------------------
+    // 1️⃣ THE SCRIPT HOLDS THE PARTIAL UNIQUE INDEX, WITHOUT COMMENTS
+    // ---------------------------------------------------------
+    @Test
+    void shouldReadPartialUniqueIndexFromScript() {
+
+        List<String> statements = WarehouseSchema.statements();
+
+        assertEquals(1, statements.size());
+        String index = statements.get(0);
+        assertTrue(index.startsWith("CREATE UNIQUE INDEX IF NOT EXISTS warehouse_active_bu_code_uidx"), index);
+        assertTrue(index.endsWith("WHERE archivedAt IS NULL"), index);
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ EVERY STATEMENT CAN RUN AGAIN ON AN EXISTING SCHEMA
+    // ---------------------------------------------------------
+    @Test
+    void shouldOnlyHoldIdempotentStatements() {
+
+        for (String statement : WarehouseSchema.statements()) {
+            assertTrue(statement.toUpperCase(Locale.ROOT).contains("IF NOT EXISTS"), statement);
+        }
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ THE SEED SCRIPT IS LEFT WITH DATA ONLY
+    // ---------------------------------------------------------
+    @Test
+    void shouldKeepSchemaOutOfSeedScript() throws Exception {
+
+        String seed;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("import.sql")) {
+            seed = new String(in.readAllBytes(), StandardCharsets.UTF_8).toUpperCase(Locale.ROOT);
+        }
+
+        assertFalse(seed.contains("CREATE "), "import.sql should only seed data");
+    }
+}
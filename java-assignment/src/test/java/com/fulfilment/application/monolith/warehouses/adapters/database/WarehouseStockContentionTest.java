@@ -0,0 +1,133 @@
+package com.fulfilment.application.monolith.warehouses.adapters.database;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contention benchmark: concurrent +1 stock adjustments on one warehouse through the
+ * read-modify-write path ({@code findByBusinessUnitCode} + {@code update}) and through the
+ * conditional {@code adjustStock} update. Lost updates and throughput are logged for both.
+ */
+@QuarkusTest
+class WarehouseStockContentionTest {
+
+    private static final Logger LOGGER = Logger.getLogger(WarehouseStockContentionTest.class.getName());
+
+    private static final int THREADS = 8;
+
+    private static final int ADJUSTMENTS_PER_THREAD = 25;
+
+    private static final String READ_MODIFY_WRITE = "BENCH-RMW";
+
+    private static final String CONDITIONAL_UPDATE = "BENCH-ATOMIC";
+
+    @Inject
+    WarehouseRepository warehouseRepository;
+
+    @BeforeEach
+    void setUp() {
+        warehouseRepository.create(warehouse(READ_MODIFY_WRITE));
+        warehouseRepository.create(warehouse(CONDITIONAL_UPDATE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        warehouseRepository.remove(warehouse(READ_MODIFY_WRITE));
+        warehouseRepository.remove(warehouse(CONDITIONAL_UPDATE));
+    }
+
+    @Test
+    void conditionalUpdateShouldNotLoseAdjustmentsUnderContention() throws Exception {
+
+        long readModifyWriteNanos = run(() -> {
+            Warehouse current = warehouseRepository.findByBusinessUnitCode(READ_MODIFY_WRITE);
+            current.setStock(current.getStock() + 1);
+            warehouseRepository.update(current);
+        });
+
+        long conditionalUpdateNanos = run(() ->
+                assertTrue(warehouseRepository.adjustStock(CONDITIONAL_UPDATE, 1)));
+
+        int expected = THREADS * ADJUSTMENTS_PER_THREAD;
+        int readModifyWriteStock = warehouseRepository.findByBusinessUnitCode(READ_MODIFY_WRITE).getStock();
+        int conditionalUpdateStock = warehouseRepository.findByBusinessUnitCode(CONDITIONAL_UPDATE).getStock();
+
+        LOGGER.infof("read-modify-write: %d/%d adjustments kept, %.0f ops/s",
+                readModifyWriteStock, expected, opsPerSecond(expected, readModifyWriteNanos));
+        LOGGER.infof("conditional update: %d/%d adjustments kept, %.0f ops/s",
+                conditionalUpdateStock, expected, opsPerSecond(expected, conditionalUpdateNanos));
+
+        assertEquals(expected, conditionalUpdateStock);
+    }
+
+    @Test
+    void conditionalUpdateShouldNeverExceedCapacity() throws Exception {
+
+        run(() -> warehouseRepository.adjustStock(CONDITIONAL_UPDATE, 7));
+
+        int stock = warehouseRepository.findByBusinessUnitCode(CONDITIONAL_UPDATE).getStock();
+        assertTrue(stock <= 1000);
+        assertTrue(stock > 1000 - 7);
+    }
+
+    private long run(Runnable adjustment) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < ADJUSTMENTS_PER_THREAD; j++) {
+                    try {
+                        adjustment.run();
+                    } catch (RuntimeException ex) {
+                        // a failed read-modify-write counts as a lost adjustment
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        return elapsed;
+    }
+
+    private static double opsPerSecond(int operations, long nanos) {
+        return operations / (nanos / 1_000_000_000.0);
+    }
+
+    private static Warehouse warehouse(String businessUnitCode) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode(businessUnitCode);
+        warehouse.setLocation("VETSBY-001");
+        warehouse.setCapacity(1000);
+        warehouse.setStock(0);
+        warehouse.setCreatedAt(LocalDateTime.now());
+        return warehouse;
+    }
+}
@@ -79,7 +79,7 @@ class WarehouseEndpointTest {
             {
               "businessUnitCode": "NEW-AMS-001",
               "location": "AMSTERDAM-001",
-              "capacity": 100,
+              "capacity": 50,
               "stock": 10
             }
         """;
@@ -198,4 +198,69 @@ class WarehouseEndpointTest {
         .then()
             .statusCode(anyOf(is(400), is(422)));
     }
+
+    // ---------------------------------------------------------
+    // 9️⃣ KEYSET PAGINATION
+    // ---------------------------------------------------------
+    @Test
+    @Order(9)
+    void shouldPageThroughActiveWarehouses() {
+
+        given()
+            .queryParam("limit", 1)
+        .when()
+            .get(PATH)
+        .then()
+            .statusCode(200)
+            .body("size()", is(1))
+            .body("[0].businessUnitCode", equalTo("MWH.001"));
+
+        given()
+            .queryParam("limit", 2)
+            .queryParam("cursor", "MWH.001")
+        .when()
+            .get(PATH)
+        .then()
+            .statusCode(200)
+            .body("businessUnitCode", contains("MWH.012", "MWH.023"));
+    }
+
+    // ---------------------------------------------------------
+    // 🔟 ADJUST STOCK WITHIN CAPACITY
+    // ---------------------------------------------------------
+    @Test
+    @Order(10)
+    void shouldAdjustStockAndRejectOutOfRange() {
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{ \"delta\": 3 }")
+        .when()
+            .post(PATH + "/MWH.023/stock")
+        .then()
+            .statusCode(204);
+
+        given()
+        .when()
+            .get(PATH + "/MWH.023")
+        .then()
+            .statusCode(200)
+            .body("stock", equalTo(30));
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{ \"delta\": 1 }")
+        .when()
+            .post(PATH + "/MWH.023/stock")
+        .then()
+            .statusCode(400);
+
+        given()
+            .contentType(ContentType.JSON)
+            .body("{ \"delta\": -1 }")
+        .when()
+            .post(PATH + "/UNKNOWN-ID/stock")
+        .then()
+            .statusCode(404);
+    }
 }
@@ -1,11 +1,13 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseLock;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 
 import jakarta.inject.Inject;
 
@@ -23,6 +25,9 @@ class ArchiveWarehouseUseCaseTest {
     @InjectMock
     WarehouseStore warehouseStore;
 
+    @InjectMock
+    WarehouseLock warehouseLock;
+
     // ---------------------------------------------------------
     // 1️⃣ Should set archivedAt and update store
     // ---------------------------------------------------------
@@ -80,5 +85,21 @@ class ArchiveWarehouseUseCaseTest {
 
         verifyNoInteractions(warehouseStore);
     }
+
+    // ---------------------------------------------------------
+    // 4️⃣ Should lock the business unit before updating it
+    // ---------------------------------------------------------
+    @Test
+    void shouldLockBusinessUnitBeforeUpdate() {
+
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode("MWH-001");
+
+        archiveWarehouseUseCase.archive(warehouse);
+
+        InOrder inOrder = inOrder(warehouseLock, warehouseStore);
+        inOrder.verify(warehouseLock).lock("MWH-001");
+        inOrder.verify(warehouseStore).update(warehouse);
+    }
 }
 
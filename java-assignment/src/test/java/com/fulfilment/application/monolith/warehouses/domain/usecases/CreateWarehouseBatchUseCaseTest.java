@@ -0,0 +1,146 @@
+package com.fulfilment.application.monolith.warehouses.domain.usecases;
+
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseCapacityLedger;
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.models.WarehouseCreationResult;
+import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.exceptions.LocationNotFoundException;
+import com.fulfilment.application.monolith.warehouses.exceptions.WareHouseAlreadyExistException;
+import com.fulfilment.application.monolith.warehouses.exceptions.WarehouseCapacityExceededException;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@QuarkusTest
+class CreateWarehouseBatchUseCaseTest {
+
+    @Inject
+    CreateWarehouseBatchUseCase useCase;
+
+    @InjectMock
+    WarehouseStore warehouseStore;
+
+    @InjectMock
+    WarehouseCapacityLedger capacityLedger;
+
+    @InjectMock
+    LocationResolver locationResolver;
+
+    // @Captor fields are not initialised by @QuarkusTest itself
+    @Captor
+    ArgumentCaptor<List<Warehouse>> createdCaptor;
+
+    private AutoCloseable captors;
+
+    @BeforeEach
+    void setUp() {
+        captors = MockitoAnnotations.openMocks(this);
+
+        when(locationResolver.resolveByIdentifier("EINDHOVEN-001"))
+                .thenReturn(new Location("EINDHOVEN-001", 2, 70));
+        when(capacityLedger.occupancyOf("EINDHOVEN-001"))
+                .thenReturn(new LocationOccupancy(1, 20));
+    }
+
+    @AfterEach
+    void closeCaptors() throws Exception {
+        captors.close();
+    }
+
+    // ---------------------------------------------------------
+    // 1️⃣ VALID WAREHOUSES ARE INSERTED TOGETHER
+    // ---------------------------------------------------------
+    @Test
+    void shouldCreateAcceptedWarehousesInOneCall() {
+
+        when(warehouseStore.findActiveBusinessUnitCodes(any())).thenReturn(Set.of());
+
+        List<WarehouseCreationResult> results = useCase.createAll(List.of(
+                warehouse("MWH.100", "EINDHOVEN-001", 30, 10)));
+
+        assertTrue(results.get(0).isCreated());
+        assertNotNull(results.get(0).warehouse.getCreatedAt());
+        verify(warehouseStore).createAll(List.of(results.get(0).warehouse));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ EARLIER ITEMS COUNT TOWARDS LOCATION LIMITS
+    // ---------------------------------------------------------
+    @Test
+    void shouldCountEarlierBatchItemsTowardsLocationLimits() {
+
+        when(warehouseStore.findActiveBusinessUnitCodes(any())).thenReturn(Set.of());
+
+        List<WarehouseCreationResult> results = useCase.createAll(List.of(
+                warehouse("MWH.100", "EINDHOVEN-001", 30, 10),
+                warehouse("MWH.101", "EINDHOVEN-001", 10, 5)));
+
+        assertTrue(results.get(0).isCreated());
+        assertInstanceOf(WarehouseCapacityExceededException.class, results.get(1).rejection);
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ DUPLICATES IN DATABASE AND IN BATCH ARE REJECTED
+    // ---------------------------------------------------------
+    @Test
+    void shouldRejectExistingAndRepeatedBusinessUnitCodes() {
+
+        when(capacityLedger.occupancyOf("EINDHOVEN-001")).thenReturn(LocationOccupancy.EMPTY);
+        when(warehouseStore.findActiveBusinessUnitCodes(any())).thenReturn(Set.of("MWH.001"));
+
+        List<WarehouseCreationResult> results = useCase.createAll(List.of(
+                warehouse("MWH.001", "EINDHOVEN-001", 10, 5),
+                warehouse("MWH.100", "EINDHOVEN-001", 10, 5),
+                warehouse("MWH.100", "EINDHOVEN-001", 10, 5)));
+
+        assertInstanceOf(WareHouseAlreadyExistException.class, results.get(0).rejection);
+        assertTrue(results.get(1).isCreated());
+        assertInstanceOf(WareHouseAlreadyExistException.class, results.get(2).rejection);
+
+        verify(warehouseStore).createAll(createdCaptor.capture());
+        assertEquals(1, createdCaptor.getValue().size());
+    }
+
+    // ---------------------------------------------------------
+    // 4️⃣ INVALID ITEMS DO NOT BLOCK THE BATCH
+    // ---------------------------------------------------------
+    @Test
+    void shouldReportInvalidItemsAndSkipInsertWhenNothingIsAccepted() {
+
+        when(warehouseStore.findActiveBusinessUnitCodes(any())).thenReturn(Set.of());
+
+        List<WarehouseCreationResult> results = useCase.createAll(List.of(
+                warehouse("MWH.100", "UNKNOWN-001", 10, 5),
+                warehouse("MWH.101", null, 10, 5)));
+
+        assertInstanceOf(LocationNotFoundException.class, results.get(0).rejection);
+        assertInstanceOf(ValidationException.class, results.get(1).rejection);
+        verify(warehouseStore, never()).createAll(any());
+    }
+
+    private static Warehouse warehouse(String code, String location, int capacity, int stock) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode(code);
+        warehouse.setLocation(location);
+        warehouse.setCapacity(capacity);
+        warehouse.setStock(stock);
+        return warehouse;
+    }
+}
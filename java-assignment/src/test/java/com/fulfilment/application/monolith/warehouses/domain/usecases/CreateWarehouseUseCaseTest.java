@@ -1,7 +1,8 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
-import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseRepository;
+import com.fulfilment.application.monolith.warehouses.adapters.database.WarehouseCapacityLedger;
 import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
 import com.fulfilment.application.monolith.warehouses.domain.ports.LocationResolver;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
@@ -9,6 +10,7 @@ import com.fulfilment.application.monolith.warehouses.utils.WarehousesUtils;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -27,7 +29,7 @@ class CreateWarehouseUseCaseTest {
     WarehouseStore warehouseStore;
 
     @InjectMock
-    WarehouseRepository warehouseRepository;
+    WarehouseCapacityLedger capacityLedger;
 
     @InjectMock
     LocationResolver locationResolver;
@@ -35,6 +37,12 @@ class CreateWarehouseUseCaseTest {
     @InjectMock
     WarehousesUtils warehousesUtils;
 
+    @BeforeEach
+    void setUp() {
+        when(capacityLedger.occupancyOf(any()))
+                .thenReturn(LocationOccupancy.EMPTY);
+    }
+
     // ---------------------------------------------------------
     // 1️⃣ HAPPY PATH
     // ---------------------------------------------------------
@@ -43,11 +51,12 @@ class CreateWarehouseUseCaseTest {
 
         Warehouse warehouse = new Warehouse();
         warehouse.setBusinessUnitCode("MWH-001");
-        warehouse.setLocation("AMSTERDAM");
+        warehouse.setLocation("AMSTERDAM-001");
         warehouse.setCapacity(100);
         warehouse.setStock(50);
 
-        Location location = new Location("ZWOLLE-001", 1, 40);
+        Location location = new Location("AMSTERDAM-001", 5, 400);
+        LocationOccupancy occupancy = new LocationOccupancy(2, 200);
 
         when(warehouseStore.findByBusinessUnitCode("MWH-001"))
                 .thenReturn(null);
@@ -55,11 +64,15 @@ class CreateWarehouseUseCaseTest {
         when(locationResolver.resolveByIdentifier("AMSTERDAM-001"))
                 .thenReturn(location);
 
-        when(warehouseRepository.count("location", "AMSTERDAM-001"))
-                .thenReturn(5L);
+        when(capacityLedger.occupancyOf("AMSTERDAM-001"))
+                .thenReturn(occupancy);
 
         createWarehouseUseCase.create(warehouse);
 
+        // the checks see the occupancy of the warehouse's own location
+        verify(warehousesUtils).checkIfWarehouseCanBeCreatedAtLocation(warehouse, 2L, location);
+        verify(warehousesUtils).checkIfLocationHasCapacity(warehouse, occupancy, location);
+
         ArgumentCaptor<Warehouse> captor =
                 ArgumentCaptor.forClass(Warehouse.class);
 
@@ -128,18 +141,18 @@ class CreateWarehouseUseCaseTest {
     void shouldThrowWhenWarehouseLimitExceededAtLocation() {
 
         Warehouse warehouse = new Warehouse();
-        warehouse.setLocation("AMSTERDAM");
+        warehouse.setLocation("AMSTERDAM-001");
 
-        Location location = new Location("ZWOLLE-001", 1, 40);
+        Location location = new Location("AMSTERDAM-001", 10, 400);
 
         when(warehouseStore.findByBusinessUnitCode(any()))
                 .thenReturn(null);
 
-        when(locationResolver.resolveByIdentifier(any()))
+        when(locationResolver.resolveByIdentifier("AMSTERDAM-001"))
                 .thenReturn(location);
 
-        when(warehouseRepository.count("location", "AMSTERDAM"))
-                .thenReturn(10L);
+        when(capacityLedger.occupancyOf("AMSTERDAM-001"))
+                .thenReturn(new LocationOccupancy(10, 400));
 
         doThrow(new IllegalStateException("Too many warehouses"))
                 .when(warehousesUtils)
@@ -1,7 +1,9 @@
 package com.fulfilment.application.monolith.warehouses.domain.usecases;
 
 import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseLock;
 import com.fulfilment.application.monolith.warehouses.domain.ports.WarehouseStore;
+import com.fulfilment.application.monolith.warehouses.exceptions.WarehouseConcurrentModificationException;
 import com.fulfilment.application.monolith.warehouses.utils.WarehousesUtils;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
@@ -26,6 +28,9 @@ class ReplaceWarehouseUseCaseTest {
     @InjectMock
     WarehousesUtils warehousesUtils;
 
+    @InjectMock
+    WarehouseLock warehouseLock;
+
     // ---------------------------------------------------------
     // 1️⃣ HAPPY PATH
     // ---------------------------------------------------------
@@ -47,18 +52,16 @@ class ReplaceWarehouseUseCaseTest {
 
         replaceWarehouseUseCase.replace(newWarehouse);
 
-        // Verify order: create first, then update
-        InOrder inOrder = inOrder(warehouseStore);
-        inOrder.verify(warehouseStore).create(newWarehouse);
-        inOrder.verify(warehouseStore).update(existing);
+        // Verify archive and create happen in one store call
+        verify(warehouseStore).replace(existing, newWarehouse);
 
         assertNotNull(newWarehouse.getCreatedAt());
         assertNotNull(existing.getArchivedAt());
 
         verify(warehouseStore, times(1)).findByBusinessUnitCode("MWH-001");
-        verify(warehouseStore, times(1)).update(existing);
+        verify(warehouseStore, never()).update(any());
         verify(warehouseStore, never()).remove(existing);
-        verify(warehouseStore, never()).create(existing);
+        verify(warehouseStore, never()).create(any());
         assertEquals("MWH-001", newWarehouse.getBusinessUnitCode());
         assertEquals(400, newWarehouse.getCapacity());
         assertEquals(100, newWarehouse.getStock());
@@ -83,8 +86,7 @@ class ReplaceWarehouseUseCaseTest {
         assertThrows(IllegalStateException.class,
                 () -> replaceWarehouseUseCase.replace(newWarehouse));
 
-        verify(warehouseStore, never()).create(any());
-        verify(warehouseStore, never()).update(any());
+        verify(warehouseStore, never()).replace(any(), any());
     }
 
     // ---------------------------------------------------------
@@ -108,8 +110,7 @@ class ReplaceWarehouseUseCaseTest {
         assertThrows(IllegalArgumentException.class,
                 () -> replaceWarehouseUseCase.replace(newWarehouse));
 
-        verify(warehouseStore, never()).create(any());
-        verify(warehouseStore, never()).update(any());
+        verify(warehouseStore, never()).replace(any(), any());
     }
 
     // ---------------------------------------------------------
@@ -133,8 +134,7 @@ class ReplaceWarehouseUseCaseTest {
         assertThrows(IllegalArgumentException.class,
                 () -> replaceWarehouseUseCase.replace(newWarehouse));
 
-        verify(warehouseStore, never()).create(any());
-        verify(warehouseStore, never()).update(any());
+        verify(warehouseStore, never()).replace(any(), any());
     }
 
     // ---------------------------------------------------------
@@ -191,8 +191,47 @@ class ReplaceWarehouseUseCaseTest {
         verify(warehousesUtils).checkIfWarehouseHaveCapacity(newWarehouse, existing);
         verify(warehousesUtils).checkIfNewWareHouseHaveSameStocks(newWarehouse, existing);
 
-        verify(warehouseStore).create(newWarehouse);
-        verify(warehouseStore).update(existing);
+        verify(warehouseStore).replace(existing, newWarehouse);
     }
-}
 
+    // ---------------------------------------------------------
+    // 7️⃣ BUSINESS UNIT IS LOCKED BEFORE IT IS READ
+    // ---------------------------------------------------------
+    @Test
+    void shouldLockBusinessUnitBeforeReadingIt() {
+
+        Warehouse newWarehouse = new Warehouse();
+        newWarehouse.setBusinessUnitCode("MWH-001");
+
+        Warehouse existing = new Warehouse();
+
+        when(warehouseStore.findByBusinessUnitCode("MWH-001"))
+                .thenReturn(existing);
+
+        replaceWarehouseUseCase.replace(newWarehouse);
+
+        InOrder inOrder = inOrder(warehouseLock, warehouseStore);
+        inOrder.verify(warehouseLock).lock("MWH-001");
+        inOrder.verify(warehouseStore).findByBusinessUnitCode("MWH-001");
+        inOrder.verify(warehouseStore).replace(existing, newWarehouse);
+    }
+
+    // ---------------------------------------------------------
+    // 8️⃣ SHOULD NOT TOUCH THE STORE WHEN THE LOCK IS BUSY
+    // ---------------------------------------------------------
+    @Test
+    void shouldThrowWhenBusinessUnitIsLocked() {
+
+        Warehouse newWarehouse = new Warehouse();
+        newWarehouse.setBusinessUnitCode("MWH-001");
+
+        doThrow(new WarehouseConcurrentModificationException("busy"))
+                .when(warehouseLock)
+                .lock("MWH-001");
+
+        assertThrows(WarehouseConcurrentModificationException.class,
+                () -> replaceWarehouseUseCase.replace(newWarehouse));
+
+        verifyNoInteractions(warehouseStore);
+    }
+}
@@ -0,0 +1,60 @@
+package com.fulfilment.application.monolith.warehouses.utils;
+
+import com.fulfilment.application.monolith.warehouses.domain.models.Location;
+import com.fulfilment.application.monolith.warehouses.domain.models.LocationOccupancy;
+import com.fulfilment.application.monolith.warehouses.domain.models.Warehouse;
+import com.fulfilment.application.monolith.warehouses.exceptions.WarehouseCapacityExceededException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarehousesUtilsTest {
+
+    private final WarehousesUtils warehousesUtils = new WarehousesUtils();
+
+    // AMSTERDAM-001 takes 100 in total, 60 of it is used by the active warehouses
+    private final Location location = new Location("AMSTERDAM-001", 5, 100);
+
+    private final LocationOccupancy occupancy = new LocationOccupancy(2, 60);
+
+    // ---------------------------------------------------------
+    // 1️⃣ BELOW THE REMAINING CAPACITY
+    // ---------------------------------------------------------
+    @Test
+    void shouldAcceptCapacityBelowRemainingLocationCapacity() {
+
+        assertDoesNotThrow(() ->
+                warehousesUtils.checkIfLocationHasCapacity(warehouse(39), occupancy, location));
+    }
+
+    // ---------------------------------------------------------
+    // 2️⃣ EXACTLY THE REMAINING CAPACITY
+    // ---------------------------------------------------------
+    @Test
+    void shouldAcceptCapacityFillingTheLocationExactly() {
+
+        assertDoesNotThrow(() ->
+                warehousesUtils.checkIfLocationHasCapacity(warehouse(40), occupancy, location));
+    }
+
+    // ---------------------------------------------------------
+    // 3️⃣ ABOVE THE REMAINING CAPACITY
+    // ---------------------------------------------------------
+    @Test
+    void shouldRejectCapacityAboveRemainingLocationCapacity() {
+
+        WarehouseCapacityExceededException exception = assertThrows(WarehouseCapacityExceededException.class, () ->
+                warehousesUtils.checkIfLocationHasCapacity(warehouse(41), occupancy, location));
+
+        assertTrue(exception.getMessage().contains("(40)"), exception.getMessage());
+    }
+
+    private static Warehouse warehouse(int capacity) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setBusinessUnitCode("MWH.100");
+        warehouse.setLocation("AMSTERDAM-001");
+        warehouse.setCapacity(capacity);
+        warehouse.setStock(0);
+        return warehouse;
+    }
+}